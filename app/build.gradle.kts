@@ -30,9 +30,16 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // Robolectric tests need the merged manifest and resources
+        unitTests.isIncludeAndroidResources = true
+    }
 }
 
 dependencies {
+    // Pure-Java engines shared with the benchmarks module
+    implementation(project(":core"))
+
     // AndroidX Core
     implementation(libs.appcompat)
     implementation(libs.activity)
@@ -45,8 +52,17 @@ dependencies {
     implementation("androidx.cardview:cardview:1.0.0")
     implementation("androidx.recyclerview:recyclerview:1.3.2")
 
+    // Background jobs (expired request sweeping)
+    implementation("androidx.work:work-runtime:2.9.1")
+
+    // Local mirror of Firestore data for offline-first screens
+    implementation("androidx.room:room-runtime:2.6.1")
+    annotationProcessor("androidx.room:room-compiler:2.6.1")
+
     // Testing
     testImplementation(libs.junit)
+    testImplementation("org.robolectric:robolectric:4.14.1")
+    testImplementation("androidx.test:core:1.6.1")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
@@ -0,0 +1,59 @@
+package com.example.ridesharing;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide executors for work that must stay off the main thread.
+ */
+public final class AppExecutors {
+
+    // Single thread so snapshot events are parsed in the order Firestore delivers them
+    private static final ExecutorService SNAPSHOT_PARSER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-parser");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    // Small shared pool for one-off background jobs (maintenance, disk)
+    private static final ExecutorService BACKGROUND = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "app-background");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    // Single thread so local database reads and writes are applied in submission order
+    private static final ExecutorService DISK_IO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "disk-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final Executor MAIN_THREAD = MAIN_HANDLER::post;
+
+    private AppExecutors() {}
+
+    /** Executor to register Firestore snapshot listeners with, so parsing runs off the UI. */
+    public static Executor snapshotParser() {
+        return SNAPSHOT_PARSER;
+    }
+
+    public static Executor background() {
+        return BACKGROUND;
+    }
+
+    /** Executor for the local database; cold-open reads must not queue behind other jobs. */
+    public static Executor diskIo() {
+        return DISK_IO;
+    }
+
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.ridesharing;
 
+import android.Manifest;
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.location.Location;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.util.Log;
@@ -11,21 +16,39 @@ import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
-import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class AvailableRequestsActivity extends AppCompatActivity implements RideRequestAdapter.OnRequestClickListener {
 
@@ -33,6 +56,8 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
 
     // UI Components
     private RecyclerView requestsRecyclerView;
+    private LinearLayoutManager layoutManager;
+    private final MinuteTicker.Listener minuteListener = this::onMinuteTick;
     private RideRequestAdapter requestAdapter;
     private View emptyStateLayout, searchPanel;
     private ProgressBar progressBar;
@@ -42,16 +67,56 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
     private ImageView filterButton;
     private View refreshButton;
 
-    // Data Lists
-    private List<RideRequest> requestList = new ArrayList<>();
-    private List<RideRequest> filteredList = new ArrayList<>();
+    // Data: id-indexed store fed by snapshot document changes
+    private final RideRequestFeedStore feedStore = new RideRequestFeedStore();
+
+    // Offline-first: requests cached on disk are shown until the listener covering them has
+    // heard from the server. Nearby cells settle all of them at once; pages settle their range.
+    private RideRequestRepository requestRepository;
+    private final Set<String> unconfirmedCachedIds = new HashSet<>();
+    private int listenersAwaitingServer = 0;
+    private boolean cachedFeedSettled = false;
+    private final List<FeedRange> confirmedRanges = new ArrayList<>();
 
     // Firebase
     private FirebaseFirestore db;
     private FirebaseAuth mAuth;
-    private ListenerRegistration requestsListener;
+    private RequestExpirySweeper expirySweeper;
+
+    // Driver details written on acceptance, kept from the shared profile so accepting is
+    // usually a single transaction; null until the profile has loaded
+    private User driverProfile;
+    private final UserProfileCache.Listener driverProfileListener = this::onDriverProfile;
+    private final Set<String> acceptsInFlight = new HashSet<>();
+    // Feed listeners, removed while the screen is stopped
+    private ScreenListeners requestsListeners;
+
+    // Nearby feed: one listener per geohash cell around the driver
+    private static final double NEARBY_RADIUS_KM = 10.0;
+    private static final MatchingEngine MATCHING_ENGINE =
+            new MatchingEngine(NEARBY_RADIUS_KM, MatchingEngine.DEFAULT_AVERAGE_SPEED_KMH);
+    private static final int LOCATION_PERMISSION_REQUEST = 2001;
+    private static final String ALL_REQUESTS_KEY = "all";
+    private FusedLocationProviderClient locationClient;
+    private Location driverLocation;
+    private boolean locationPermissionRequested = false;
+
+    // Server-side filters, sort order and paging of the full feed
+    private FeedQuery feedQuery = FeedQuery.defaults();
+    private ChipGroup chipGroupOrder, chipGroupVehicle, chipGroupSeats;
+    private static final int PREFETCH_DISTANCE = 5;
+    private DocumentSnapshot lastPageEnd;  // startAfter cursor for the next page
+    private RideRequest lastPageEndRequest; // the same document, for comparing cached requests
+    private int pagesLoaded = 0;
+    private boolean pageLoading = false;
+    private boolean hasMorePages = false;
 
     // Search State
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+    private final LocationSearchIndex searchIndex = new LocationSearchIndex();
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable debouncedSearch = this::applySearchFilter;
+    private Comparator<RideRequest> baseOrder; // nearest first, or the server query's order
     private boolean isSearchActive = false;
     private String currentFromFilter = "";
     private String currentToFilter = "";
@@ -59,6 +124,43 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
     // Loading state
     private boolean isLoading = false;
 
+    // Bumped whenever the listeners are replaced, so stale background results are ignored
+    private int feedGeneration = 0;
+
+    // Keys of the listeners (cells or pages) currently holding each request; a request
+    // leaves the feed only once none of them does
+    private final Map<String, Set<String>> feedHolders = new HashMap<>();
+
+    /** Parsed result of one document change, handed from the parser thread to the UI. */
+    private static final class FeedChange {
+        final String id;
+        final RideRequest request; // null removes the request from the feed
+
+        FeedChange(String id, RideRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Stretch of the feed order one page listener covers: after the previous page's last
+     * request up to and including its own last one. A null bound is open.
+     */
+    private static final class FeedRange {
+        final RideRequest after;
+        final RideRequest through;
+
+        FeedRange(RideRequest after, RideRequest through) {
+            this.after = after;
+            this.through = through;
+        }
+
+        boolean contains(Comparator<RideRequest> order, RideRequest request) {
+            return (after == null || order.compare(request, after) > 0)
+                    && (through == null || order.compare(request, through) <= 0);
+        }
+    }
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -80,6 +182,10 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
     private void initializeFirebase() {
         db = FirebaseFirestore.getInstance();
         mAuth = FirebaseAuth.getInstance();
+        locationClient = LocationServices.getFusedLocationProviderClient(this);
+        expirySweeper = new RequestExpirySweeper(db);
+        requestRepository = RideRequestRepository.getInstance(this);
+        requestsListeners = new ScreenListeners(this, TAG, this::resumeFeed);
     }
 
     private void initializeViews() {
@@ -93,6 +199,9 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
         etFromLocation = findViewById(R.id.et_from_location);
         etToLocation = findViewById(R.id.et_to_location);
         filterButton = findViewById(R.id.filter_button);
+        chipGroupOrder = findViewById(R.id.chip_group_order);
+        chipGroupVehicle = findViewById(R.id.chip_group_vehicle);
+        chipGroupSeats = findViewById(R.id.chip_group_seats);
 
         if (filterButton != null) {
             filterButton.setOnClickListener(v -> toggleSearchPanel());
@@ -128,7 +237,7 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
                 @Override
                 public void afterTextChanged(Editable s) {
                     if (isSearchActive) {
-                        applySearchFilter();
+                        scheduleSearch();
                     }
                 }
             });
@@ -143,13 +252,19 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
                 @Override
                 public void afterTextChanged(Editable s) {
                     if (isSearchActive) {
-                        applySearchFilter();
+                        scheduleSearch();
                     }
                 }
             });
         }
     }
 
+    /** Typing re-runs the search once input pauses, not on every keystroke. */
+    private void scheduleSearch() {
+        searchHandler.removeCallbacks(debouncedSearch);
+        searchHandler.postDelayed(debouncedSearch, SEARCH_DEBOUNCE_MS);
+    }
+
     private void toggleSearchPanel() {
         if (searchPanel != null) {
             if (searchPanel.getVisibility() == View.VISIBLE) {
@@ -188,39 +303,93 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
     }
 
     private void applySearchFilter() {
+        searchHandler.removeCallbacks(debouncedSearch);
         String from = etFromLocation != null ? etFromLocation.getText().toString().trim().toLowerCase(Locale.ROOT) : "";
         String to = etToLocation != null ? etToLocation.getText().toString().trim().toLowerCase(Locale.ROOT) : "";
 
         currentFromFilter = from;
         currentToFilter = to;
 
-        filteredList.clear();
-        for (RideRequest request : requestList) {
-            String source = request.getSource();
-            String destination = request.getDestination();
-
-            boolean matchesFrom = from.isEmpty() || (source != null && source.toLowerCase(Locale.ROOT).contains(from));
-            boolean matchesTo = to.isEmpty() || (destination != null && destination.toLowerCase(Locale.ROOT).contains(to));
-
-            if (matchesFrom && matchesTo) {
-                filteredList.add(request);
-            }
-        }
-
-        isSearchActive = !from.isEmpty() || !to.isEmpty();
+        FeedQuery selectedQuery = readSelectedFeedQuery();
+        isSearchActive = !from.isEmpty() || !to.isEmpty() || selectedQuery.hasFilters();
 
         if (isSearchActive && chipActiveFilter != null) {
             chipActiveFilter.setVisibility(View.VISIBLE);
-            String filterText = "Filter: ";
-            if (!from.isEmpty()) filterText += "From " + from;
-            if (!to.isEmpty()) filterText += (from.isEmpty() ? "To " : " to ") + to;
-            chipActiveFilter.setText(filterText);
+            List<String> parts = new ArrayList<>();
+            String route = "";
+            if (!from.isEmpty()) route += "From " + from;
+            if (!to.isEmpty()) route += (from.isEmpty() ? "To " : " to ") + to;
+            if (!route.isEmpty()) parts.add(route);
+            if (selectedQuery.getVehicleType() != null) parts.add(selectedQuery.getVehicleType());
+            if (selectedQuery.getSeats() > 0) parts.add("up to " + selectedQuery.getSeats() + " seats");
+            chipActiveFilter.setText("Filter: " + String.join(", ", parts));
         } else if (chipActiveFilter != null) {
             chipActiveFilter.setVisibility(View.GONE);
         }
 
-        updateUIWithFilteredResults();
+        // Order and filters are part of the server query, so changing them re-queries
+        boolean requery = !sameFeedQuery(selectedQuery, feedQuery);
+        feedQuery = selectedQuery;
+        applyClientFilter();
         hideSearchPanel();
+
+        if (requery) {
+            isLoading = false;
+            loadRideRequests();
+        } else {
+            publishFeed();
+            updateUIState();
+        }
+    }
+
+    /**
+     * Text search always runs locally against the search index, with the best matches
+     * first; the query filters also run locally in the nearby feed.
+     */
+    private void applyClientFilter() {
+        FeedQuery query = feedQuery;
+        boolean textSearch = !currentFromFilter.isEmpty() || !currentToFilter.isEmpty();
+
+        if (!textSearch) {
+            feedStore.setFilter(query.hasFilters() ? query::matches : null);
+            feedStore.setOrder(baseOrder);
+            return;
+        }
+
+        Map<String, Integer> scores = searchIndex.scores(currentFromFilter, currentToFilter);
+        Comparator<RideRequest> bestMatchFirst = (r1, r2) ->
+                Integer.compare(scores.getOrDefault(r2.getId(), 0), scores.getOrDefault(r1.getId(), 0));
+        feedStore.setFilter(request -> scores.containsKey(request.getId()) && query.matches(request));
+        feedStore.setOrder(baseOrder != null ? bestMatchFirst.thenComparing(baseOrder) : bestMatchFirst);
+    }
+
+    private FeedQuery readSelectedFeedQuery() {
+        FeedQuery.Order order = chipGroupOrder != null &&
+                chipGroupOrder.getCheckedChipId() == R.id.chip_order_newest
+                ? FeedQuery.Order.NEWEST : FeedQuery.Order.DEPARTURE_SOONEST;
+
+        String vehicle = null;
+        if (chipGroupVehicle != null) {
+            int checked = chipGroupVehicle.getCheckedChipId();
+            if (checked == R.id.chip_vehicle_car) vehicle = "car";
+            else if (checked == R.id.chip_vehicle_bike) vehicle = "bike";
+        }
+
+        int seats = 0;
+        if (chipGroupSeats != null) {
+            int checked = chipGroupSeats.getCheckedChipId();
+            if (checked == R.id.chip_seats_1) seats = 1;
+            else if (checked == R.id.chip_seats_2) seats = 2;
+            else if (checked == R.id.chip_seats_3) seats = 3;
+            else if (checked == R.id.chip_seats_4) seats = FeedQuery.MAX_SEATS;
+        }
+        return new FeedQuery(order, vehicle, seats);
+    }
+
+    private static boolean sameFeedQuery(FeedQuery a, FeedQuery b) {
+        return a.getOrder() == b.getOrder() && a.getSeats() == b.getSeats()
+                && (a.getVehicleType() == null ? b.getVehicleType() == null
+                        : a.getVehicleType().equals(b.getVehicleType()));
     }
 
     private void cancelSearch() {
@@ -234,14 +403,63 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
         currentToFilter = "";
         isSearchActive = false;
         if (chipActiveFilter != null) chipActiveFilter.setVisibility(View.GONE);
-        updateUIWithFilteredResults();
+        if (chipGroupVehicle != null) chipGroupVehicle.check(R.id.chip_vehicle_any);
+        if (chipGroupSeats != null) chipGroupSeats.check(R.id.chip_seats_any);
+
+        FeedQuery cleared = new FeedQuery(feedQuery.getOrder(), null, 0);
+        boolean requery = !sameFeedQuery(cleared, feedQuery);
+        feedQuery = cleared;
+        feedStore.setFilter(null);
+        if (requery) {
+            isLoading = false;
+            loadRideRequests();
+        } else {
+            publishFeed();
+            updateUIState();
+        }
     }
 
     private void setupRecyclerView() {
-        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        layoutManager = new LinearLayoutManager(this);
         requestsRecyclerView.setLayoutManager(layoutManager);
-        requestAdapter = new RideRequestAdapter(filteredList, this);
+        requestAdapter = new RideRequestAdapter(this);
         requestsRecyclerView.setAdapter(requestAdapter);
+
+        // Infinite scroll: fetch the next page shortly before the end of the list
+        requestsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= requestAdapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops requests whose departure has passed and refreshes the time left on the rows
+     * on screen with a payload bind; nothing is re-read from Firestore.
+     */
+    private void onMinuteTick(long now) {
+        List<String> departed = feedStore.removeIf(request ->
+                request.getDepartureAt() > 0 && request.getDepartureAt() <= now);
+        for (String id : departed) {
+            feedHolders.remove(id);
+            searchIndex.remove(id);
+        }
+        if (!departed.isEmpty()) {
+            publishFeed();
+            updateUIState();
+        }
+        requestAdapter.refreshTimes(layoutManager.findFirstVisibleItemPosition(),
+                layoutManager.findLastVisibleItemPosition());
+    }
+
+    /** Hands a snapshot of the feed to the adapter, which diffs it off the main thread. */
+    private void publishFeed() {
+        requestAdapter.submitList(new ArrayList<>(feedStore.getVisibleRequests()), null);
     }
 
     private void loadRideRequests() {
@@ -253,235 +471,437 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
         isLoading = true;
         showLoadingState();
 
-        // Remove existing listener
-        if (requestsListener != null) {
-            requestsListener.remove();
-            requestsListener = null;
-        }
+        // Remove existing listeners
+        removeRequestListeners();
+
+        // Clean up stale requests so they stop costing every driver reads
+        expirySweeper.sweepInBackground();
 
         Log.d(TAG, "Starting to load ride requests...");
 
-        // Simple query without orderBy to avoid index issues
-        requestsListener = db.collection("ride_requests")
-                .whereEqualTo("status", "pending")
-                .addSnapshotListener((queryDocumentSnapshots, error) -> {
-
-                    isLoading = false;
-
-                    if (error != null) {
-                        Log.e(TAG, "Firestore error: " + error.getMessage(), error);
-                        runOnUiThread(() -> {
-                            hideLoadingState();
-                            showEmptyState("Error: " + error.getMessage());
-                            Toast.makeText(AvailableRequestsActivity.this,
-                                    "Connection error. Check your internet.", Toast.LENGTH_LONG).show();
-                        });
-                        return;
-                    }
+        resolveDriverLocation(location -> {
+            driverLocation = location;
+            baseOrder = location != null ? bestMatchFirst(location) : feedQuery.comparator();
+            applyClientFilter();
+            publishFeed();
+            // Painted once the location is known, so the radius and mode are the ones listened to
+            showCachedFeed();
+            if (location != null) {
+                listenToNearbyRequests(location);
+            } else {
+                listenToAllRequests();
+            }
+        });
+    }
 
-                    if (queryDocumentSnapshots == null) {
-                        Log.e(TAG, "QueryDocumentSnapshots is null");
-                        runOnUiThread(() -> {
-                            hideLoadingState();
-                            showEmptyState("No data received");
-                        });
-                        return;
-                    }
+    /**
+     * Called on start when the feed listeners were removed while the screen was stopped:
+     * repaints from the local mirror and listens again from where the driver is now.
+     */
+    private void resumeFeed() {
+        isLoading = false;
+        loadRideRequests();
+    }
 
-                    Log.d(TAG, "Received " + queryDocumentSnapshots.size() + " documents");
-
-                    List<RideRequest> newRequests = new ArrayList<>();
-
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Log.d(TAG, "Parsing document: " + document.getId());
-                            RideRequest request = parseRideRequestFromFirestore(document);
-                            if (request != null) {
-                                newRequests.add(request);
-                                Log.d(TAG, "Successfully parsed: " + request.getPassengerName());
-                            } else {
-                                Log.w(TAG, "Request parsed as null for document: " + document.getId());
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Exception parsing document " + document.getId() + ": " + e.getMessage(), e);
-                        }
-                    }
+    /**
+     * Paints the requests last seen on this device while the listeners connect. They are
+     * replaced by the live copies as those arrive, and dropped if the server no longer has them.
+     * The disk read may finish after the server has answered; requests in a stretch of the
+     * feed the server has already confirmed are then skipped, since it did not send them.
+     */
+    private void showCachedFeed() {
+        int generation = feedGeneration;
+        requestRepository.loadPendingFeed(System.currentTimeMillis(), cached -> {
+            if (generation != feedGeneration || isDestroyed() || cached.isEmpty() || cachedFeedSettled) return;
+
+            Comparator<RideRequest> order = feedQuery.comparator();
+            for (RideRequest request : cached) {
+                if (feedStore.contains(request.getId()) || !isWithinRadius(driverLocation, request)
+                        || !feedQuery.matches(request) || isConfirmed(order, request)) continue;
+                feedStore.upsert(request);
+                searchIndex.put(request.getId(), request.getSource(), request.getDestination());
+                unconfirmedCachedIds.add(request.getId());
+            }
+            if (unconfirmedCachedIds.isEmpty()) return;
+            if (!currentFromFilter.isEmpty() || !currentToFilter.isEmpty()) {
+                applyClientFilter();
+            }
+            publishFeed();
 
-                    // Sort by createdAt in memory (newest first)
-                    // NOTE: This assumes 'createdAt' field is available and comparable (e.g., Long)
-                    Collections.sort(newRequests, new Comparator<RideRequest>() {
-                        @Override
-                        public int compare(RideRequest r1, RideRequest r2) {
-                            // If you store createdAt in RideRequest, compare them here:
-                            // return Long.compare(r2.getCreatedAt(), r1.getCreatedAt()); // Newest first
-                            return 0; // Defaulting to no specific sort for this example
-                        }
+            Log.d(TAG, "Showing " + unconfirmedCachedIds.size() + " cached requests");
+            hideLoadingState();
+            updateUIState();
+        });
+    }
+
+    private void resolveDriverLocation(OnSuccessListener<Location> callback) {
+        boolean hasPermission =
+                ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED ||
+                ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_COARSE_LOCATION) == PackageManager.PERMISSION_GRANTED;
+
+        if (!hasPermission) {
+            // Show the full feed meanwhile; the nearby feed is loaded once permission is granted
+            if (!locationPermissionRequested) {
+                // Once per screen, not again every time the feed resumes
+                locationPermissionRequested = true;
+                ActivityCompat.requestPermissions(this, new String[]{
+                        Manifest.permission.ACCESS_FINE_LOCATION,
+                        Manifest.permission.ACCESS_COARSE_LOCATION
+                }, LOCATION_PERMISSION_REQUEST);
+            }
+            callback.onSuccess(null);
+            return;
+        }
+
+        try {
+            locationClient.getLastLocation()
+                    .addOnSuccessListener(callback)
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Could not get driver location", e);
+                        callback.onSuccess(null);
                     });
+        } catch (SecurityException e) {
+            Log.e(TAG, "Location permission revoked", e);
+            callback.onSuccess(null);
+        }
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode == LOCATION_PERMISSION_REQUEST && grantResults.length > 0 &&
+                grantResults[0] == PackageManager.PERMISSION_GRANTED) {
+            isLoading = false;
+            loadRideRequests();
+        }
+    }
 
-                    runOnUiThread(() -> {
-                        requestList.clear();
-                        requestList.addAll(newRequests);
+    /**
+     * Listens only to the geohash cells around the driver, so the amount of data
+     * downloaded depends on what is nearby rather than on the whole pending pool.
+     */
+    private void listenToNearbyRequests(Location location) {
+        List<String> prefixes = GeoHash.coveringPrefixes(
+                location.getLatitude(), location.getLongitude(), NEARBY_RADIUS_KM);
+        Log.d(TAG, "Listening to " + prefixes.size() + " geohash cells around driver");
+
+        int generation = feedGeneration;
+        listenersAwaitingServer = prefixes.size();
+        for (String prefix : prefixes) {
+            boolean[] serverSeen = {false}; // only touched on the parser thread
+            requestsListeners.listen(db.collection("ride_requests")
+                    .whereEqualTo("status", "pending")
+                    .orderBy("geohash")
+                    .startAt(prefix)
+                    .endAt(prefix + "\uf8ff"),
+                    AppExecutors.snapshotParser(), (queryDocumentSnapshots, error) ->
+                            handleRequestsSnapshot(generation, location, prefix, null, queryDocumentSnapshots,
+                                    error, firstFromServer(serverSeen, queryDocumentSnapshots)));
+        }
+    }
 
-                        Log.d(TAG, "Updated request list with " + requestList.size() + " items");
+    /**
+     * Full feed, filtered and ordered at the server and loaded a page at a time, so the
+     * first paint and memory use do not grow with the pending pool.
+     */
+    private void listenToAllRequests() {
+        lastPageEnd = null;
+        pagesLoaded = 0;
+        hasMorePages = true;
+        pageLoading = false;
+        loadNextPage();
+    }
 
-                        if (isSearchActive) {
-                            applySearchFilter();
-                        } else {
-                            filteredList.clear();
-                            filteredList.addAll(requestList);
-                            if (requestAdapter != null) {
-                                requestAdapter.updateRequests(filteredList);
-                            }
-                        }
+    /**
+     * One read finds where the next page ends; the page is then listened to as the fixed
+     * key range up to that document. Requests posted into a loaded range land in that
+     * page instead of pushing its last ones off the end, where no cursor would pick them
+     * up again. A short last page is listened to open-ended, so requests sorting after
+     * everything loaded still arrive.
+     */
+    private void loadNextPage() {
+        if (driverLocation != null || pageLoading || !hasMorePages) return;
+        pageLoading = true;
 
-                        hideLoadingState();
-                        updateUIState();
-                    });
+        Query range = feedQuery.build(db.collection("ride_requests"), System.currentTimeMillis());
+        if (lastPageEnd != null) {
+            range = range.startAfter(lastPageEnd);
+        }
+
+        int generation = feedGeneration;
+        Query pageStart = range;
+        range.limit(FeedQuery.PAGE_SIZE).get()
+                .addOnSuccessListener(this, page -> onPageLoaded(generation, pageStart, page))
+                .addOnFailureListener(this, e -> {
+                    if (generation != feedGeneration) return;
+                    pageLoading = false;
+                    if (pagesLoaded == 0) {
+                        onFeedError(generation, e);
+                    } else {
+                        // Scrolling to the end again retries the page
+                        Log.e(TAG, "Could not load feed page " + pagesLoaded, e);
+                    }
                 });
     }
 
-    private RideRequest parseRideRequestFromFirestore(QueryDocumentSnapshot document) {
-        try {
-            String id = document.getId();
-            Log.d(TAG, "Parsing document ID: " + id);
+    private void onPageLoaded(int generation, Query pageStart, QuerySnapshot page) {
+        if (generation != feedGeneration) return;
+        pageLoading = false;
+
+        List<DocumentSnapshot> documents = page.getDocuments();
+        hasMorePages = documents.size() >= FeedQuery.PAGE_SIZE;
+        Query query = pageStart;
+        FeedRange range = new FeedRange(lastPageEndRequest, null);
+        if (hasMorePages) {
+            lastPageEnd = documents.get(documents.size() - 1);
+            query = pageStart.endAt(lastPageEnd);
+            CachedRideRequest end = parseCachedRequest(lastPageEnd);
+            lastPageEndRequest = end != null ? end.toRideRequest() : null;
+            // Without a readable end the page cannot say which cached requests it covers
+            range = lastPageEndRequest != null ? new FeedRange(range.after, lastPageEndRequest) : null;
+        }
 
-            String passengerId = document.contains("passengerId") ? document.getString("passengerId") : "";
+        String pageKey = ALL_REQUESTS_KEY + "-page-" + pagesLoaded++;
+        FeedRange pageRange = range;
+        boolean[] serverSeen = {false}; // only touched on the parser thread
+        requestsListeners.listen(query, AppExecutors.snapshotParser(),
+                (queryDocumentSnapshots, error) ->
+                        handleRequestsSnapshot(generation, null, pageKey, pageRange, queryDocumentSnapshots,
+                                error, firstFromServer(serverSeen, queryDocumentSnapshots)));
+    }
 
-            // Get all fields with extensive null checking
-            String passengerName = document.contains("passengerName") ? document.getString("passengerName") : null;
-            if (passengerName == null || passengerName.trim().isEmpty()) {
-                passengerName = "Anonymous Passenger";
-            }
+    private void removeRequestListeners() {
+        requestsListeners.removeAll();
+        // Results still queued from the removed listeners are dropped on arrival
+        feedGeneration++;
+        lastPageEnd = null;
+        lastPageEndRequest = null;
+        pageLoading = false;
+        hasMorePages = false;
+        feedStore.clear();
+        feedHolders.clear();
+        searchIndex.clear();
+        unconfirmedCachedIds.clear();
+        listenersAwaitingServer = 0;
+        cachedFeedSettled = false;
+        confirmedRanges.clear();
+        publishFeed();
+    }
 
-            String passengerPhoto = document.contains("passengerPhoto") ? document.getString("passengerPhoto") : "";
-            String passengerPhone = document.contains("passengerPhone") ? document.getString("passengerPhone") : "";
+    /** True for the first snapshot a listener receives from the server rather than its local cache. */
+    private static boolean firstFromServer(boolean[] serverSeen, QuerySnapshot snapshot) {
+        if (serverSeen[0] || snapshot == null || snapshot.getMetadata().isFromCache()) return false;
+        serverSeen[0] = true;
+        return true;
+    }
 
-            Double rating = document.contains("passengerRating") ? document.getDouble("passengerRating") : null;
-            if (rating == null) rating = 4.5;
+    /**
+     * Runs on the snapshot parser thread: parses and filters only the changed documents,
+     * then posts the resulting immutable change list to the UI thread.
+     * @param range the stretch of the feed a page covers, or null for a nearby cell
+     */
+    private void handleRequestsSnapshot(int generation, Location origin, String cellKey, FeedRange range,
+                                        QuerySnapshot queryDocumentSnapshots,
+                                        FirebaseFirestoreException error, boolean firstFromServer) {
+
+        if (error != null) {
+            onFeedError(generation, error);
+            return;
+        }
 
-            String pickupLocation = document.contains("pickupLocation") ? document.getString("pickupLocation") : null;
-            if (pickupLocation == null || pickupLocation.trim().isEmpty()) {
-                pickupLocation = "Pickup Location";
+        if (queryDocumentSnapshots == null) {
+            Log.e(TAG, "QueryDocumentSnapshots is null");
+            runOnUiThread(() -> {
+                if (generation != feedGeneration) return;
+                isLoading = false;
+                hideLoadingState();
+                showEmptyState("No data received");
+            });
+            return;
+        }
+
+        List<DocumentChange> changes = queryDocumentSnapshots.getDocumentChanges();
+        Log.d(TAG, "Received " + changes.size() + " changes for " + cellKey);
+
+        // Only changed documents are parsed; the rest of the feed is left untouched
+        long now = System.currentTimeMillis();
+        List<FeedChange> feedChanges = new ArrayList<>(changes.size());
+        List<CachedRideRequest> cacheUpserts = new ArrayList<>(changes.size());
+        List<CachedRideRequest> cacheRemovals = new ArrayList<>();
+        for (DocumentChange change : changes) {
+            QueryDocumentSnapshot document = change.getDocument();
+            CachedRideRequest row = parseCachedRequest(document);
+            if (row == null) {
+                feedChanges.add(new FeedChange(document.getId(), null));
+                continue;
             }
 
-            String dropLocation = document.contains("dropLocation") ? document.getString("dropLocation") : null;
-            if (dropLocation == null || dropLocation.trim().isEmpty()) {
-                dropLocation = "Drop Location";
+            // Geohash cell queries already range over "geohash", so expiry is checked here
+            if (change.getType() == DocumentChange.Type.REMOVED || row.isExpired(now)) {
+                cacheRemovals.add(row);
+                feedChanges.add(new FeedChange(document.getId(), null));
+                continue;
+            }
+
+            cacheUpserts.add(row);
+            RideRequest request = row.toRideRequest();
+            if (isWithinRadius(origin, request)) {
+                feedChanges.add(new FeedChange(document.getId(), request));
+            } else {
+                feedChanges.add(new FeedChange(document.getId(), null));
             }
+        }
+        requestRepository.applyChanges(cacheUpserts, cacheRemovals);
 
-            Double pickupLat = document.contains("pickupLat") ? document.getDouble("pickupLat") : null;
-            Double pickupLng = document.contains("pickupLng") ? document.getDouble("pickupLng") : null;
-            Double dropLat = document.contains("dropLat") ? document.getDouble("dropLat") : null;
-            Double dropLng = document.contains("dropLng") ? document.getDouble("dropLng") : null;
+        List<FeedChange> parsedChanges = Collections.unmodifiableList(feedChanges);
+        runOnUiThread(() -> applyFeedChanges(generation, cellKey, range, parsedChanges, firstFromServer));
+    }
 
-            Double fare = document.contains("fare") ? document.getDouble("fare") : null;
-            if (fare == null) fare = 0.0;
+    private void onFeedError(int generation, Exception error) {
+        Log.e(TAG, "Firestore error: " + error.getMessage(), error);
+        runOnUiThread(() -> {
+            if (generation != feedGeneration) return;
+            isLoading = false;
+            hideLoadingState();
+            showEmptyState("Error: " + error.getMessage());
+            Toast.makeText(AvailableRequestsActivity.this,
+                    "Connection error. Check your internet.", Toast.LENGTH_LONG).show();
+        });
+    }
 
-            String vehicleType = document.contains("vehicleType") ? document.getString("vehicleType") : null;
-            if (vehicleType == null || vehicleType.trim().isEmpty()) {
-                vehicleType = "car";
+    private void applyFeedChanges(int generation, String key, FeedRange range, List<FeedChange> changes,
+                                  boolean firstFromServer) {
+        if (generation != feedGeneration || isDestroyed()) return;
+
+        isLoading = false;
+        for (FeedChange change : changes) {
+            unconfirmedCachedIds.remove(change.id);
+            if (change.request != null) {
+                Set<String> holders = feedHolders.get(change.id);
+                if (holders == null) {
+                    holders = new HashSet<>(2);
+                    feedHolders.put(change.id, holders);
+                }
+                holders.add(key);
+                feedStore.upsert(change.request);
+                searchIndex.put(change.id, change.request.getSource(), change.request.getDestination());
+            } else if (release(change.id, key)) {
+                feedStore.remove(change.id);
+                searchIndex.remove(change.id);
             }
+        }
 
-            Long passengersLong = document.contains("passengers") ? document.getLong("passengers") : null;
-            int passengers = passengersLong != null ? passengersLong.intValue() : 1;
+        // Cached requests the server did not send back are gone from it
+        if (firstFromServer) {
+            if (driverLocation == null) {
+                if (range != null) settleCachedRange(range);
+            } else if (--listenersAwaitingServer == 0) {
+                for (String id : unconfirmedCachedIds) {
+                    feedStore.remove(id);
+                    searchIndex.remove(id);
+                }
+                unconfirmedCachedIds.clear();
+                cachedFeedSettled = true;
+            }
+        }
 
-            Long departureTime = document.contains("departureTime") ? document.getLong("departureTime") : null;
-            Long createdAt = document.contains("createdAt") ? document.getLong("createdAt") : null;
+        // Matches are computed against the index, so refresh them for the new requests
+        if (!currentFromFilter.isEmpty() || !currentToFilter.isEmpty()) {
+            applyClientFilter();
+        }
+        publishFeed();
 
-            String specialRequest = document.contains("specialRequest") ? document.getString("specialRequest") : "";
-            if (specialRequest == null) specialRequest = "";
+        Log.d(TAG, "Feed now holds " + feedStore.size() + " requests");
 
-            Double distance = document.contains("distance") ? document.getDouble("distance") : null;
-            Double duration = document.contains("duration") ? document.getDouble("duration") : null;
-            String trafficLevel = document.contains("trafficLevel") ? document.getString("trafficLevel") : "Unknown";
+        hideLoadingState();
+        updateUIState();
+    }
 
-            // Calculate time remaining
-            long currentTime = System.currentTimeMillis();
-            long timeRemaining = 0;
-            if (departureTime != null) {
-                timeRemaining = departureTime - currentTime;
-            }
-            String timeRemainingStr = formatTimeRemaining(timeRemaining);
-
-            // Format departure time
-            String departureTimeStr = "Now";
-            if (departureTime != null) {
-                try {
-                    departureTimeStr = new java.text.SimpleDateFormat("hh:mm a", Locale.getDefault())
-                            .format(new java.util.Date(departureTime));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error formatting departure time", e);
-                    departureTimeStr = "Now";
-                }
+    /**
+     * Drops the unconfirmed cached requests that sort into a page the server has answered
+     * for. Cached requests further down stay until the page covering them is loaded.
+     */
+    private void settleCachedRange(FeedRange range) {
+        Comparator<RideRequest> order = feedQuery.comparator();
+        Iterator<String> unconfirmed = unconfirmedCachedIds.iterator();
+        while (unconfirmed.hasNext()) {
+            String id = unconfirmed.next();
+            RideRequest cached = feedStore.get(id);
+            if (cached == null || range.contains(order, cached)) {
+                unconfirmed.remove();
+                feedStore.remove(id);
+                searchIndex.remove(id);
             }
-
-            String userType = "Passenger";
-
-            Log.d(TAG, "Successfully created RideRequest for: " + passengerName);
-
-            return new RideRequest(
-                    id,
-                    passengerName,
-                    userType,
-                    rating,
-                    pickupLocation,
-                    dropLocation,
-                    departureTimeStr,
-                    timeRemainingStr,
-                    fare,
-                    passengerId, // Pass passengerId to the RideRequest model
-                    passengers,
-                    specialRequest,
-                    passengerPhoto,
-                    passengerPhone,
-                    vehicleType,
-                    pickupLat, pickupLng, dropLat, dropLng,
-                    distance, duration, trafficLevel
-            );
-        } catch (Exception e) {
-            Log.e(TAG, "Critical error parsing document: " + e.getMessage(), e);
-            e.printStackTrace();
-            return null;
+        }
+        confirmedRanges.add(range);
+        if (range.through == null) {
+            cachedFeedSettled = true;
         }
     }
 
-    private String formatTimeRemaining(long milliseconds) {
-        if (milliseconds <= 0) {
-            return "Now";
+    private boolean isConfirmed(Comparator<RideRequest> order, RideRequest request) {
+        for (FeedRange range : confirmedRanges) {
+            if (range.contains(order, request)) return true;
         }
+        return false;
+    }
 
-        long hours = milliseconds / (1000 * 60 * 60);
-        long minutes = (milliseconds % (1000 * 60 * 60)) / (1000 * 60);
+    /**
+     * Records that the listener with this key no longer holds the request, e.g. because
+     * it moved to another cell or page. True once no listener holds it.
+     */
+    private boolean release(String id, String key) {
+        Set<String> holders = feedHolders.get(id);
+        if (holders == null) return true;
+        holders.remove(key);
+        if (!holders.isEmpty()) return false;
+        feedHolders.remove(id);
+        return true;
+    }
 
-        if (hours > 24) {
-            long days = hours / 24;
-            return days + " day" + (days > 1 ? "s" : "");
-        } else if (hours > 0) {
-            return hours + "h " + minutes + "m";
-        } else if (minutes > 0) {
-            return minutes + " min";
-        } else {
-            return "Now";
-        }
+    /** In nearby mode, refines the geohash cells with the exact pickup distance. */
+    private static boolean isWithinRadius(Location origin, RideRequest request) {
+        if (origin == null) return true;
+        if (request.getPickupLat() == null || request.getPickupLng() == null) return false;
+        return distanceToDriver(origin, request) <= NEARBY_RADIUS_KM;
     }
 
-    private void updateUIWithFilteredResults() {
-        if (isSearchActive) {
-            if (requestAdapter != null) {
-                requestAdapter.updateRequests(filteredList);
-            }
-        } else {
-            filteredList.clear();
-            filteredList.addAll(requestList);
-            if (requestAdapter != null) {
-                requestAdapter.updateRequests(filteredList);
-            }
+    /**
+     * Ranks the nearby feed with the matching engine: fare per km, pickup distance and
+     * direction, and departure-time fit. Scores are taken at a fixed time so the order
+     * stays consistent while the feed keeps it sorted; nearest pickup breaks ties.
+     */
+    private Comparator<RideRequest> bestMatchFirst(Location location) {
+        double heading = location.hasBearing() && location.getSpeed() > 0 ? location.getBearing() : Double.NaN;
+        FirebaseUser user = mAuth.getCurrentUser();
+        DriverState driver = new DriverState(user != null ? user.getUid() : null,
+                location.getLatitude(), location.getLongitude(), heading);
+        long rankedAt = System.currentTimeMillis();
+
+        Comparator<RideRequest> bestScore = (r1, r2) -> Double.compare(
+                MATCHING_ENGINE.score(driver, r2, rankedAt), MATCHING_ENGINE.score(driver, r1, rankedAt));
+        return bestScore.thenComparing((r1, r2) ->
+                Double.compare(distanceToDriver(location, r1), distanceToDriver(location, r2)));
+    }
+
+    private static double distanceToDriver(Location location, RideRequest request) {
+        if (request.getPickupLat() == null || request.getPickupLng() == null) return Double.MAX_VALUE;
+        return GeoHash.distanceKm(location.getLatitude(), location.getLongitude(),
+                request.getPickupLat(), request.getPickupLng());
+    }
+
+    /** Thread-safe: called on the snapshot parser thread and touches no activity state. */
+    private static CachedRideRequest parseCachedRequest(DocumentSnapshot document) {
+        try {
+            return CachedRideRequest.fromDocument(document);
+        } catch (Exception e) {
+            Log.e(TAG, "Critical error parsing document " + document.getId() + ": " + e.getMessage(), e);
+            return null;
         }
-        updateUIState();
     }
 
     private void updateUIState() {
-        List<RideRequest> displayList = isSearchActive ? filteredList : requestList;
+        List<RideRequest> displayList = feedStore.getVisibleRequests();
 
         if (displayList.isEmpty()) {
             if (emptyStateLayout != null) emptyStateLayout.setVisibility(View.VISIBLE);
@@ -501,6 +921,9 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
             if (subtitleText != null) {
                 if (isSearchActive) {
                     subtitleText.setText("Found " + displayList.size() + " matching requests");
+                } else if (driverLocation != null) {
+                    subtitleText.setText(String.format(Locale.getDefault(),
+                            "%d ride requests within %.0f km", displayList.size(), NEARBY_RADIUS_KM));
                 } else {
                     subtitleText.setText(displayList.size() + " ride requests available");
                 }
@@ -585,65 +1008,92 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
     }
 
     private void acceptRideRequest(RideRequest request) {
-        String driverId = mAuth.getCurrentUser().getUid();
+        FirebaseUser user = mAuth.getCurrentUser();
+        if (user == null) return;
+        String requestId = request.getId();
 
-        // Removed: String driverName = mAuth.getCurrentUser().getDisplayName();
-        // This is now fetched from Firestore to get 'fullName'.
+        // Fast rejection: the listener already removed it, so another driver got there first
+        if (!feedStore.contains(requestId)) {
+            Toast.makeText(this, "This request is no longer available", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (!acceptsInFlight.add(requestId)) return;
 
         Toast.makeText(this, "Accepting request...", Toast.LENGTH_SHORT).show();
 
-        // Get driver's name and phone number from Firestore
-        db.collection("users").document(driverId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    String driverName = "Driver"; // Default value
-                    String driverPhone = "";
-
-                    if (documentSnapshot.exists()) {
-                        // Retrieve the correct full name from the 'users' document
-                        driverName = documentSnapshot.getString("fullName");
-                        if (driverName == null || driverName.trim().isEmpty()) {
-                            // Fallback if fullName is missing in the document
-                            driverName = mAuth.getCurrentUser().getDisplayName();
-                            if (driverName == null || driverName.trim().isEmpty()) {
-                                driverName = "Driver";
-                            }
+        // Compare-and-set on status == "pending": one round trip, and the losing driver's
+        // transaction reads the new status and returns without writing
+        String driverId = user.getUid();
+        User profile = driverProfile;
+        DocumentReference requestRef = db.collection("ride_requests").document(requestId);
+        // Until the shared profile has loaded, the transaction reads the driver's own
+        // document, so the passenger never gets a blank name or phone
+        DocumentReference driverRef = profile == null ? db.collection("users").document(driverId) : null;
+        db.runTransaction(transaction -> {
+                    DocumentSnapshot snapshot = transaction.get(requestRef);
+                    RequestAcceptance.Result result = RequestAcceptance.check(
+                            snapshot.exists() ? snapshot.getString("status") : null);
+                    if (result == RequestAcceptance.Result.ACCEPTED) {
+                        String name;
+                        String phone;
+                        if (driverRef != null) {
+                            DocumentSnapshot driver = transaction.get(driverRef);
+                            name = resolveDriverName(user, driver.getString("fullName"));
+                            phone = driver.getString("phone");
+                        } else {
+                            name = resolveDriverName(user, profile.getFullName());
+                            phone = profile.getPhone();
                         }
-
-                        // Retrieve phone number
-                        driverPhone = documentSnapshot.getString("phone");
-                        if (driverPhone == null) {
-                            driverPhone = "";
+                        if (phone == null) phone = "";
+                        long acceptedAt = System.currentTimeMillis();
+                        Map<String, Object> accepted = RequestAcceptance.acceptedFields(
+                                driverId, name, phone, acceptedAt);
+                        accepted.put(LocalDatabase.FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+                        transaction.update(requestRef, accepted);
+                        // Tell the passenger through their event queue, in the same commit
+                        String passengerId = snapshot.getString("passengerId");
+                        if (passengerId != null && snapshot.getData() != null) {
+                            transaction.set(db.collection("users").document(passengerId)
+                                            .collection("events").document(RideEvent.acceptedEventId(requestId)),
+                                    RideEvent.acceptedFields(requestId, snapshot.getData(), name, phone, acceptedAt));
                         }
-                    } else {
-                        Log.w(TAG, "Driver user document not found for ID: " + driverId);
+                    }
+                    return result;
+                })
+                .addOnSuccessListener(this, result -> {
+                    if (result == RequestAcceptance.Result.ACCEPTED) {
+                        Toast.makeText(this, "✅ Request accepted! Contact " +
+                                request.getPassengerName(), Toast.LENGTH_LONG).show();
+                        return;
                     }
 
-                    // Update ride request with driver info
-                    db.collection("ride_requests").document(request.getId())
-                            .update(
-                                    "status", "accepted",
-                                    "driverId", driverId,
-                                    // Use the retrieved driverName (fullName) here
-                                    "driverName", driverName,
-                                    "driverPhone", driverPhone,
-                                    "acceptedAt", System.currentTimeMillis(),
-                                    "notificationShown", false
-                            )
-                            .addOnSuccessListener(aVoid -> {
-                                Toast.makeText(this, "✅ Request accepted! Contact " +
-                                        request.getPassengerName(), Toast.LENGTH_LONG).show();
-                            })
-                            .addOnFailureListener(e -> {
-                                Toast.makeText(this, "Failed: " + e.getMessage(),
-                                        Toast.LENGTH_SHORT).show();
-                                Log.e(TAG, "Error accepting request", e);
-                            });
+                    // Lost the race; drop it now rather than waiting for the listener
+                    Toast.makeText(this, "Another driver already accepted this request",
+                            Toast.LENGTH_SHORT).show();
+                    feedStore.remove(requestId);
+                    feedHolders.remove(requestId);
+                    searchIndex.remove(requestId);
+                    publishFeed();
+                    updateUIState();
                 })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error fetching driver info", e);
-                    Toast.makeText(this, "Failed to get driver details.", Toast.LENGTH_SHORT).show();
-                });
+                .addOnFailureListener(this, e -> {
+                    Toast.makeText(this, "Failed: " + e.getMessage(),
+                            Toast.LENGTH_SHORT).show();
+                    Log.e(TAG, "Error accepting request", e);
+                })
+                .addOnCompleteListener(this, task -> acceptsInFlight.remove(requestId));
+    }
+
+    private void onDriverProfile(User profile) {
+        driverProfile = profile;
+    }
+
+    private static String resolveDriverName(FirebaseUser user, String fullName) {
+        if (fullName != null && !fullName.trim().isEmpty()) return fullName;
+
+        // Fallback if fullName is missing in the document
+        String displayName = user.getDisplayName();
+        return displayName != null && !displayName.trim().isEmpty() ? displayName : "Driver";
     }
 
     @Override
@@ -717,6 +1167,10 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
     @Override
     protected void onResume() {
         super.onResume();
+        // Catch up on the minutes missed while paused, then follow the shared ticker
+        onMinuteTick(System.currentTimeMillis());
+        MinuteTicker.addListener(minuteListener);
+        UserProfileCache.addListener(this, driverProfileListener);
         try {
             BottomNavigationHelper.setupBottomNavigation(this, "HOME");
         } catch (Exception e) {
@@ -727,15 +1181,15 @@ public class AvailableRequestsActivity extends AppCompatActivity implements Ride
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (requestsListener != null) {
-            requestsListener.remove();
-            requestsListener = null;
-        }
+        searchHandler.removeCallbacks(debouncedSearch);
+        // The feed listeners are removed by requestsListeners, or kept briefly across a rotation
     }
 
     @Override
     protected void onPause() {
         super.onPause();
+        MinuteTicker.removeListener(minuteListener);
+        UserProfileCache.removeListener(driverProfileListener);
         hideSearchPanel();
     }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.example.ridesharing;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+/**
+ * On-disk copy of a ride_requests document, as last seen by a snapshot listener.
+ *
+ * Only the raw document fields are stored; display defaults are applied when a row is
+ * turned into a {@link RideRequest} or {@link MyRideRequest}, so the feed and the
+ * passenger's own list can both be served from the same table.
+ */
+@Entity(tableName = "ride_requests",
+        indices = {@Index("passengerId"), @Index({"status", "createdAt"})})
+public class CachedRideRequest {
+
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+
+    public String status;
+    public String passengerId;
+    public String passengerName;
+    public String passengerPhoto;
+    public String passengerPhone;
+    public Double passengerRating;
+    public String pickupLocation;
+    public String dropLocation;
+    public Double pickupLat;
+    public Double pickupLng;
+    public Double dropLat;
+    public Double dropLng;
+    public Double fare;
+    public String vehicleType;
+    public Long passengers;
+    public String specialRequest;
+    public Double distance;
+    public Double duration;
+    public String trafficLevel;
+    public Long departureTime;
+    public Long createdAt;
+    public Long expiresAt;
+    public String driverId;
+    public String driverName;
+    public String driverPhone;
+    public Long acceptedAt;
+
+    // Last write to the document; an older copy never replaces a newer one
+    public long updatedAt;
+
+    public static CachedRideRequest fromDocument(DocumentSnapshot document) {
+        CachedRideRequest row = new CachedRideRequest();
+        row.id = document.getId();
+        row.status = document.getString("status");
+        row.passengerId = document.getString("passengerId");
+        row.passengerName = document.getString("passengerName");
+        row.passengerPhoto = document.getString("passengerPhoto");
+        row.passengerPhone = document.getString("passengerPhone");
+        row.passengerRating = document.getDouble("passengerRating");
+        row.pickupLocation = document.getString("pickupLocation");
+        row.dropLocation = document.getString("dropLocation");
+        row.pickupLat = document.getDouble("pickupLat");
+        row.pickupLng = document.getDouble("pickupLng");
+        row.dropLat = document.getDouble("dropLat");
+        row.dropLng = document.getDouble("dropLng");
+        row.fare = document.getDouble("fare");
+        row.vehicleType = document.getString("vehicleType");
+        row.passengers = document.getLong("passengers");
+        row.specialRequest = document.getString("specialRequest");
+        row.distance = document.getDouble("distance");
+        row.duration = document.getDouble("duration");
+        row.trafficLevel = document.getString("trafficLevel");
+        row.departureTime = document.getLong("departureTime");
+        row.createdAt = document.getLong("createdAt");
+        row.expiresAt = document.getLong(RequestExpirySweeper.FIELD_EXPIRES_AT);
+        row.driverId = document.getString("driverId");
+        row.driverName = document.getString("driverName");
+        row.driverPhone = document.getString("driverPhone");
+        row.acceptedAt = document.getLong("acceptedAt");
+        row.updatedAt = lastWriteAt(document);
+        return row;
+    }
+
+    /**
+     * Time of the last write to a request. Documents written before updatedAt existed
+     * fall back to the newest of the timestamps each write path already sets.
+     */
+    static long lastWriteAt(DocumentSnapshot document) {
+        Long updatedAt = LocalDatabase.updatedAt(document);
+        if (updatedAt != null) return updatedAt;
+        long latest = 0;
+        for (String field : new String[] {"createdAt", "acceptedAt", "completedAt"}) {
+            Long value = document.getLong(field);
+            if (value != null && value > latest) latest = value;
+        }
+        return latest;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt != null && expiresAt <= now;
+    }
+
+    /** Feed model, with the same fallbacks the feed has always shown for missing fields. */
+    public RideRequest toRideRequest() {
+        RideRequest request = new RideRequest(
+                id,
+                isBlank(passengerName) ? "Anonymous Passenger" : passengerName,
+                "Passenger",
+                passengerRating != null ? passengerRating : 4.5,
+                isBlank(pickupLocation) ? "Pickup Location" : pickupLocation,
+                isBlank(dropLocation) ? "Drop Location" : dropLocation,
+                departureTime != null ? DateFormats.formatTime(departureTime) : "Now",
+                null, // time remaining is formatted from departureAt at bind time
+                fare != null ? fare : 0.0,
+                orEmpty(passengerId),
+                passengers != null ? passengers.intValue() : 1,
+                orEmpty(specialRequest),
+                orEmpty(passengerPhoto),
+                orEmpty(passengerPhone),
+                isBlank(vehicleType) ? "car" : vehicleType,
+                pickupLat, pickupLng, dropLat, dropLng,
+                distance, duration,
+                trafficLevel != null ? trafficLevel : "Unknown"
+        );
+        request.setDepartureAt(departureTime != null ? departureTime : 0);
+        request.setCreatedAt(createdAt != null ? createdAt : 0);
+        request.setExpiresAt(expiresAt != null ? expiresAt : 0);
+        return request;
+    }
+
+    public MyRideRequest toMyRideRequest() {
+        return new MyRideRequest(
+                id, status, pickupLocation, dropLocation,
+                fare != null ? fare : 0.0,
+                vehicleType, passengers != null ? passengers.intValue() : 1,
+                departureTime, createdAt,
+                driverId, driverName, driverPhone, acceptedAt
+        );
+    }
+
+    /** The ride as seen by one participant, with the other one's contact details. */
+    public MyRideItem toMyRideItem(boolean asPassenger) {
+        String otherPersonName = asPassenger
+                ? (driverName != null ? driverName : "Driver")
+                : (passengerName != null ? passengerName : "Passenger");
+        return new MyRideItem(
+                id, status, pickupLocation, dropLocation,
+                fare != null ? fare : 0.0,
+                vehicleType,
+                passengers != null ? passengers.intValue() : 1,
+                departureTime, acceptedAt,
+                otherPersonName,
+                asPassenger ? driverPhone : passengerPhone,
+                asPassenger ? driverId : passengerId,
+                asPassenger
+        );
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
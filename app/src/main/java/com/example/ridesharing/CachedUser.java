@@ -0,0 +1,92 @@
+package com.example.ridesharing;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import com.google.firebase.firestore.DocumentSnapshot;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * On-disk copy of a users document, so profile screens can render before Firestore answers.
+ */
+@Entity(tableName = "users")
+public class CachedUser {
+
+    @PrimaryKey
+    @NonNull
+    public String uid = "";
+
+    public String fullName;
+    public String email;
+    public String phone;
+    public String studentId;
+    public String profileImageUrl;
+    public String userType;
+    public boolean verified;
+    public long createdAt;
+
+    // Ride statistics, see RideStats
+    public long totalRides;
+    public long ridesAsDriver;
+    public long ridesAsPassenger;
+    public double ratingSum;
+    public long ratingCount;
+    public double totalDistanceKm;
+    public double totalFare;
+
+    // Last write to the document; an older copy never replaces a newer one
+    public long updatedAt;
+
+    public static CachedUser fromDocument(DocumentSnapshot document) {
+        CachedUser row = new CachedUser();
+        row.uid = document.getId();
+        row.fullName = document.getString("fullName");
+        row.email = document.getString("email");
+        row.phone = document.getString("phone");
+        row.studentId = document.getString("studentId");
+        row.profileImageUrl = document.getString("profileImageUrl");
+        row.userType = document.getString("userType");
+        Boolean verified = document.getBoolean("isVerified");
+        row.verified = verified != null && verified;
+        Long createdAt = document.getLong("createdAt");
+        row.createdAt = createdAt != null ? createdAt : 0;
+        Map<String, Object> fields = document.getData();
+        RideStats stats = RideStats.fromFields(fields != null ? fields : Collections.emptyMap());
+        row.totalRides = stats.getTotalRides();
+        row.ridesAsDriver = stats.getRidesAsDriver();
+        row.ridesAsPassenger = stats.getRidesAsPassenger();
+        row.ratingSum = stats.getRatingSum();
+        row.ratingCount = stats.getRatingCount();
+        row.totalDistanceKm = stats.getTotalDistanceKm();
+        row.totalFare = stats.getTotalFare();
+        row.updatedAt = lastWriteAt(document);
+        return row;
+    }
+
+    // Older profiles have no updatedAt; lastLogin and createdAt are the writes they do carry
+    static long lastWriteAt(DocumentSnapshot document) {
+        Long updatedAt = LocalDatabase.updatedAt(document);
+        if (updatedAt != null) return updatedAt;
+        Long lastLogin = document.getLong("lastLogin");
+        if (lastLogin != null) return lastLogin;
+        Long createdAt = document.getLong("createdAt");
+        return createdAt != null ? createdAt : 0;
+    }
+
+    public User toUser() {
+        User user = new User();
+        user.setUid(uid);
+        user.setFullName(fullName);
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setStudentId(studentId);
+        user.setProfileImageUrl(profileImageUrl);
+        user.setUserType(userType);
+        user.setVerified(verified);
+        user.setCreatedAt(createdAt);
+        user.setStats(new RideStats(totalRides, ridesAsDriver, ridesAsPassenger, ratingSum,
+                ratingCount, totalDistanceKm, totalFare));
+        return user;
+    }
+}
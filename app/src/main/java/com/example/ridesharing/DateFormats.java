@@ -0,0 +1,117 @@
+package com.example.ridesharing;
+
+import android.util.LruCache;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Shared, thread-safe date/time formatting for adapter binds and snapshot parsing.
+ *
+ * SimpleDateFormat is not thread-safe and java.time needs API 26, so each pattern keeps
+ * one formatter per thread. None of the patterns show seconds, so results are also
+ * memoized per epoch minute in a small LRU; scrolling a list re-binds the same few
+ * minutes over and over without formatting or allocating a formatter.
+ */
+public final class DateFormats {
+
+    private static final int CACHE_SIZE = 256;
+    private static final long MILLIS_PER_MINUTE = 60 * 1000;
+
+    private static final CachedFormat TIME = new CachedFormat("hh:mm a");
+    private static final CachedFormat SHORT_DATE_TIME = new CachedFormat("MMM dd, hh:mm a");
+    private static final CachedFormat FULL_DATE_TIME = new CachedFormat("MMM dd, yyyy hh:mm a");
+    private static final CachedFormat MONTH_YEAR = new CachedFormat("MMM yyyy");
+
+    private DateFormats() {}
+
+    /** e.g. "08:30 AM" */
+    public static String formatTime(long epochMillis) {
+        return TIME.format(epochMillis);
+    }
+
+    /** e.g. "Oct 18, 08:30 AM" */
+    public static String formatShortDateTime(long epochMillis) {
+        return SHORT_DATE_TIME.format(epochMillis);
+    }
+
+    /** e.g. "Oct 18, 2026 08:30 AM" */
+    public static String formatFullDateTime(long epochMillis) {
+        return FULL_DATE_TIME.format(epochMillis);
+    }
+
+    /** e.g. "Oct 2026" */
+    public static String formatMonthYear(long epochMillis) {
+        return MONTH_YEAR.format(epochMillis);
+    }
+
+    /** e.g. "1h 20m", "25 min" or "Now"; a departure of 0 is unknown and shows "Now". */
+    public static String formatTimeRemaining(long departureAt, long now) {
+        long milliseconds = departureAt > 0 ? departureAt - now : 0;
+        if (milliseconds <= 0) {
+            return "Now";
+        }
+
+        long hours = milliseconds / (1000 * 60 * 60);
+        long minutes = (milliseconds % (1000 * 60 * 60)) / (1000 * 60);
+
+        if (hours > 24) {
+            long days = hours / 24;
+            return days + " day" + (days > 1 ? "s" : "");
+        } else if (hours > 0) {
+            return hours + "h " + minutes + "m";
+        } else if (minutes > 0) {
+            return minutes + " min";
+        } else {
+            return "Now";
+        }
+    }
+
+    private static final class CachedFormat {
+        private final String pattern;
+        private final ThreadLocal<ThreadFormatter> formatter = new ThreadLocal<>();
+        private final LruCache<Long, String> recentMinutes = new LruCache<>(CACHE_SIZE);
+        private volatile Locale cachedLocale = Locale.getDefault();
+
+        CachedFormat(String pattern) {
+            this.pattern = pattern;
+        }
+
+        String format(long epochMillis) {
+            Locale locale = Locale.getDefault();
+            if (!locale.equals(cachedLocale)) {
+                // The user switched language while the app was running
+                recentMinutes.evictAll();
+                cachedLocale = locale;
+            }
+
+            Long minute = Math.floorDiv(epochMillis, MILLIS_PER_MINUTE);
+            String formatted = recentMinutes.get(minute);
+            if (formatted == null) {
+                formatted = formatterFor(locale).format(new Date(minute * MILLIS_PER_MINUTE));
+                recentMinutes.put(minute, formatted);
+            }
+            return formatted;
+        }
+
+        private SimpleDateFormat formatterFor(Locale locale) {
+            ThreadFormatter current = formatter.get();
+            if (current == null || !locale.equals(current.locale)) {
+                current = new ThreadFormatter(locale, new SimpleDateFormat(pattern, locale));
+                formatter.set(current);
+            }
+            return current.format;
+        }
+    }
+
+    // One formatter per thread, remembering the locale it was built for
+    private static final class ThreadFormatter {
+        final Locale locale;
+        final SimpleDateFormat format;
+
+        ThreadFormatter(Locale locale, SimpleDateFormat format) {
+            this.locale = locale;
+            this.format = format;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ridesharing;
+
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.Query;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Filters and sort order of the available-requests feed, applied at the server.
+ *
+ * Every query built here is backed by a composite index in firestore.indexes.json. The
+ * seat filter is sent as an "in" over the allowed passenger counts rather than a range,
+ * so it can sit next to the expiresAt range that orders the feed by departure.
+ */
+public final class FeedQuery {
+
+    public enum Order {
+        DEPARTURE_SOONEST,
+        NEWEST
+    }
+
+    public static final int PAGE_SIZE = 20;
+    public static final int MAX_SEATS = 4;
+
+    private final Order order;
+    private final String vehicleType; // null accepts any vehicle
+    private final int seats;          // 0 accepts any passenger count
+
+    public FeedQuery(Order order, String vehicleType, int seats) {
+        this.order = order;
+        this.vehicleType = vehicleType;
+        this.seats = seats;
+    }
+
+    public static FeedQuery defaults() {
+        return new FeedQuery(Order.DEPARTURE_SOONEST, null, 0);
+    }
+
+    // Getters
+    public Order getOrder() { return order; }
+    public String getVehicleType() { return vehicleType; }
+    public int getSeats() { return seats; }
+
+    public boolean hasFilters() {
+        return vehicleType != null || seats > 0;
+    }
+
+    /**
+     * The whole feed, filtered and ordered. Pages are cut from it with limit and
+     * startAfter/endAt on the caller's side.
+     */
+    public Query build(CollectionReference requests, long now) {
+        Query query = requests.whereEqualTo("status", "pending");
+        if (vehicleType != null) {
+            query = query.whereEqualTo("vehicleType", vehicleType);
+        }
+        if (seats > 0) {
+            query = query.whereIn("passengers", allowedPassengerCounts());
+        }
+
+        if (order == Order.NEWEST) {
+            // Expiry cannot be a second range here; expired requests are dropped while parsing
+            query = query.orderBy("createdAt", Query.Direction.DESCENDING);
+        } else {
+            // expiresAt is the departure time, so this is also departure order
+            query = query.whereGreaterThan(RequestExpirySweeper.FIELD_EXPIRES_AT, now)
+                    .orderBy(RequestExpirySweeper.FIELD_EXPIRES_AT);
+        }
+        return query;
+    }
+
+    /** Same filters, client-side, for feeds that cannot be filtered at the server. */
+    public boolean matches(RideRequest request) {
+        if (vehicleType != null && !vehicleType.equals(request.getVehicleType())) return false;
+        return seats <= 0 || request.getPassengers() <= seats;
+    }
+
+    /**
+     * Client-side order matching {@link #build}, for requests merged from several pages and
+     * for deciding which page a cached request falls in. Firestore breaks ties on the
+     * document id, in the direction of the last orderBy, so equal keys sort the same here.
+     */
+    public Comparator<RideRequest> comparator() {
+        if (order == Order.NEWEST) {
+            return Comparator.comparingLong(RideRequest::getCreatedAt)
+                    .thenComparing(RideRequest::getId)
+                    .reversed();
+        }
+        return Comparator.comparingLong(RideRequest::getExpiresAt)
+                .thenComparing(RideRequest::getId);
+    }
+
+    private List<Integer> allowedPassengerCounts() {
+        List<Integer> counts = new ArrayList<>(seats);
+        for (int passengers = 1; passengers <= seats; passengers++) {
+            counts.add(passengers);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ridesharing;
+
+import android.util.Log;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live source of a user's events: one listener on users/{uid}/events.
+ *
+ * Only events from shortly before the newest one already seen are requested, so
+ * reattaching downloads the last few events rather than the whole history. Changes are
+ * parsed and handed to the pipeline on the snapshot parser thread.
+ */
+class FirestoreEventSource implements EventPipeline.Source {
+
+    private static final String TAG = "FirestoreEventSource";
+    private static final String STATS_SCREEN = "Events";
+
+    // Event times come from the writer's clock; read back far enough to cover its skew
+    static final long CLOCK_SKEW_MS = 10 * 60 * 1000;
+    static final int MAX_EVENTS = 50;
+    // Deletes per write batch when pruning; Firestore allows at most 500
+    static final int PRUNE_BATCH = 200;
+
+    private final FirebaseFirestore db;
+    private final String uid;
+    private final Runnable afterBatch;
+    private ListenerRegistration registration;
+
+    /** @param afterBatch run after each batch has been delivered, e.g. to save the seen ids */
+    FirestoreEventSource(FirebaseFirestore db, String uid, Runnable afterBatch) {
+        this.db = db;
+        this.uid = uid;
+        this.afterBatch = afterBatch;
+    }
+
+    /** Events created since shortly before the given time, oldest first. */
+    static Query eventsSince(FirebaseFirestore db, String uid, long newestSeen) {
+        return db.collection("users").document(uid).collection("events")
+                .whereGreaterThanOrEqualTo(RideEvent.FIELD_CREATED_AT, Math.max(0, newestSeen - CLOCK_SKEW_MS))
+                .orderBy(RideEvent.FIELD_CREATED_AT)
+                .limitToLast(MAX_EVENTS);
+    }
+
+    /**
+     * Up to {@link #PRUNE_BATCH} events created before the given time, for pruning the
+     * ones the pipeline is too old to deliver.
+     */
+    static Query eventsBefore(FirebaseFirestore db, String uid, long cutoff) {
+        return db.collection("users").document(uid).collection("events")
+                .whereLessThan(RideEvent.FIELD_CREATED_AT, cutoff)
+                .limit(PRUNE_BATCH);
+    }
+
+    static RideEvent parse(DocumentSnapshot document) {
+        return document.getData() != null ? RideEvent.fromFields(document.getId(), document.getData()) : null;
+    }
+
+    @Override
+    public synchronized void start(EventPipeline pipeline) {
+        stop();
+        registration = eventsSince(db, uid, pipeline.getNewestCreatedAt())
+                .addSnapshotListener(AppExecutors.snapshotParser(), (snapshots, error) -> {
+                    if (error != null || snapshots == null) {
+                        Log.e(TAG, "Events listener failed for " + uid, error);
+                        return;
+                    }
+
+                    List<DocumentChange> changes = snapshots.getDocumentChanges();
+                    ListenerStats.received(STATS_SCREEN, changes.size());
+                    List<RideEvent> events = new ArrayList<>(changes.size());
+                    for (DocumentChange change : changes) {
+                        if (change.getType() == DocumentChange.Type.REMOVED) continue;
+                        RideEvent event = parse(change.getDocument());
+                        if (event != null) events.add(event);
+                    }
+                    if (events.isEmpty()) return;
+                    pipeline.accept(events, System.currentTimeMillis());
+                    afterBatch.run();
+                });
+        ListenerStats.attached(STATS_SCREEN);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (registration == null) return;
+        registration.remove();
+        registration = null;
+        ListenerStats.detached(STATS_SCREEN);
+    }
+}
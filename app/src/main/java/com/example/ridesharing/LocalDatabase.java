@@ -0,0 +1,55 @@
+package com.example.ridesharing;
+
+import android.content.Context;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+/**
+ * Local mirror of the Firestore collections screens read on open. Everything in it can
+ * be rebuilt from Firestore, so a schema change simply drops and refills it.
+ */
+@Database(entities = {CachedRideRequest.class, CachedUser.class}, version = 3, exportSchema = false)
+public abstract class LocalDatabase extends RoomDatabase {
+
+    /**
+     * Firestore field stamped by every write to a mirrored document, with
+     * FieldValue.serverTimestamp() so copies from devices with skewed clocks still order.
+     */
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private static final String NAME = "ridesharing-cache.db";
+    private static volatile LocalDatabase instance;
+
+    public abstract RideRequestDao rideRequests();
+
+    public abstract UserDao users();
+
+    /**
+     * {@link #FIELD_UPDATED_AT} in epoch millis, or null if the document has none. A write
+     * the server has not stamped yet keeps the previous server time, or 0 for a new
+     * document, so the stamped copy that follows always replaces it.
+     */
+    static Long updatedAt(DocumentSnapshot document) {
+        Object value = document.get(FIELD_UPDATED_AT, DocumentSnapshot.ServerTimestampBehavior.PREVIOUS);
+        if (value instanceof Timestamp) return ((Timestamp) value).toDate().getTime();
+        // Written as client millis before server timestamps were used
+        if (value instanceof Number) return ((Number) value).longValue();
+        return document.contains(FIELD_UPDATED_AT) ? 0L : null;
+    }
+
+    public static LocalDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (LocalDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(), LocalDatabase.class, NAME)
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
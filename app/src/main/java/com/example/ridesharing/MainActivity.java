@@ -11,16 +11,13 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 public class MainActivity extends AppCompatActivity {
 
     private View btnAvailableRequests, btnAvailableRides, btnPostRide;
     private TextView usernameText;
     private FirebaseAuth mAuth;
-    private FirebaseFirestore db;
+    private final UserProfileCache.Listener profileListener = this::showUserName;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -29,11 +26,17 @@ public class MainActivity extends AppCompatActivity {
 
         // Initialize Firebase
         mAuth = FirebaseAuth.getInstance();
-        db = FirebaseFirestore.getInstance();
 
         initializeViews();
         setupClickListeners();
-        loadUserData();
+
+        // Periodically clear expired ride requests in the background
+        RequestExpiryWorker.schedule(getApplicationContext());
+
+        // Acceptance notifications: live while the app runs, caught up periodically otherwise
+        RideNotifications.start(getApplicationContext());
+        RideEventWorker.schedule(getApplicationContext());
+        RideNotifications.requestPermissionIfNeeded(this);
 
         testBottomNavigationManually();
 
@@ -72,34 +75,19 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
-    private void loadUserData() {
+    private void showUserName(User user) {
         FirebaseUser currentUser = mAuth.getCurrentUser();
-        if (currentUser != null) {
-            String userId = currentUser.getUid();
-            DocumentReference userRef = db.collection("users").document(userId);
-
-            userRef.get().addOnCompleteListener(task -> {
-                if (task.isSuccessful()) {
-                    DocumentSnapshot document = task.getResult();
-                    if (document.exists()) {
-                        String fullName = document.getString("fullName");
-                        if (fullName != null && !fullName.isEmpty()) {
-                            usernameText.setText(fullName);
-                        } else {
-                            String email = currentUser.getEmail();
-                            usernameText.setText(email != null ? email : "User");
-                        }
-                    } else {
-                        String email = currentUser.getEmail();
-                        usernameText.setText(email != null ? email : "User");
-                    }
-                } else {
-                    String email = currentUser.getEmail();
-                    usernameText.setText(email != null ? email : "User");
-                }
-            });
-        } else {
+        if (currentUser == null) {
             usernameText.setText("Guest");
+            return;
+        }
+
+        String fullName = user != null ? user.getFullName() : null;
+        if (fullName != null && !fullName.isEmpty()) {
+            usernameText.setText(fullName);
+        } else {
+            String email = currentUser.getEmail();
+            usernameText.setText(email != null ? email : "User");
         }
     }
 
@@ -143,6 +131,13 @@ public class MainActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
         BottomNavigationHelper.setupBottomNavigation(this, "HOME");
-        loadUserData();
+        // Delivered at once if the profile is already cached, and again on every change
+        UserProfileCache.addListener(this, profileListener);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        UserProfileCache.removeListener(profileListener);
     }
 }
\ No newline at end of file
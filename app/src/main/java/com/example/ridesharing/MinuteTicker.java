@@ -0,0 +1,58 @@
+package com.example.ridesharing;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-wide tick at the start of every wall-clock minute, delivered on the main thread.
+ *
+ * Time-remaining labels only change once a minute, so screens share this one timer
+ * instead of each running their own. It only runs while someone is listening.
+ */
+public final class MinuteTicker {
+
+    public interface Listener {
+        void onMinuteTick(long now);
+    }
+
+    private static final long MILLIS_PER_MINUTE = 60 * 1000;
+
+    private static final Handler HANDLER = new Handler(Looper.getMainLooper());
+    private static final List<Listener> LISTENERS = new ArrayList<>(); // main thread only
+    private static final Runnable TICK = MinuteTicker::tick;
+
+    private MinuteTicker() {}
+
+    public static void addListener(Listener listener) {
+        if (LISTENERS.contains(listener)) return;
+        LISTENERS.add(listener);
+        if (LISTENERS.size() == 1) {
+            scheduleNext();
+        }
+    }
+
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+        if (LISTENERS.isEmpty()) {
+            HANDLER.removeCallbacks(TICK);
+        }
+    }
+
+    private static void tick() {
+        long now = System.currentTimeMillis();
+        // Copy, listeners may unregister themselves while being notified
+        for (Listener listener : new ArrayList<>(LISTENERS)) {
+            listener.onMinuteTick(now);
+        }
+        if (!LISTENERS.isEmpty()) {
+            scheduleNext();
+        }
+    }
+
+    private static void scheduleNext() {
+        long now = System.currentTimeMillis();
+        HANDLER.postDelayed(TICK, MILLIS_PER_MINUTE - (now % MILLIS_PER_MINUTE));
+    }
+}
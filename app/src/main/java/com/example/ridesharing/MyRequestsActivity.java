@@ -14,10 +14,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -33,7 +30,13 @@ public class MyRequestsActivity extends AppCompatActivity {
     private List<MyRideRequest> myRequests = new ArrayList<>();
     private FirebaseFirestore db;
     private FirebaseAuth mAuth;
-    private ListenerRegistration requestsListener;
+    private final MyTripsDataSource.Observer tripsObserver = this::showTrips;
+    // Acceptances arrive here instead of the notification shade while this screen is visible
+    private final EventPipeline.Sink acceptanceSink = event -> runOnUiThread(() -> {
+        if (!isFinishing()) showAcceptanceDialog(event);
+    });
+    private RideRequestRepository requestRepository;
+    private boolean liveDataShown = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -43,7 +46,21 @@ public class MyRequestsActivity extends AppCompatActivity {
         initializeViews();
         initializeFirebase();
         setupRecyclerView();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
         loadMyRequests();
+        RideNotifications.start(getApplicationContext());
+        RideNotifications.setInAppSink(acceptanceSink);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        MyTripsDataSource.removeObserver(tripsObserver);
+        RideNotifications.clearInAppSink(acceptanceSink);
     }
 
     private void initializeViews() {
@@ -56,6 +73,7 @@ public class MyRequestsActivity extends AppCompatActivity {
     private void initializeFirebase() {
         db = FirebaseFirestore.getInstance();
         mAuth = FirebaseAuth.getInstance();
+        requestRepository = RideRequestRepository.getInstance(this);
     }
 
     private void setupRecyclerView() {
@@ -63,7 +81,7 @@ public class MyRequestsActivity extends AppCompatActivity {
         adapter = new MyRequestsAdapter(myRequests, new MyRequestsAdapter.OnMyRequestClickListener() {
             @Override
             public void onCallDriverClick(MyRideRequest request) {
-                callDriver(request);
+                callDriver(request.getDriverPhone());
             }
 
             @Override
@@ -88,118 +106,77 @@ public class MyRequestsActivity extends AppCompatActivity {
         }
 
         showLoading();
+        if (!MyTripsDataSource.current().isLoaded(true)) {
+            showCachedRequests(currentUser.getUid());
+        }
+        // Delivers straight away if the trips are already held
+        MyTripsDataSource.addObserver(this, tripsObserver);
+    }
 
-        if (requestsListener != null) {
-            requestsListener.remove();
+    private void showTrips(MyTrips trips) {
+        if (trips.getError() != null) {
+            hideLoading();
+            showEmptyState("Error loading your requests");
+            return;
         }
+        if (!trips.isLoaded(true)) return;
 
-        requestsListener = db.collection("ride_requests")
-                .whereEqualTo("passengerId", currentUser.getUid())
-                .addSnapshotListener((snapshots, error) -> {
-                    hideLoading();
-
-                    if (error != null) {
-                        Log.e(TAG, "Error loading requests", error);
-                        showEmptyState("Error loading your requests");
-                        return;
-                    }
-
-                    if (snapshots == null || snapshots.isEmpty()) {
-                        showEmptyState("You haven't posted any ride requests yet");
-                        return;
-                    }
-
-                    // Check for newly accepted requests
-                    for (DocumentChange dc : snapshots.getDocumentChanges()) {
-                        if (dc.getType() == DocumentChange.Type.MODIFIED) {
-                            QueryDocumentSnapshot document = dc.getDocument();
-                            String status = document.getString("status");
-                            Boolean notifShown = document.getBoolean("notificationShown");
-
-                            if ("accepted".equals(status) &&
-                                    (notifShown == null || !notifShown)) {
-
-                                MyRideRequest request = parseMyRideRequest(document);
-                                if (request != null) {
-                                    showAcceptanceDialog(request);
-
-                                    // 🚨 REMOVED RIDE COUNT INCREMENT HERE. It now happens on completion in MyRidesActivity.
-
-                                    document.getReference().update("notificationShown", true);
-                                }
-                            }
-                        }
-                    }
-
-                    myRequests.clear();
-                    for (QueryDocumentSnapshot document : snapshots) {
-                        // Filter out accepted/completed rides, as they should appear in MyRidesActivity now
-                        String status = document.getString("status");
-                        if (!"accepted".equals(status) && !"completed".equals(status)) {
-                            try {
-                                MyRideRequest request = parseMyRideRequest(document);
-                                if (request != null) {
-                                    myRequests.add(request);
-                                }
-                            } catch (Exception e) {
-                                Log.e(TAG, "Error parsing request", e);
-                            }
-                        }
-                    }
-
-                    adapter.notifyDataSetChanged();
-
-                    if (myRequests.isEmpty()) {
-                        showEmptyState("No active requests");
-                    } else {
-                        hideEmptyState();
-                    }
-                });
+        List<MyRideRequest> active = trips.getActiveRequests();
+        // An empty snapshot from Firestore's own cache proves nothing; keep the disk copy
+        if (active.isEmpty() && trips.isFromCache() && !myRequests.isEmpty()) {
+            hideLoading();
+            return;
+        }
+
+        hideLoading();
+
+        // Accepted and completed requests are listed in MyRidesActivity
+        liveDataShown = true;
+        myRequests.clear();
+        myRequests.addAll(active);
+        adapter.notifyDataSetChanged();
+
+        if (myRequests.isEmpty()) {
+            showEmptyState("No active requests");
+        } else {
+            hideEmptyState();
+        }
     }
 
-    // ... (rest of the MyRequestsActivity.java code remains the same, except for the now unused incrementRideCount method which should also be removed if it existed)
-
-    private MyRideRequest parseMyRideRequest(QueryDocumentSnapshot document) {
-        String id = document.getId();
-        String status = document.getString("status");
-        String pickupLocation = document.getString("pickupLocation");
-        String dropLocation = document.getString("dropLocation");
-        Double fare = document.getDouble("fare");
-        String vehicleType = document.getString("vehicleType");
-        Long passengers = document.getLong("passengers");
-        Long departureTime = document.getLong("departureTime");
-        Long createdAt = document.getLong("createdAt");
-        String driverId = document.getString("driverId");
-        String driverName = document.getString("driverName");
-        String driverPhone = document.getString("driverPhone");
-        Long acceptedAt = document.getLong("acceptedAt");
-        Boolean notificationShown = document.getBoolean("notificationShown");
-
-        return new MyRideRequest(
-                id, status, pickupLocation, dropLocation,
-                fare != null ? fare : 0.0,
-                vehicleType, passengers != null ? passengers.intValue() : 1,
-                departureTime, createdAt,
-                driverId, driverName, driverPhone, acceptedAt,
-                notificationShown != null ? notificationShown : false
-        );
+    /** Shows the requests cached on this device until the listener delivers its first snapshot. */
+    private void showCachedRequests(String passengerId) {
+        requestRepository.loadPassengerRequests(passengerId, cached -> {
+            if (liveDataShown || isDestroyed()) return;
+
+            myRequests.clear();
+            for (MyRideRequest request : cached) {
+                if (MyTrips.STATUS_PENDING.equals(request.getStatus())) {
+                    myRequests.add(request);
+                }
+            }
+            if (myRequests.isEmpty()) return;
+
+            adapter.notifyDataSetChanged();
+            hideLoading();
+            hideEmptyState();
+        });
     }
 
-    private void showAcceptanceDialog(MyRideRequest request) {
-        String message = "🎉 Great news! " + request.getDriverName() +
+    private void showAcceptanceDialog(RideEvent event) {
+        String message = "🎉 Great news! " + event.getDriverName() +
                 " has accepted your ride request!\n\n" +
-                "📍 From: " + request.getPickupLocation() + "\n" +
-                "📍 To: " + request.getDropLocation() + "\n" +
-                "💰 Fare: ৳" + String.format(Locale.getDefault(), "%.0f", request.getFare());
+                "📍 From: " + event.getPickupLocation() + "\n" +
+                "📍 To: " + event.getDropLocation() + "\n" +
+                "💰 Fare: ৳" + String.format(Locale.getDefault(), "%.0f", event.getFare());
 
-        if (request.getDriverPhone() != null && !request.getDriverPhone().isEmpty()) {
-            message += "\n\n📞 Driver Phone: " + request.getDriverPhone();
+        if (event.getDriverPhone() != null && !event.getDriverPhone().isEmpty()) {
+            message += "\n\n📞 Driver Phone: " + event.getDriverPhone();
         }
 
         new AlertDialog.Builder(this)
                 .setTitle("✅ Request Accepted!")
                 .setMessage(message)
-                .setPositiveButton("Call Driver", (dialog, which) -> callDriver(request))
+                .setPositiveButton("Call Driver", (dialog, which) -> callDriver(event.getDriverPhone()))
                 .setNegativeButton("OK", null)
                 .setCancelable(false)
                 .show();
@@ -207,7 +184,6 @@ public class MyRequestsActivity extends AppCompatActivity {
         playNotificationSound();
     }
 
-    // ... (rest of the code remains the same)
     private void playNotificationSound() {
         try {
             android.media.RingtoneManager.getRingtone(
@@ -221,11 +197,11 @@ public class MyRequestsActivity extends AppCompatActivity {
         }
     }
 
-    private void callDriver(MyRideRequest request) {
-        if (request.getDriverPhone() != null && !request.getDriverPhone().isEmpty()) {
+    private void callDriver(String driverPhone) {
+        if (driverPhone != null && !driverPhone.isEmpty()) {
             try {
                 Intent intent = new Intent(Intent.ACTION_DIAL);
-                intent.setData(Uri.parse("tel:" + request.getDriverPhone()));
+                intent.setData(Uri.parse("tel:" + driverPhone));
                 startActivity(intent);
             } catch (Exception e) {
                 Toast.makeText(this, "Unable to open phone dialer", Toast.LENGTH_SHORT).show();
@@ -301,12 +277,4 @@ public class MyRequestsActivity extends AppCompatActivity {
         emptyStateLayout.setVisibility(View.GONE);
         recyclerView.setVisibility(View.VISIBLE);
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (requestsListener != null) {
-            requestsListener.remove();
-        }
-    }
 }
\ No newline at end of file
@@ -10,8 +10,6 @@ import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -97,8 +95,7 @@ public class MyRequestsAdapter extends RecyclerView.Adapter<MyRequestsAdapter.Vi
             tvVehicleInfo.setText(vehicleInfo);
 
             if (request.getDepartureTime() != null) {
-                SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, hh:mm a", Locale.getDefault());
-                tvDepartureTime.setText(sdf.format(new Date(request.getDepartureTime())));
+                tvDepartureTime.setText(DateFormats.formatShortDateTime(request.getDepartureTime()));
             }
 
             if ("accepted".equals(status) && request.getDriverName() != null) {
@@ -4,8 +4,11 @@ import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.Gravity;
 import android.view.View;
+import android.widget.FrameLayout;
 import android.widget.ProgressBar;
+import android.widget.RatingBar;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
@@ -14,12 +17,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot; // NEW IMPORT
-import com.google.firebase.firestore.FieldValue; // NEW IMPORT
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.Query; // NEW IMPORT
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -39,7 +37,8 @@ public class MyRidesActivity extends AppCompatActivity {
 
     private FirebaseFirestore db;
     private FirebaseAuth mAuth;
-    private ListenerRegistration ridesListener;
+    private final MyTripsDataSource.Observer tripsObserver = this::showRides;
+    private RideStatsRecorder statsRecorder;
 
     private boolean showingPassengerRides = true; // Default to passenger view
 
@@ -53,9 +52,8 @@ public class MyRidesActivity extends AppCompatActivity {
         setupRecyclerView();
         setupClickListeners();
 
-        // Load passenger rides by default
+        // Show passenger rides by default
         updateTabUI(); // Set initial tab appearance
-        loadPassengerRides();
 
         // Assuming BottomNavigationHelper is defined elsewhere
         // BottomNavigationHelper.setupBottomNavigation(this, "RIDES");
@@ -73,6 +71,7 @@ public class MyRidesActivity extends AppCompatActivity {
     private void initializeFirebase() {
         db = FirebaseFirestore.getInstance();
         mAuth = FirebaseAuth.getInstance();
+        statsRecorder = new RideStatsRecorder(db);
     }
 
     private void setupRecyclerView() {
@@ -122,7 +121,7 @@ public class MyRidesActivity extends AppCompatActivity {
 
         showingPassengerRides = true;
         updateTabUI();
-        loadPassengerRides();
+        showRides(MyTripsDataSource.current());
     }
 
     private void switchToDriverTab() {
@@ -130,7 +129,7 @@ public class MyRidesActivity extends AppCompatActivity {
 
         showingPassengerRides = false;
         updateTabUI();
-        loadDriverRides();
+        showRides(MyTripsDataSource.current());
     }
 
     private void updateTabUI() {
@@ -147,12 +146,7 @@ public class MyRidesActivity extends AppCompatActivity {
         }
     }
 
-    // New constants for ride status for cleaner code
-    private static final String STATUS_ACCEPTED = "accepted";
-    private static final String STATUS_COMPLETED = "completed";
-    private static final String FIELD_STATUS = "status";
-
-    private void loadPassengerRides() {
+    private void loadRides() {
         FirebaseUser currentUser = mAuth.getCurrentUser();
         if (currentUser == null) {
             Toast.makeText(this, "Please login first", Toast.LENGTH_SHORT).show();
@@ -161,146 +155,36 @@ public class MyRidesActivity extends AppCompatActivity {
         }
 
         showLoading();
-
-        if (ridesListener != null) {
-            ridesListener.remove();
-        }
-
-        // Query for both "accepted" and "completed" rides
-        ridesListener = db.collection("ride_requests")
-                .whereEqualTo("passengerId", currentUser.getUid())
-                // Firestore doesn't support array-contains for multiple values in a single field,
-                // nor does it support OR queries without an index. The best solution for a simple
-                // status list is typically two queries or changing the structure/logic.
-                // For simplicity, we will assume you need to use a compound query if status were an index.
-                // Since Firestore doesn't easily support WHERE status == 'accepted' OR status == 'completed',
-                // we will query all where passengerId matches and filter in the client, or use multiple listeners/queries
-                // (which is complex). Let's use two `whereEqualTo` calls for the required status fields.
-
-                // *** Using only whereEqualTo(status, accepted) OR whereEqualTo(status, completed) is NOT possible with standard Firebase queries. ***
-                // The practical way is to either use status >= 'accepted' if status names are ordered (accepted < completed)
-                // or query both states separately, or query only by passengerId and filter, which is inefficient.
-
-                // BEST PRACTICE: If only ACCEPTED and COMPLETED are shown, filter out non-accepted/completed states client-side.
-                .whereEqualTo("passengerId", currentUser.getUid())
-                .addSnapshotListener((snapshots, error) -> {
-                    processRidesSnapshot(snapshots, error, true, "No accepted or completed rides yet.\nYour rides will appear here.");
-                });
+        // Delivers straight away if the trips are already held
+        MyTripsDataSource.addObserver(this, tripsObserver);
     }
 
-    private void loadDriverRides() {
-        FirebaseUser currentUser = mAuth.getCurrentUser();
-        if (currentUser == null) {
-            Toast.makeText(this, "Please login first", Toast.LENGTH_SHORT).show();
-            finish();
+    /** Both tabs render from the shared trips snapshot; switching tabs only re-renders. */
+    private void showRides(MyTrips trips) {
+        if (trips.getError() != null && !trips.isLoaded(showingPassengerRides)) {
+            hideLoading();
+            showEmptyState("Error loading your rides");
             return;
         }
-
-        showLoading();
-
-        if (ridesListener != null) {
-            ridesListener.remove();
-        }
-
-        // Query for both "accepted" and "completed" rides where current user is the driver
-        ridesListener = db.collection("ride_requests")
-                .whereEqualTo("driverId", currentUser.getUid())
-                .addSnapshotListener((snapshots, error) -> {
-                    processRidesSnapshot(snapshots, error, false, "No accepted or completed rides yet.\nRides you drive will appear here.");
-                });
-    }
-
-    // Unified snapshot processor to handle client-side status filtering
-    private void processRidesSnapshot(
-            com.google.firebase.firestore.QuerySnapshot snapshots,
-            com.google.firebase.firestore.FirebaseFirestoreException error,
-            boolean isPassengerView,
-            String emptyMessage) {
-
-        hideLoading();
-
-        if (error != null) {
-            Log.e(TAG, "Error loading rides", error);
-            showEmptyState("Error loading your rides");
+        if (!trips.isLoaded(showingPassengerRides)) {
+            showLoading();
             return;
         }
 
+        hideLoading();
         ridesList.clear();
-        if (snapshots != null) {
-            for (QueryDocumentSnapshot document : snapshots) {
-                try {
-                    String status = document.getString(FIELD_STATUS);
-                    // Filter: only show accepted or completed rides
-                    if (STATUS_ACCEPTED.equals(status) || STATUS_COMPLETED.equals(status)) {
-                        MyRideItem ride = parseRideItem(document, isPassengerView);
-                        if (ride != null) {
-                            ridesList.add(ride);
-                        }
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing ride", e);
-                }
-            }
-        }
-
+        ridesList.addAll(trips.getRides(showingPassengerRides));
         adapter.notifyDataSetChanged();
 
         if (ridesList.isEmpty()) {
-            showEmptyState(emptyMessage);
+            showEmptyState(showingPassengerRides
+                    ? "No accepted or completed rides yet.\nYour rides will appear here."
+                    : "No accepted or completed rides yet.\nRides you drive will appear here.");
         } else {
             hideEmptyState();
         }
     }
 
-
-    private MyRideItem parseRideItem(QueryDocumentSnapshot document, boolean isPassenger) {
-        // ... (Parsing logic remains mostly the same)
-        String id = document.getId();
-        String status = document.getString("status");
-        String pickupLocation = document.getString("pickupLocation");
-        String dropLocation = document.getString("dropLocation");
-        Double fare = document.getDouble("fare");
-        String vehicleType = document.getString("vehicleType");
-        Long passengers = document.getLong("passengers");
-        Long departureTime = document.getLong("departureTime");
-        Long acceptedAt = document.getLong("acceptedAt");
-
-        String passengerId = document.getString("passengerId");
-        String passengerName = document.getString("passengerName");
-        String passengerPhone = document.getString("passengerPhone");
-
-        String driverId = document.getString("driverId");
-        String driverName = document.getString("driverName");
-        String driverPhone = document.getString("driverPhone");
-
-        // Determine who the "other person" is based on role
-        String otherPersonName;
-        String otherPersonPhone;
-        String otherPersonId;
-
-        if (isPassenger) {
-            // I'm the passenger, so show driver info
-            otherPersonName = driverName != null ? driverName : "Driver";
-            otherPersonPhone = driverPhone;
-            otherPersonId = driverId;
-        } else {
-            // I'm the driver, so show passenger info
-            otherPersonName = passengerName != null ? passengerName : "Passenger";
-            otherPersonPhone = passengerPhone;
-            otherPersonId = passengerId;
-        }
-
-        return new MyRideItem(
-                id, status, pickupLocation, dropLocation,
-                fare != null ? fare : 0.0,
-                vehicleType,
-                passengers != null ? passengers.intValue() : 1,
-                departureTime, acceptedAt,
-                otherPersonName, otherPersonPhone, otherPersonId,
-                isPassenger // true if viewing as passenger, false if viewing as driver
-        );
-    }
-
     // ... (callContact and showRideDetails remain the same)
     private void callContact(MyRideItem ride) {
         // ... (unchanged)
@@ -335,14 +219,54 @@ public class MyRidesActivity extends AppCompatActivity {
             details += "\nPhone: " + ride.getOtherPersonPhone();
         }
 
-        new AlertDialog.Builder(this)
+        AlertDialog.Builder builder = new AlertDialog.Builder(this)
                 .setTitle("Ride Details")
                 .setMessage(details)
                 .setPositiveButton("OK", null)
-                .setNeutralButton("Call " + roleLabel, (dialog, which) -> callContact(ride))
+                .setNeutralButton("Call " + roleLabel, (dialog, which) -> callContact(ride));
+        if (RideStats.STATUS_COMPLETED.equals(ride.getStatus())) {
+            builder.setNegativeButton("Rate " + roleLabel, (dialog, which) -> showRatingDialog(ride, roleLabel));
+        }
+        builder.show();
+    }
+
+    private void showRatingDialog(MyRideItem ride, String roleLabel) {
+        RatingBar ratingBar = new RatingBar(this);
+        ratingBar.setNumStars((int) RideStats.MAX_RATING);
+        ratingBar.setStepSize(1f);
+        ratingBar.setRating((float) RideStats.MAX_RATING);
+        // A bare RatingBar fills the dialog width and stretches its stars
+        FrameLayout container = new FrameLayout(this);
+        container.addView(ratingBar, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT, Gravity.CENTER));
+
+        new AlertDialog.Builder(this)
+                .setTitle("Rate your " + roleLabel.toLowerCase(Locale.ROOT))
+                .setView(container)
+                .setPositiveButton("Submit", (dialog, which) ->
+                        rateRide(ride, Math.max(RideStats.MIN_RATING, ratingBar.getRating())))
+                .setNegativeButton("Cancel", null)
                 .show();
     }
 
+    private void rateRide(MyRideItem ride, double rating) {
+        // The passenger view is the passenger rating the driver, and the driver view the reverse
+        statsRecorder.rateRide(ride.getId(), !ride.isPassengerView(), rating)
+                .addOnSuccessListener(result -> {
+                    if (result == RideStats.Result.RECORDED) {
+                        Toast.makeText(this, "Thanks for your rating!", Toast.LENGTH_SHORT).show();
+                    } else if (result == RideStats.Result.ALREADY_RECORDED) {
+                        Toast.makeText(this, "You already rated this ride", Toast.LENGTH_SHORT).show();
+                    } else {
+                        Toast.makeText(this, "Only completed rides can be rated", Toast.LENGTH_SHORT).show();
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error rating ride", e);
+                    Toast.makeText(this, "Failed to rate ride: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                });
+    }
+
 
     private void completeRide(MyRideItem ride) {
         String currentUserId = mAuth.getCurrentUser().getUid();
@@ -368,15 +292,16 @@ public class MyRidesActivity extends AppCompatActivity {
                 .setTitle("Complete Ride?")
                 .setMessage("Are you sure you want to mark this ride as completed? This action will count the ride towards your total.")
                 .setPositiveButton("Yes, Complete", (dialog, which) -> {
-                    db.collection("ride_requests")
-                            .document(ride.getId())
-                            .update(FIELD_STATUS, STATUS_COMPLETED, "completedAt", System.currentTimeMillis())
-                            .addOnSuccessListener(aVoid -> {
-                                Toast.makeText(this, "✅ Ride completed!", Toast.LENGTH_SHORT).show();
-
-                                // 🚨 INCREMENT RIDE COUNT FOR BOTH DRIVER AND PASSENGER
-                                incrementRideCount(currentUserId, ride.getOtherPersonId(), ride.getId());
-
+                    // Completes the ride and counts it for driver and passenger in one transaction
+                    statsRecorder.completeRide(ride.getId())
+                            .addOnSuccessListener(result -> {
+                                if (result == RideStats.Result.RECORDED) {
+                                    Toast.makeText(this, "✅ Ride completed!", Toast.LENGTH_SHORT).show();
+                                } else if (result == RideStats.Result.ALREADY_RECORDED) {
+                                    Toast.makeText(this, "Ride was already completed", Toast.LENGTH_SHORT).show();
+                                } else {
+                                    Toast.makeText(this, "Only accepted rides can be completed", Toast.LENGTH_SHORT).show();
+                                }
                             })
                             .addOnFailureListener(e -> {
                                 Log.e(TAG, "Error completing ride", e);
@@ -387,26 +312,6 @@ public class MyRidesActivity extends AppCompatActivity {
                 .show();
     }
 
-    /**
-     * Increments the totalRides field by 1 for both the driver and the passenger.
-     * @param driverId The ID of the driver.
-     * @param passengerId The ID of the passenger.
-     * @param rideId The ID of the ride request (for logging).
-     */
-    private void incrementRideCount(String driverId, String passengerId, String rideId) {
-        // Increment Driver's totalRides count
-        db.collection("users").document(driverId)
-                .update("totalRides", FieldValue.increment(1))
-                .addOnSuccessListener(aVoid -> Log.d(TAG, "Ride " + rideId + ": Driver ride count incremented."))
-                .addOnFailureListener(e -> Log.e(TAG, "Ride " + rideId + ": Failed to increment driver ride count", e));
-
-        // Increment Passenger's totalRides count
-        db.collection("users").document(passengerId)
-                .update("totalRides", FieldValue.increment(1))
-                .addOnSuccessListener(aVoid -> Log.d(TAG, "Ride " + rideId + ": Passenger ride count incremented."))
-                .addOnFailureListener(e -> Log.e(TAG, "Ride " + rideId + ": Failed to increment passenger ride count", e));
-    }
-
 
     private void showLoading() {
         progressBar.setVisibility(View.VISIBLE);
@@ -429,18 +334,22 @@ public class MyRidesActivity extends AppCompatActivity {
         recyclerView.setVisibility(View.VISIBLE);
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        loadRides();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        MyTripsDataSource.removeObserver(tripsObserver);
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
         // Assuming BottomNavigationHelper is defined elsewhere
         // BottomNavigationHelper.setupBottomNavigation(this, "RIDES");
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (ridesListener != null) {
-            ridesListener.remove();
-        }
-    }
 }
\ No newline at end of file
@@ -10,8 +10,6 @@ import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -109,8 +107,7 @@ public class MyRidesAdapter extends RecyclerView.Adapter<MyRidesAdapter.ViewHold
 
             // Departure time
             if (ride.getDepartureTime() != null) {
-                SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, hh:mm a", Locale.getDefault());
-                tvDepartureTime.setText(sdf.format(new Date(ride.getDepartureTime())));
+                tvDepartureTime.setText(DateFormats.formatShortDateTime(ride.getDepartureTime()));
             }
 
             // Phone
@@ -0,0 +1,101 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable view of the signed-in user's trips, partitioned by role and status.
+ *
+ * Built by {@link MyTripsDataSource} from its two listeners each time either one
+ * delivers, so every screen that shows trips renders from the same snapshot.
+ */
+public class MyTrips {
+
+    public static final String STATUS_PENDING = RequestAcceptance.STATUS_PENDING;
+    public static final String STATUS_ACCEPTED = RequestAcceptance.STATUS_ACCEPTED;
+    public static final String STATUS_COMPLETED = RideStats.STATUS_COMPLETED;
+
+    static final MyTrips EMPTY = new MyTrips(Collections.emptyList(), Collections.emptyList(),
+            false, false, false, null);
+
+    // Newest first, so both screens list trips in the same order
+    private static final Comparator<CachedRideRequest> NEWEST_FIRST = (a, b) -> Long.compare(
+            b.createdAt != null ? b.createdAt : 0, a.createdAt != null ? a.createdAt : 0);
+
+    private final List<MyRideRequest> activeRequests = new ArrayList<>();
+    private final List<MyRideItem> passengerRides = new ArrayList<>();
+    private final List<MyRideItem> driverRides = new ArrayList<>();
+    private final boolean passengerLoaded;
+    private final boolean driverLoaded;
+    private final boolean fromCache;
+    private final Exception error;
+
+    MyTrips(Collection<CachedRideRequest> passengerSide, Collection<CachedRideRequest> driverSide,
+            boolean passengerLoaded, boolean driverLoaded, boolean fromCache, Exception error) {
+        this.passengerLoaded = passengerLoaded;
+        this.driverLoaded = driverLoaded;
+        this.fromCache = fromCache;
+        this.error = error;
+
+        for (CachedRideRequest row : sorted(passengerSide)) {
+            if (STATUS_PENDING.equals(row.status)) {
+                activeRequests.add(row.toMyRideRequest());
+            } else if (STATUS_ACCEPTED.equals(row.status) || STATUS_COMPLETED.equals(row.status)) {
+                passengerRides.add(row.toMyRideItem(true));
+            }
+        }
+        for (CachedRideRequest row : sorted(driverSide)) {
+            driverRides.add(row.toMyRideItem(false));
+        }
+    }
+
+    private static List<CachedRideRequest> sorted(Collection<CachedRideRequest> rows) {
+        List<CachedRideRequest> result = new ArrayList<>(rows);
+        Collections.sort(result, NEWEST_FIRST);
+        return result;
+    }
+
+    /** Requests the user posted that no driver has taken yet. */
+    public List<MyRideRequest> getActiveRequests() {
+        return Collections.unmodifiableList(activeRequests);
+    }
+
+    /** Accepted and completed rides, as passenger or as driver. */
+    public List<MyRideItem> getRides(boolean asPassenger) {
+        return Collections.unmodifiableList(asPassenger ? passengerRides : driverRides);
+    }
+
+    public List<MyRideItem> getAccepted(boolean asPassenger) {
+        return withStatus(asPassenger, STATUS_ACCEPTED);
+    }
+
+    public List<MyRideItem> getCompleted(boolean asPassenger) {
+        return withStatus(asPassenger, STATUS_COMPLETED);
+    }
+
+    /** True once the listener for that role has delivered at least once. */
+    public boolean isLoaded(boolean asPassenger) {
+        return asPassenger ? passengerLoaded : driverLoaded;
+    }
+
+    /** True while either listener has only delivered Firestore's offline cache. */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    /** The last listener failure, or null if both listeners are healthy. */
+    public Exception getError() {
+        return error;
+    }
+
+    private List<MyRideItem> withStatus(boolean asPassenger, String status) {
+        List<MyRideItem> result = new ArrayList<>();
+        for (MyRideItem ride : asPassenger ? passengerRides : driverRides) {
+            if (status.equals(ride.getStatus())) result.add(ride);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.ridesharing;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide source of the signed-in user's trips, shared by My Requests and My Rides.
+ *
+ * Two listeners cover everything those screens show: one on the user's requests as
+ * passenger and one on the rides they drive, each with the statuses filtered at the
+ * server. Screens observe while started; the listeners stay attached for the same short
+ * grace period as {@link ScreenListeners} after the last one stops, so a rotation or a
+ * quick trip elsewhere does not re-download. Counts are reported to {@link ListenerStats}.
+ * Changes are parsed on the snapshot parser thread and also written to the local mirror.
+ */
+public final class MyTripsDataSource {
+
+    private static final String TAG = "MyTripsDataSource";
+    private static final String STATS_SCREEN = "MyTrips";
+
+    public interface Observer {
+        void onTripsChanged(MyTrips trips);
+    }
+
+    private static final List<String> PASSENGER_STATUSES = Arrays.asList(
+            MyTrips.STATUS_PENDING, MyTrips.STATUS_ACCEPTED, MyTrips.STATUS_COMPLETED);
+    private static final List<String> DRIVER_STATUSES = Arrays.asList(
+            MyTrips.STATUS_ACCEPTED, MyTrips.STATUS_COMPLETED);
+
+    private static final long LINGER_MS = ScreenListeners.GRACE_MS;
+
+    private static final Handler HANDLER = new Handler(Looper.getMainLooper());
+    private static final Runnable DETACH = MyTripsDataSource::detach;
+
+    // Main thread only
+    private static final List<Observer> OBSERVERS = new ArrayList<>();
+    private static final Map<String, CachedRideRequest> passengerSide = new LinkedHashMap<>();
+    private static final Map<String, CachedRideRequest> driverSide = new LinkedHashMap<>();
+    private static final List<ListenerRegistration> registrations = new ArrayList<>();
+    private static RideRequestRepository repository;
+    private static String uid;
+    private static int generation = 0;
+    private static boolean passengerLoaded;
+    private static boolean driverLoaded;
+    private static boolean passengerFromCache;
+    private static boolean driverFromCache;
+    private static Exception error;
+    private static MyTrips current = MyTrips.EMPTY;
+
+    private MyTripsDataSource() {}
+
+    /** Latest snapshot; empty until the listeners have delivered. */
+    public static MyTrips current() {
+        return current;
+    }
+
+    /** Starts observing; the latest snapshot is delivered straight away if there is one. */
+    public static void addObserver(Context context, Observer observer) {
+        HANDLER.removeCallbacks(DETACH);
+        attach(context);
+        if (OBSERVERS.contains(observer)) return;
+        OBSERVERS.add(observer);
+        if (passengerLoaded || driverLoaded || error != null) {
+            observer.onTripsChanged(current);
+        }
+    }
+
+    public static void removeObserver(Observer observer) {
+        OBSERVERS.remove(observer);
+        if (OBSERVERS.isEmpty()) {
+            HANDLER.postDelayed(DETACH, LINGER_MS);
+        }
+    }
+
+    private static void attach(Context context) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        String currentUid = user != null ? user.getUid() : null;
+        if (currentUid != null && currentUid.equals(uid) && !registrations.isEmpty()) return;
+
+        detach();
+        if (currentUid == null) return;
+        uid = currentUid;
+        if (repository == null) {
+            repository = RideRequestRepository.getInstance(context);
+        }
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        int listenGeneration = generation;
+        registrations.add(db.collection("ride_requests")
+                .whereEqualTo("passengerId", currentUid)
+                .whereIn("status", PASSENGER_STATUSES)
+                .addSnapshotListener(AppExecutors.snapshotParser(), (snapshots, e) ->
+                        handleSnapshot(listenGeneration, true, snapshots, e)));
+        registrations.add(db.collection("ride_requests")
+                .whereEqualTo("driverId", currentUid)
+                .whereIn("status", DRIVER_STATUSES)
+                .addSnapshotListener(AppExecutors.snapshotParser(), (snapshots, e) ->
+                        handleSnapshot(listenGeneration, false, snapshots, e)));
+        for (int i = 0; i < registrations.size(); i++) {
+            ListenerStats.attached(STATS_SCREEN);
+        }
+    }
+
+    private static void detach() {
+        for (ListenerRegistration registration : registrations) {
+            registration.remove();
+            ListenerStats.detached(STATS_SCREEN);
+        }
+        registrations.clear();
+        // Results still queued from the removed listeners are dropped on arrival
+        generation++;
+        uid = null;
+        passengerSide.clear();
+        driverSide.clear();
+        passengerLoaded = false;
+        driverLoaded = false;
+        passengerFromCache = false;
+        driverFromCache = false;
+        error = null;
+        current = MyTrips.EMPTY;
+    }
+
+    /** Runs on the snapshot parser thread: parses only the changed documents. */
+    private static void handleSnapshot(int listenGeneration, boolean asPassenger,
+                                       QuerySnapshot snapshots, FirebaseFirestoreException e) {
+        if (e != null || snapshots == null) {
+            Log.e(TAG, "Trips listener failed", e);
+            HANDLER.post(() -> {
+                if (listenGeneration != generation) return;
+                // Firestore has dropped the listener; the next observer attaches new ones
+                for (ListenerRegistration registration : registrations) {
+                    registration.remove();
+                    ListenerStats.detached(STATS_SCREEN);
+                }
+                registrations.clear();
+                error = e;
+                publish();
+            });
+            return;
+        }
+
+        List<DocumentChange> changes = snapshots.getDocumentChanges();
+        ListenerStats.received(STATS_SCREEN, changes.size());
+        List<CachedRideRequest> upserts = new ArrayList<>();
+        List<CachedRideRequest> removals = new ArrayList<>();
+        for (DocumentChange change : changes) {
+            try {
+                CachedRideRequest row = CachedRideRequest.fromDocument(change.getDocument());
+                if (change.getType() == DocumentChange.Type.REMOVED) {
+                    removals.add(row);
+                } else {
+                    upserts.add(row);
+                }
+            } catch (Exception parseError) {
+                Log.e(TAG, "Error parsing trip " + change.getDocument().getId(), parseError);
+            }
+        }
+
+        boolean fromCache = snapshots.getMetadata().isFromCache();
+        HANDLER.post(() -> {
+            if (listenGeneration != generation) return;
+            Map<String, CachedRideRequest> side = asPassenger ? passengerSide : driverSide;
+            for (CachedRideRequest row : removals) {
+                side.remove(row.id);
+            }
+            for (CachedRideRequest row : upserts) {
+                side.put(row.id, row);
+            }
+            if (asPassenger) {
+                passengerLoaded = true;
+                passengerFromCache = fromCache;
+            } else {
+                driverLoaded = true;
+                driverFromCache = fromCache;
+            }
+            error = null;
+            repository.applyChanges(upserts, removals);
+            publish();
+        });
+    }
+
+    private static void publish() {
+        current = new MyTrips(passengerSide.values(), driverSide.values(),
+                passengerLoaded, driverLoaded, passengerFromCache || driverFromCache, error);
+        // Copy, observers may unregister themselves while being notified
+        for (Observer observer : new ArrayList<>(OBSERVERS)) {
+            observer.onTripsChanged(current);
+        }
+    }
+}
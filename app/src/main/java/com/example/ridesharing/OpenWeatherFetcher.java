@@ -0,0 +1,62 @@
+package com.example.ridesharing;
+
+import java.io.IOException;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * {@link WeatherProvider.Fetcher} backed by the OpenWeather current weather API.
+ */
+public class OpenWeatherFetcher implements WeatherProvider.Fetcher {
+
+    private static final String OPENWEATHER_API_KEY = "acc6e705fe0c4b7c67e77a98cfc26122";
+    private static final String OPENWEATHER_BASE_URL = "https://api.openweathermap.org/data/2.5/weather";
+
+    private final HttpClient httpClient;
+
+    public OpenWeatherFetcher(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public void fetch(double lat, double lng, WeatherProvider.Callback callback) {
+        String url = OPENWEATHER_BASE_URL + "?" +
+                "lat=" + lat +
+                "&lon=" + lng +
+                "&appid=" + OPENWEATHER_API_KEY +
+                "&units=metric"; // For Celsius temperature
+
+        httpClient.get(url, new HttpClient.Callback() {
+            @Override
+            public void onSuccess(String body) {
+                try {
+                    callback.onWeather(parse(new JSONObject(body), System.currentTimeMillis()));
+                } catch (JSONException e) {
+                    callback.onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    static WeatherInfo parse(JSONObject jsonResponse, long fetchedAt) throws JSONException {
+        // Get main weather
+        String condition = "Clear";
+        String description = "";
+        JSONArray weatherArray = jsonResponse.getJSONArray("weather");
+        if (weatherArray.length() > 0) {
+            JSONObject weatherObj = weatherArray.getJSONObject(0);
+            condition = weatherObj.getString("main");
+            description = weatherObj.getString("description");
+        }
+
+        // Get temperature
+        JSONObject mainObj = jsonResponse.getJSONObject("main");
+        return new WeatherInfo(condition, description, mainObj.getDouble("temp"), fetchedAt);
+    }
+}
@@ -7,16 +7,13 @@ import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 public class PostActivity extends AppCompatActivity {
 
     private View btnPostRequest, btnPostRide;
     private TextView usernameText;
     private FirebaseAuth mAuth;
-    private FirebaseFirestore db;
+    private final UserProfileCache.Listener profileListener = this::showUserName;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -25,11 +22,9 @@ public class PostActivity extends AppCompatActivity {
 
         // Initialize Firebase
         mAuth = FirebaseAuth.getInstance();
-        db = FirebaseFirestore.getInstance();
 
         initializeViews();
         setupClickListeners();
-        loadUserData();
 
         // Setup bottom navigation
         BottomNavigationHelper.setupBottomNavigation(this, "POST");
@@ -54,34 +49,19 @@ public class PostActivity extends AppCompatActivity {
         });
     }
 
-    private void loadUserData() {
+    private void showUserName(User user) {
         FirebaseUser currentUser = mAuth.getCurrentUser();
-        if (currentUser != null) {
-            String userId = currentUser.getUid();
-            DocumentReference userRef = db.collection("users").document(userId);
+        if (currentUser == null) {
+            usernameText.setText("Guest");
+            return;
+        }
 
-            userRef.get().addOnCompleteListener(task -> {
-                if (task.isSuccessful()) {
-                    DocumentSnapshot document = task.getResult();
-                    if (document.exists()) {
-                        String fullName = document.getString("fullName");
-                        if (fullName != null && !fullName.isEmpty()) {
-                            usernameText.setText(fullName);
-                        } else {
-                            String email = currentUser.getEmail();
-                            usernameText.setText(email != null ? email : "User");
-                        }
-                    } else {
-                        String email = currentUser.getEmail();
-                        usernameText.setText(email != null ? email : "User");
-                    }
-                } else {
-                    String email = currentUser.getEmail();
-                    usernameText.setText(email != null ? email : "User");
-                }
-            });
+        String fullName = user != null ? user.getFullName() : null;
+        if (fullName != null && !fullName.isEmpty()) {
+            usernameText.setText(fullName);
         } else {
-            usernameText.setText("Guest");
+            String email = currentUser.getEmail();
+            usernameText.setText(email != null ? email : "User");
         }
     }
 
@@ -89,6 +69,13 @@ public class PostActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
         BottomNavigationHelper.setupBottomNavigation(this, "POST");
-        loadUserData();
+        // Delivered at once if the profile is already cached, and again on every change
+        UserProfileCache.addListener(this, profileListener);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        UserProfileCache.removeListener(profileListener);
     }
 }
\ No newline at end of file
@@ -15,10 +15,8 @@ import com.bumptech.glide.Glide;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.Locale;
 
 public class ProfileActivity extends AppCompatActivity {
@@ -31,6 +29,7 @@ public class ProfileActivity extends AppCompatActivity {
     private FirebaseAuth mAuth;
     private FirebaseFirestore db;
     private String currentUserId;
+    private final UserProfileCache.Listener profileListener = this::showProfile;
 
     private static final int PICK_IMAGE_REQUEST = 1;
 
@@ -56,9 +55,6 @@ public class ProfileActivity extends AppCompatActivity {
         // Initialize views
         initializeViews();
 
-        // Load user data from Firestore
-        loadUserData();
-
         // Set up click listeners
         setupClickListeners();
 
@@ -85,28 +81,13 @@ public class ProfileActivity extends AppCompatActivity {
         profileImage = findViewById(R.id.profile_image);
     }
 
-    private void loadUserData() {
-        DocumentReference userRef = db.collection("users").document(currentUserId);
-
-        userRef.get().addOnCompleteListener(task -> {
-            if (task.isSuccessful()) {
-                DocumentSnapshot document = task.getResult();
-                if (document.exists()) {
-                    // Convert document to User object
-                    User user = document.toObject(User.class);
-                    if (user != null) {
-                        updateUIWithUserData(user);
-                    }
-                } else {
-                    // Document doesn't exist
-                    setDefaultValues();
-                }
-            } else {
-                // Error loading document
-                setDefaultValues();
-                Toast.makeText(ProfileActivity.this, "Error loading profile data", Toast.LENGTH_SHORT).show();
-            }
-        });
+    private void showProfile(User user) {
+        if (user != null) {
+            updateUIWithUserData(user);
+        } else {
+            // Document doesn't exist
+            setDefaultValues();
+        }
     }
 
     private void updateUIWithUserData(User user) {
@@ -143,8 +124,7 @@ public class ProfileActivity extends AppCompatActivity {
             profileImage.setImageResource(android.R.drawable.ic_menu_myplaces);
         }
 
-        // TODO: Load ride statistics
-        loadRideStatistics();
+        showRideStatistics(user.getStats() != null ? user.getStats() : RideStats.EMPTY);
     }
 
     private void setDefaultValues() {
@@ -164,8 +144,7 @@ public class ProfileActivity extends AppCompatActivity {
 
     private String formatDate(long timestamp) {
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat("MMM yyyy", Locale.getDefault());
-            return sdf.format(new Date(timestamp));
+            return DateFormats.formatMonthYear(timestamp);
         } catch (Exception e) {
             return "Unknown";
         }
@@ -258,7 +237,7 @@ public class ProfileActivity extends AppCompatActivity {
         // Update phone number in Firestore
         DocumentReference userRef = db.collection("users").document(currentUserId);
 
-        userRef.update("phone", phone)
+        userRef.update("phone", phone, LocalDatabase.FIELD_UPDATED_AT, FieldValue.serverTimestamp())
                 .addOnSuccessListener(aVoid -> {
                     // Update UI immediately
                     profilePhone.setText(phone);
@@ -323,7 +302,7 @@ public class ProfileActivity extends AppCompatActivity {
     // Method to update profile image URL in Firestore (when you add Firebase Storage)
     private void updateProfileImageUrl(String imageUrl) {
         DocumentReference userRef = db.collection("users").document(currentUserId);
-        userRef.update("profileImageUrl", imageUrl)
+        userRef.update("profileImageUrl", imageUrl, LocalDatabase.FIELD_UPDATED_AT, FieldValue.serverTimestamp())
                 .addOnSuccessListener(aVoid -> {
                     Toast.makeText(this, "Profile picture updated successfully", Toast.LENGTH_SHORT).show();
                 })
@@ -344,6 +323,8 @@ public class ProfileActivity extends AppCompatActivity {
     }
 
     private void performLogout() {
+        UserProfileCache.clear();
+        RideNotifications.stop();
         mAuth.signOut();
         Intent intent = new Intent(ProfileActivity.this, LoginActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -353,50 +334,24 @@ public class ProfileActivity extends AppCompatActivity {
         Toast.makeText(this, "Logged out successfully", Toast.LENGTH_SHORT).show();
     }
 
-    private void loadRideStatistics() {
-        // TODO: Implement ride statistics loading from Firestore
-        /*
-        db.collection("rides")
-            .whereEqualTo("userId", currentUserId)
-            .get()
-            .addOnCompleteListener(task -> {
-                if (task.isSuccessful()) {
-                    int rideCount = task.getResult().size();
-                    totalRides.setText(String.valueOf(rideCount));
-
-                    // Calculate average rating
-                    double totalRating = 0;
-                    int ratedRides = 0;
-                    for (DocumentSnapshot document : task.getResult()) {
-                        if (document.contains("rating")) {
-                            Double rating = document.getDouble("rating");
-                            if (rating != null) {
-                                totalRating += rating;
-                                ratedRides++;
-                            }
-                        }
-                    }
-
-                    double averageRating = ratedRides > 0 ? totalRating / ratedRides : 0.0;
-                    userRating.setText(String.format(Locale.getDefault(), "%.1f", averageRating));
-                } else {
-                    totalRides.setText("0");
-                    userRating.setText("0.0");
-                }
-            });
-        */
-
-        // Temporary placeholder values
-        totalRides.setText("0");
-        userRating.setText("0.0");
+    /** Ride statistics are kept on the profile document, so they arrive with it. */
+    private void showRideStatistics(RideStats stats) {
+        totalRides.setText(String.valueOf(stats.getTotalRides()));
+        userRating.setText(String.format(Locale.getDefault(), "%.1f", stats.getAverageRating()));
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        // Reload data when activity resumes to reflect any changes
+        // The shared cache delivers the profile now and again on any change, without a re-read
         if (mAuth.getCurrentUser() != null) {
-            loadUserData();
+            UserProfileCache.addListener(this, profileListener);
         }
     }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        UserProfileCache.removeListener(profileListener);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.ridesharing;
+
+import android.util.Log;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Deletes pending ride requests whose "expiresAt" has passed.
+ *
+ * Expired documents are fetched and deleted in chunks, one batch write per chunk, so a
+ * backlog of stale requests is cleared in a few round trips. Runs either in-process via
+ * {@link #sweepInBackground} or periodically from {@link RequestExpiryWorker}.
+ */
+public class RequestExpirySweeper {
+
+    private static final String TAG = "RequestExpirySweeper";
+
+    public static final String FIELD_EXPIRES_AT = "expiresAt";
+
+    // Firestore allows at most 500 writes per batch
+    static final int BATCH_SIZE = 400;
+
+    // In-process sweeps are skipped if another one ran recently
+    private static final long MIN_LOCAL_SWEEP_INTERVAL_MS = 5 * 60 * 1000;
+    private static volatile long lastLocalSweepAt = 0;
+
+    private final FirebaseFirestore db;
+
+    public RequestExpirySweeper(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Blocking sweep; must not be called on the main thread.
+     * @return number of deleted requests
+     */
+    public int sweep(long now) throws ExecutionException, InterruptedException {
+        int deleted = 0;
+        while (true) {
+            QuerySnapshot expired = Tasks.await(db.collection("ride_requests")
+                    .whereEqualTo("status", "pending")
+                    .whereLessThanOrEqualTo(FIELD_EXPIRES_AT, now)
+                    .limit(BATCH_SIZE)
+                    .get());
+
+            if (expired.isEmpty()) break;
+
+            WriteBatch batch = db.batch();
+            for (DocumentSnapshot document : expired.getDocuments()) {
+                batch.delete(document.getReference());
+            }
+            Tasks.await(batch.commit());
+            deleted += expired.size();
+
+            if (expired.size() < BATCH_SIZE) break;
+        }
+        return deleted;
+    }
+
+    /** Runs a sweep on the shared background executor, at most once every few minutes. */
+    public void sweepInBackground() {
+        long now = System.currentTimeMillis();
+        if (now - lastLocalSweepAt < MIN_LOCAL_SWEEP_INTERVAL_MS) return;
+        lastLocalSweepAt = now;
+
+        AppExecutors.background().execute(() -> {
+            try {
+                int deleted = sweep(now);
+                Log.d(TAG, "Deleted " + deleted + " expired ride requests");
+            } catch (Exception e) {
+                Log.e(TAG, "Expiry sweep failed", e);
+            }
+        });
+    }
+}
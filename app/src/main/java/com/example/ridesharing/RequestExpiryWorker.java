@@ -0,0 +1,59 @@
+package com.example.ridesharing;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic WorkManager job that clears expired ride requests even when no screen is open.
+ */
+public class RequestExpiryWorker extends Worker {
+
+    private static final String TAG = "RequestExpiryWorker";
+    private static final String UNIQUE_WORK_NAME = "ride_request_expiry_sweep";
+
+    public RequestExpiryWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    public static void schedule(Context context) {
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                RequestExpiryWorker.class, 15, TimeUnit.MINUTES)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                UNIQUE_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        // Nothing to do until a user is signed in; Firestore access needs auth
+        if (FirebaseAuth.getInstance().getCurrentUser() == null) {
+            return Result.success();
+        }
+
+        try {
+            int deleted = new RequestExpirySweeper(FirebaseFirestore.getInstance())
+                    .sweep(System.currentTimeMillis());
+            Log.d(TAG, "Deleted " + deleted + " expired ride requests");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Expiry sweep failed, will retry", e);
+            return Result.retry();
+        }
+    }
+}
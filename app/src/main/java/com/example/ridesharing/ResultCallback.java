@@ -0,0 +1,6 @@
+package com.example.ridesharing;
+
+/** Receives the result of a repository read on the thread the repository delivers to. */
+public interface ResultCallback<T> {
+    void onResult(T result);
+}
@@ -0,0 +1,57 @@
+package com.example.ridesharing;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.google.firebase.auth.FirebaseAuth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic WorkManager job that delivers ride events raised while the app was not running.
+ */
+public class RideEventWorker extends Worker {
+
+    private static final String TAG = "RideEventWorker";
+    private static final String UNIQUE_WORK_NAME = "ride_event_catch_up";
+
+    public RideEventWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    public static void schedule(Context context) {
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                RideEventWorker.class, 15, TimeUnit.MINUTES)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                UNIQUE_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        // Nothing to do until a user is signed in; Firestore access needs auth
+        if (FirebaseAuth.getInstance().getCurrentUser() == null) {
+            return Result.success();
+        }
+
+        try {
+            int delivered = RideNotifications.catchUp(getApplicationContext());
+            Log.d(TAG, "Delivered " + delivered + " ride events");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Event catch-up failed, will retry", e);
+            return Result.retry();
+        }
+    }
+}
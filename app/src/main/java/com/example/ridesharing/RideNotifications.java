@@ -0,0 +1,230 @@
+package com.example.ridesharing;
+
+import android.Manifest;
+import android.app.Activity;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.util.Log;
+import androidx.core.app.ActivityCompat;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide consumer of the signed-in user's {@link RideEvent}s.
+ *
+ * While the process is alive one listener feeds the events to an {@link EventPipeline};
+ * {@link RideEventWorker} reads the same events periodically so they still arrive when
+ * it is not. The pipeline delivers each event once: to the screen that registered for
+ * them if one is visible, or as a system notification otherwise. The ids already
+ * delivered are kept in shared preferences per user, so delivery writes nothing back to
+ * Firestore and a restart does not notify twice. Catch-up deletes the events that are
+ * too old to deliver, so the collection stays small.
+ */
+public final class RideNotifications {
+
+    private static final String TAG = "RideNotifications";
+
+    private static final String CHANNEL_ID = "ride_updates";
+    private static final String PREFS = "ride_events";
+    private static final String KEY_SEEN_PREFIX = "seen_";
+    private static final int PERMISSION_REQUEST = 3001;
+    private static final long CATCH_UP_TIMEOUT_SECONDS = 30;
+
+    private static Context appContext;
+    private static String uid;
+    private static EventPipeline pipeline;
+    private static FirestoreEventSource liveSource;
+
+    private RideNotifications() {}
+
+    /** Starts consuming events for whoever is signed in now; a no-op if already started. */
+    public static synchronized void start(Context context) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        String currentUid = user != null ? user.getUid() : null;
+        if (currentUid != null && currentUid.equals(uid) && liveSource != null) return;
+
+        stop();
+        if (currentUid == null) return;
+        EventPipeline started = pipelineFor(context, currentUid);
+        liveSource = new FirestoreEventSource(FirebaseFirestore.getInstance(), currentUid,
+                () -> saveSeen(currentUid, started));
+        started.start(liveSource);
+    }
+
+    /** Stops consuming, e.g. on sign-out. Events that arrive meanwhile are caught up later. */
+    public static synchronized void stop() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+        liveSource = null;
+        pipeline = null;
+        uid = null;
+    }
+
+    /**
+     * Routes events to a visible screen instead of the notification shade. The sink is
+     * called on a background thread.
+     */
+    public static synchronized void setInAppSink(EventPipeline.Sink sink) {
+        if (pipeline != null) {
+            pipeline.setForeground(sink);
+        }
+    }
+
+    /** Clears the screen's sink, unless another screen has replaced it since. */
+    public static synchronized void clearInAppSink(EventPipeline.Sink sink) {
+        if (pipeline != null) {
+            pipeline.clearForeground(sink);
+        }
+    }
+
+    /**
+     * Reads the events since the newest one seen and delivers any that are new, then
+     * deletes the ones too old to deliver. Blocks, so it must not run on the main thread.
+     * @return events delivered
+     */
+    static int catchUp(Context context) throws Exception {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) return 0;
+
+        // Held for the whole catch-up, so the ids are saved to the pipeline that saw them
+        // even if the user signs out or start() replaces it meanwhile
+        String userId = user.getUid();
+        EventPipeline target;
+        synchronized (RideNotifications.class) {
+            target = pipeline != null && userId.equals(uid) ? pipeline : pipelineFor(context, userId);
+        }
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        QuerySnapshot snapshot = Tasks.await(FirestoreEventSource
+                        .eventsSince(db, userId, target.getNewestCreatedAt())
+                        .get(),
+                CATCH_UP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        List<RideEvent> events = new ArrayList<>();
+        for (DocumentSnapshot document : snapshot.getDocuments()) {
+            RideEvent event = FirestoreEventSource.parse(document);
+            if (event != null) events.add(event);
+        }
+        long now = System.currentTimeMillis();
+        int delivered = target.accept(events, now).size();
+        saveSeen(userId, target);
+
+        try {
+            pruneEvents(db, userId, now);
+        } catch (Exception e) {
+            // Only costs storage; the next run tries again
+            Log.w(TAG, "Could not prune old events for " + userId, e);
+        }
+        return delivered;
+    }
+
+    /**
+     * Deletes the user's events that are older than the pipeline would still deliver,
+     * one write batch at a time.
+     */
+    private static void pruneEvents(FirebaseFirestore db, String userId, long now) throws Exception {
+        long cutoff = now - EventPipeline.DEFAULT_MAX_AGE_MS - FirestoreEventSource.CLOCK_SKEW_MS;
+        QuerySnapshot old;
+        do {
+            old = Tasks.await(FirestoreEventSource.eventsBefore(db, userId, cutoff).get(),
+                    CATCH_UP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (old.isEmpty()) return;
+            WriteBatch batch = db.batch();
+            for (DocumentSnapshot document : old.getDocuments()) {
+                batch.delete(document.getReference());
+            }
+            Tasks.await(batch.commit(), CATCH_UP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } while (old.size() >= FirestoreEventSource.PRUNE_BATCH);
+    }
+
+    /** Asks for the notification permission where the platform requires it. */
+    public static void requestPermissionIfNeeded(Activity activity) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.TIRAMISU) return;
+        if (ContextCompat.checkSelfPermission(activity, Manifest.permission.POST_NOTIFICATIONS)
+                == PackageManager.PERMISSION_GRANTED) return;
+        ActivityCompat.requestPermissions(activity,
+                new String[]{Manifest.permission.POST_NOTIFICATIONS}, PERMISSION_REQUEST);
+    }
+
+    // Callers hold the class lock
+    private static EventPipeline pipelineFor(Context context, String userId) {
+        appContext = context.getApplicationContext();
+        EventPipeline created = new EventPipeline(RideNotifications::notify);
+        created.restore(prefs().getString(KEY_SEEN_PREFIX + userId, null));
+        uid = userId;
+        pipeline = created;
+        return created;
+    }
+
+    private static void saveSeen(String userId, EventPipeline seen) {
+        prefs().edit().putString(KEY_SEEN_PREFIX + userId, seen.save()).apply();
+    }
+
+    private static SharedPreferences prefs() {
+        return appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    /** Background sink: raises a system notification for the event. */
+    private static void notify(RideEvent event) {
+        if (!RideEvent.TYPE_REQUEST_ACCEPTED.equals(event.getType())) return;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU &&
+                ContextCompat.checkSelfPermission(appContext, Manifest.permission.POST_NOTIFICATIONS)
+                        != PackageManager.PERMISSION_GRANTED) {
+            Log.d(TAG, "Notification permission not granted, skipping " + event.getId());
+            return;
+        }
+        createChannel();
+
+        Intent intent = new Intent(appContext, MyRidesActivity.class)
+                .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(appContext, event.getId().hashCode(),
+                intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        String driver = event.getDriverName() != null ? event.getDriverName() : "A driver";
+        String route = event.getPickupLocation() + " → " + event.getDropLocation();
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(appContext, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_launcher_foreground)
+                .setContentTitle("✅ Request Accepted!")
+                .setContentText(driver + " has accepted your ride request")
+                .setStyle(new NotificationCompat.BigTextStyle().bigText(
+                        driver + " has accepted your ride request\n" + route + "\n" +
+                                "Fare: ৳" + String.format(Locale.getDefault(), "%.0f", event.getFare())))
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setCategory(NotificationCompat.CATEGORY_STATUS)
+                .setContentIntent(contentIntent)
+                .setAutoCancel(true);
+        try {
+            NotificationManagerCompat.from(appContext).notify(event.getId().hashCode(), builder.build());
+        } catch (SecurityException e) {
+            Log.e(TAG, "Could not post notification for " + event.getId(), e);
+        }
+    }
+
+    private static void createChannel() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) return;
+        NotificationManager manager = appContext.getSystemService(NotificationManager.class);
+        if (manager == null || manager.getNotificationChannel(CHANNEL_ID) != null) return;
+        NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Ride updates",
+                NotificationManager.IMPORTANCE_HIGH);
+        channel.setDescription("When a driver accepts your ride request");
+        manager.createNotificationChannel(channel);
+    }
+}
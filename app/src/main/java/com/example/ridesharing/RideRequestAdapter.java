@@ -8,17 +8,41 @@ import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.resource.bitmap.CircleCrop;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Feed adapter for available ride requests.
+ *
+ * Lists are diffed on a background thread by {@link AsyncListDiffer}: items match by
+ * document id and compare by content. Changes limited to the time or the fare are sent
+ * as payloads, so only those views are rebound instead of the whole card. Time remaining
+ * is formatted from the departure epoch at bind time, so {@link #refreshTimes} keeps it
+ * current with a payload bind of the rows on screen.
+ */
 public class RideRequestAdapter extends RecyclerView.Adapter<RideRequestAdapter.RideRequestViewHolder> {
 
-    private List<RideRequest> requests;
+    // Partial rebind payloads
+    static final String PAYLOAD_TIME = "time";
+    static final String PAYLOAD_FARE = "fare";
+    private static final Set<String> TIME_ONLY = Collections.singleton(PAYLOAD_TIME);
+
+    private final AsyncListDiffer<RideRequest> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private long nextStableId = 0;
     private OnRequestClickListener listener;
 
     public interface OnRequestClickListener {
@@ -29,9 +53,10 @@ public class RideRequestAdapter extends RecyclerView.Adapter<RideRequestAdapter.
         void onViewMapClick(RideRequest request);
     }
 
-    public RideRequestAdapter(List<RideRequest> requests, OnRequestClickListener listener) {
-        this.requests = requests;
+    public RideRequestAdapter(OnRequestClickListener listener) {
         this.listener = listener;
+        setHasStableIds(true);
+        differ.addListListener((previous, current) -> forgetStableIds(current));
     }
 
     @NonNull
@@ -44,18 +69,121 @@ public class RideRequestAdapter extends RecyclerView.Adapter<RideRequestAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull RideRequestViewHolder holder, int position) {
-        RideRequest request = requests.get(position);
+        RideRequest request = differ.getCurrentList().get(position);
         holder.bind(request, listener);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onBindViewHolder(@NonNull RideRequestViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        RideRequest request = differ.getCurrentList().get(position);
+        for (Object payload : payloads) {
+            for (String part : (Set<String>) payload) {
+                if (PAYLOAD_TIME.equals(part)) {
+                    holder.bindTime(request);
+                } else if (PAYLOAD_FARE.equals(part)) {
+                    holder.bindFare(request);
+                }
+            }
+        }
+        holder.request = request;
+    }
+
     @Override
     public int getItemCount() {
-        return requests.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        // Ids are handed out per document, so they never collide like string hashes can
+        String id = differ.getCurrentList().get(position).getId();
+        Long stableId = stableIds.get(id);
+        if (stableId == null) {
+            stableId = nextStableId++;
+            stableIds.put(id, stableId);
+        }
+        return stableId;
+    }
+
+    /** Drops the ids of documents that left the list, so the map stays the size of the feed. */
+    private void forgetStableIds(List<RideRequest> current) {
+        if (stableIds.size() <= current.size()) return;
+        Set<String> ids = new HashSet<>(current.size() * 2);
+        for (RideRequest request : current) {
+            ids.add(request.getId());
+        }
+        stableIds.keySet().retainAll(ids);
+    }
+
+    /** Diffs against the current list off the main thread, then dispatches the updates. */
+    public void submitList(List<RideRequest> newRequests, Runnable commitCallback) {
+        differ.submitList(newRequests, commitCallback);
+    }
+
+    /** Rebinds only the time views of positions first to last, e.g. the rows on screen. */
+    public void refreshTimes(int first, int last) {
+        if (first < 0 || last < first) return;
+        notifyItemRangeChanged(first, last - first + 1, TIME_ONLY);
     }
 
-    public void updateRequests(List<RideRequest> newRequests) {
-        this.requests = newRequests;
-        notifyDataSetChanged();
+    private static final DiffUtil.ItemCallback<RideRequest> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<RideRequest>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull RideRequest oldItem, @NonNull RideRequest newItem) {
+                    return oldItem.getId().equals(newItem.getId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull RideRequest oldItem, @NonNull RideRequest newItem) {
+                    return sameTime(oldItem, newItem) && sameFare(oldItem, newItem)
+                            && sameCard(oldItem, newItem);
+                }
+
+                @Override
+                public Object getChangePayload(@NonNull RideRequest oldItem, @NonNull RideRequest newItem) {
+                    // Anything beyond time and fare needs the full bind
+                    if (!sameCard(oldItem, newItem)) return null;
+
+                    Set<String> parts = new HashSet<>(2);
+                    if (!sameTime(oldItem, newItem)) parts.add(PAYLOAD_TIME);
+                    if (!sameFare(oldItem, newItem)) parts.add(PAYLOAD_FARE);
+                    return parts;
+                }
+            };
+
+    private static boolean sameTime(RideRequest a, RideRequest b) {
+        return Objects.equals(a.getDepartureTime(), b.getDepartureTime())
+                && a.getDepartureAt() == b.getDepartureAt();
+    }
+
+    private static boolean sameFare(RideRequest a, RideRequest b) {
+        return a.getOfferedFare() == b.getOfferedFare();
+    }
+
+    // Everything else the card shows or its click handlers pass on
+    private static boolean sameCard(RideRequest a, RideRequest b) {
+        return Objects.equals(a.getPassengerName(), b.getPassengerName())
+                && Objects.equals(a.getPassengerPhoto(), b.getPassengerPhoto())
+                && Objects.equals(a.getPassengerPhone(), b.getPassengerPhone())
+                && a.getRating() == b.getRating()
+                && Objects.equals(a.getUserType(), b.getUserType())
+                && Objects.equals(a.getSource(), b.getSource())
+                && Objects.equals(a.getDestination(), b.getDestination())
+                && Objects.equals(a.getDistance(), b.getDistance())
+                && Objects.equals(a.getVehicleType(), b.getVehicleType())
+                && a.getPassengers() == b.getPassengers()
+                && Objects.equals(a.getSpecialRequest(), b.getSpecialRequest())
+                && Objects.equals(a.getPickupLat(), b.getPickupLat())
+                && Objects.equals(a.getPickupLng(), b.getPickupLng())
+                && Objects.equals(a.getDropLat(), b.getDropLat())
+                && Objects.equals(a.getDropLng(), b.getDropLng());
     }
 
     static class RideRequestViewHolder extends RecyclerView.ViewHolder {
@@ -87,6 +215,9 @@ public class RideRequestAdapter extends RecyclerView.Adapter<RideRequestAdapter.
         private MaterialButton btnAccept;
         private MaterialButton btnViewMap;
 
+        // Latest bound item; click handlers read it so partial rebinds stay current
+        private RideRequest request;
+
         public RideRequestViewHolder(@NonNull View itemView) {
             super(itemView);
 
@@ -127,6 +258,8 @@ public class RideRequestAdapter extends RecyclerView.Adapter<RideRequestAdapter.
         }
 
         public void bind(RideRequest request, OnRequestClickListener listener) {
+            this.request = request;
+
             // Load passenger photo
             if (request.getPassengerPhoto() != null && !request.getPassengerPhoto().isEmpty()) {
                 Glide.with(itemView.getContext())
@@ -156,7 +289,7 @@ public class RideRequestAdapter extends RecyclerView.Adapter<RideRequestAdapter.
             }
 
             // Fare information
-            tvFareAmount.setText(String.format(Locale.getDefault(), "৳%.0f", request.getOfferedFare()));
+            bindFare(request);
 
             // Fairness indicator (you can add logic based on calculated fair fare)
             chipFairness.setText("Fair Price");
@@ -164,8 +297,7 @@ public class RideRequestAdapter extends RecyclerView.Adapter<RideRequestAdapter.
             chipFairness.setTextColor(Color.WHITE);
 
             // Time information
-            tvDepartureTime.setText(request.getDepartureTime());
-            tvTimeRemaining.setText(request.getTimeRemaining());
+            bindTime(request);
 
             // Vehicle type
             if (request.getVehicleType() != null) {
@@ -195,17 +327,27 @@ public class RideRequestAdapter extends RecyclerView.Adapter<RideRequestAdapter.
             }
 
             // Click listeners
-            ivPassengerPhoto.setOnClickListener(v -> listener.onPassengerProfileClick(request));
-            tvPassengerName.setOnClickListener(v -> listener.onPassengerProfileClick(request));
+            ivPassengerPhoto.setOnClickListener(v -> listener.onPassengerProfileClick(this.request));
+            tvPassengerName.setOnClickListener(v -> listener.onPassengerProfileClick(this.request));
 
-            ivCall.setOnClickListener(v -> listener.onCallPassengerClick(request));
-            ivMessage.setOnClickListener(v -> listener.onMessagePassengerClick(request));
+            ivCall.setOnClickListener(v -> listener.onCallPassengerClick(this.request));
+            ivMessage.setOnClickListener(v -> listener.onMessagePassengerClick(this.request));
 
-            btnAccept.setOnClickListener(v -> listener.onAcceptRequestClick(request));
-            btnViewMap.setOnClickListener(v -> listener.onViewMapClick(request));
+            btnAccept.setOnClickListener(v -> listener.onAcceptRequestClick(this.request));
+            btnViewMap.setOnClickListener(v -> listener.onViewMapClick(this.request));
 
             // Card click for details
-            cardView.setOnClickListener(v -> listener.onPassengerProfileClick(request));
+            cardView.setOnClickListener(v -> listener.onPassengerProfileClick(this.request));
+        }
+
+        void bindTime(RideRequest request) {
+            tvDepartureTime.setText(request.getDepartureTime());
+            tvTimeRemaining.setText(DateFormats.formatTimeRemaining(
+                    request.getDepartureAt(), System.currentTimeMillis()));
+        }
+
+        void bindFare(RideRequest request) {
+            tvFareAmount.setText(String.format(Locale.getDefault(), "৳%.0f", request.getOfferedFare()));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.ridesharing;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Dao
+public abstract class RideRequestDao {
+
+    // Stay well under SQLite's limit on bound parameters per statement
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    @Query("SELECT * FROM ride_requests WHERE status = 'pending' "
+            + "AND (expiresAt IS NULL OR expiresAt > :now) ORDER BY createdAt DESC LIMIT :limit")
+    public abstract List<CachedRideRequest> pending(long now, int limit);
+
+    @Query("SELECT * FROM ride_requests WHERE passengerId = :passengerId ORDER BY createdAt DESC")
+    public abstract List<CachedRideRequest> byPassenger(String passengerId);
+
+    @Query("SELECT id, updatedAt FROM ride_requests WHERE id IN (:ids)")
+    abstract List<RowVersion> versions(List<String> ids);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertAll(List<CachedRideRequest> rows);
+
+    @Query("DELETE FROM ride_requests WHERE id = :id AND updatedAt <= :updatedAt")
+    abstract void deleteIfNotNewer(String id, long updatedAt);
+
+    @Query("DELETE FROM ride_requests WHERE updatedAt < :cutoff")
+    public abstract int deleteOlderThan(long cutoff);
+
+    @Query("SELECT COUNT(*) FROM ride_requests")
+    public abstract int count();
+
+    /**
+     * Applies one batch of listener deltas. Rows only replace a stored copy whose last
+     * write is not newer, and removals only drop rows no newer than the removed copy, so
+     * batches from overlapping listeners can land in any order.
+     */
+    @Transaction
+    public void merge(List<CachedRideRequest> upserts, List<CachedRideRequest> removals) {
+        if (!upserts.isEmpty()) {
+            Map<String, Long> stored = new HashMap<>();
+            List<String> ids = new ArrayList<>(upserts.size());
+            for (CachedRideRequest row : upserts) {
+                ids.add(row.id);
+            }
+            for (int start = 0; start < ids.size(); start += MAX_IDS_PER_QUERY) {
+                List<String> chunk = ids.subList(start, Math.min(ids.size(), start + MAX_IDS_PER_QUERY));
+                for (RowVersion version : versions(chunk)) {
+                    stored.put(version.id, version.updatedAt);
+                }
+            }
+
+            List<CachedRideRequest> newer = new ArrayList<>(upserts.size());
+            for (CachedRideRequest row : upserts) {
+                Long current = stored.get(row.id);
+                if (current == null || row.updatedAt >= current) {
+                    newer.add(row);
+                }
+            }
+            insertAll(newer);
+        }
+
+        for (CachedRideRequest row : removals) {
+            deleteIfNotNewer(row.id, row.updatedAt);
+        }
+    }
+
+    /** Id and last-write time of a stored row. */
+    public static class RowVersion {
+        public String id;
+        public long updatedAt;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Id-indexed store behind the available-requests feed.
+ *
+ * Snapshot document changes are applied one at a time as upserts and removals. The
+ * visible list is kept sorted under a total order (the feed order, then arrival order),
+ * so finding and placing an item is a binary search instead of a rebuild of the whole
+ * list; the adapter diffs copies of it to work out what changed on screen.
+ */
+public class RideRequestFeedStore {
+
+    private final Map<String, RideRequest> requestsById = new HashMap<>();
+    private final Map<String, Long> arrivalOrder = new HashMap<>();
+    private final List<RideRequest> visibleRequests = new ArrayList<>();
+    private final Comparator<RideRequest> visibleOrder = this::compareVisible;
+
+    private Comparator<RideRequest> order; // null keeps arrival order
+    private Predicate<RideRequest> filter;  // null shows everything
+    private long nextArrival = 0;
+
+    /** Live, sorted and filtered list to hand to the adapter. */
+    public List<RideRequest> getVisibleRequests() {
+        return visibleRequests;
+    }
+
+    public int size() {
+        return requestsById.size();
+    }
+
+    public boolean contains(String id) {
+        return requestsById.containsKey(id);
+    }
+
+    /** The stored request with this id, whether or not the filter shows it; null if absent. */
+    public RideRequest get(String id) {
+        return requestsById.get(id);
+    }
+
+    public void upsert(RideRequest request) {
+        String id = request.getId();
+        RideRequest previous = requestsById.put(id, request);
+        if (previous == null) {
+            arrivalOrder.put(id, nextArrival++);
+        }
+
+        int oldPosition = previous != null ? indexOfVisible(previous) : -1;
+        boolean show = matchesFilter(request);
+
+        if (oldPosition < 0) {
+            if (show) {
+                visibleRequests.add(insertionPoint(request), request);
+            }
+            return;
+        }
+
+        visibleRequests.remove(oldPosition);
+        if (show) {
+            visibleRequests.add(insertionPoint(request), request);
+        }
+    }
+
+    public void remove(String id) {
+        RideRequest previous = requestsById.remove(id);
+        if (previous == null) return;
+
+        int position = indexOfVisible(previous);
+        arrivalOrder.remove(id);
+        if (position >= 0) {
+            visibleRequests.remove(position);
+        }
+    }
+
+    /** Removes every stored request the predicate accepts and returns their ids. */
+    public List<String> removeIf(Predicate<RideRequest> predicate) {
+        List<String> matching = new ArrayList<>();
+        for (RideRequest request : requestsById.values()) {
+            if (predicate.test(request)) {
+                matching.add(request.getId());
+            }
+        }
+        for (String id : matching) {
+            remove(id);
+        }
+        return matching;
+    }
+
+    public void clear() {
+        requestsById.clear();
+        arrivalOrder.clear();
+        visibleRequests.clear();
+    }
+
+    public void setOrder(Comparator<RideRequest> order) {
+        this.order = order;
+        rebuildVisible();
+    }
+
+    public void setFilter(Predicate<RideRequest> filter) {
+        this.filter = filter;
+        rebuildVisible();
+    }
+
+    private void rebuildVisible() {
+        visibleRequests.clear();
+        for (RideRequest request : requestsById.values()) {
+            if (matchesFilter(request)) {
+                visibleRequests.add(request);
+            }
+        }
+        Collections.sort(visibleRequests, visibleOrder);
+    }
+
+    private boolean matchesFilter(RideRequest request) {
+        return filter == null || filter.test(request);
+    }
+
+    private int indexOfVisible(RideRequest request) {
+        int index = Collections.binarySearch(visibleRequests, request, visibleOrder);
+        return index >= 0 && visibleRequests.get(index).getId().equals(request.getId()) ? index : -1;
+    }
+
+    private int insertionPoint(RideRequest request) {
+        int index = Collections.binarySearch(visibleRequests, request, visibleOrder);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    private int compareVisible(RideRequest r1, RideRequest r2) {
+        if (order != null) {
+            int result = order.compare(r1, r2);
+            if (result != 0) return result;
+        }
+        return Long.compare(arrivalOf(r1), arrivalOf(r2));
+    }
+
+    private long arrivalOf(RideRequest request) {
+        Long arrival = arrivalOrder.get(request.getId());
+        return arrival != null ? arrival : Long.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.example.ridesharing;
+
+import android.content.Context;
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline-first access to ride requests.
+ *
+ * Screens ask for the copy on disk first and render it straight away, then keep
+ * listening to Firestore as before and hand each batch of document changes to
+ * {@link #applyChanges}. The disk copy is merged by last-write time, so deltas from
+ * overlapping listeners (nearby cells, feed pages, the passenger's own requests) can
+ * arrive in any order without an older copy winning.
+ */
+public class RideRequestRepository {
+
+    private static final String TAG = "RideRequestRepository";
+
+    // Enough to fill the first screens of the feed; the listeners bring in the rest
+    static final int CACHED_FEED_LIMIT = 200;
+
+    // Rows nothing has written to for this long are dropped on open
+    private static final long RETENTION_MS = TimeUnit.DAYS.toMillis(30);
+
+    private static volatile RideRequestRepository instance;
+
+    private final RideRequestDao dao;
+    private final Executor diskIo;
+    private final Executor resultExecutor;
+
+    RideRequestRepository(RideRequestDao dao, Executor diskIo, Executor resultExecutor) {
+        this.dao = dao;
+        this.diskIo = diskIo;
+        this.resultExecutor = resultExecutor;
+    }
+
+    public static RideRequestRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (RideRequestRepository.class) {
+                if (instance == null) {
+                    instance = new RideRequestRepository(LocalDatabase.getInstance(context).rideRequests(),
+                            AppExecutors.diskIo(), AppExecutors.mainThread());
+                    instance.pruneInBackground(System.currentTimeMillis());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** Pending, unexpired requests last seen by any listener, newest first. */
+    public void loadPendingFeed(long now, ResultCallback<List<RideRequest>> callback) {
+        diskIo.execute(() -> {
+            List<RideRequest> requests = new ArrayList<>();
+            try {
+                for (CachedRideRequest row : dao.pending(now, CACHED_FEED_LIMIT)) {
+                    requests.add(row.toRideRequest());
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not read cached feed", e);
+            }
+            resultExecutor.execute(() -> callback.onResult(requests));
+        });
+    }
+
+    /** Every cached request the passenger posted, newest first, whatever its status. */
+    public void loadPassengerRequests(String passengerId, ResultCallback<List<MyRideRequest>> callback) {
+        diskIo.execute(() -> {
+            List<MyRideRequest> requests = new ArrayList<>();
+            try {
+                for (CachedRideRequest row : dao.byPassenger(passengerId)) {
+                    requests.add(row.toMyRideRequest());
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not read cached requests for " + passengerId, e);
+            }
+            resultExecutor.execute(() -> callback.onResult(requests));
+        });
+    }
+
+    /**
+     * Writes one batch of listener deltas to disk.
+     * @param upserts documents added or modified, as delivered
+     * @param removals documents that left the query or were deleted, as last seen
+     */
+    public void applyChanges(List<CachedRideRequest> upserts, List<CachedRideRequest> removals) {
+        if (upserts.isEmpty() && removals.isEmpty()) return;
+        diskIo.execute(() -> {
+            try {
+                dao.merge(upserts, removals);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not write " + upserts.size() + " cached requests", e);
+            }
+        });
+    }
+
+    void pruneInBackground(long now) {
+        diskIo.execute(() -> {
+            try {
+                int deleted = dao.deleteOlderThan(now - RETENTION_MS);
+                Log.d(TAG, "Pruned " + deleted + " stale cached requests");
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Cache prune failed", e);
+            }
+        });
+    }
+}
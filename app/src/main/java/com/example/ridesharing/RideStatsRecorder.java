@@ -0,0 +1,90 @@
+package com.example.ridesharing;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the per-user {@link RideStats} on users/{uid} current as rides complete and get rated.
+ *
+ * Each update is one transaction that reads the ride, checks its marker field and then
+ * writes the marker together with the increments, so a retried or repeated call counts
+ * nothing twice. Reading the stats is then a single document read.
+ */
+public class RideStatsRecorder {
+
+    private final FirebaseFirestore db;
+
+    public RideStatsRecorder(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /** Marks an accepted ride completed and counts it for both participants, at most once. */
+    public Task<RideStats.Result> completeRide(String rideId) {
+        DocumentReference rideRef = db.collection("ride_requests").document(rideId);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot ride = transaction.get(rideRef);
+            RideStats.Result result = RideStats.checkCompletion(
+                    ride.exists() ? ride.getString("status") : null,
+                    ride.getBoolean(RideStats.FIELD_STATS_RECORDED));
+            if (result != RideStats.Result.RECORDED) return result;
+
+            Double distance = ride.getDouble("distance");
+            Double fare = ride.getDouble("fare");
+            double fareValue = fare != null ? fare : 0.0;
+
+            Map<String, Object> completed = RideStats.completedRideFields(System.currentTimeMillis());
+            completed.put(LocalDatabase.FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+            transaction.update(rideRef, completed);
+            increment(transaction, ride.getString("driverId"),
+                    RideStats.completionIncrements(true, distance, fareValue));
+            increment(transaction, ride.getString("passengerId"),
+                    RideStats.completionIncrements(false, distance, fareValue));
+            return result;
+        });
+    }
+
+    /**
+     * Records one participant's rating of the other on a completed ride, at most once.
+     * @param byDriver true if the driver is rating the passenger
+     */
+    public Task<RideStats.Result> rateRide(String rideId, boolean byDriver, double rating) {
+        // Validated up front so a bad rating never costs a round trip
+        Map<String, Number> increments = RideStats.ratingIncrements(rating);
+        String ratingField = RideStats.ratingField(byDriver);
+        DocumentReference rideRef = db.collection("ride_requests").document(rideId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot ride = transaction.get(rideRef);
+            RideStats.Result result = RideStats.checkRating(
+                    ride.exists() ? ride.getString("status") : null, ride.get(ratingField));
+            if (result != RideStats.Result.RECORDED) return result;
+
+            transaction.update(rideRef, ratingField, rating,
+                    LocalDatabase.FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+            increment(transaction, ride.getString(byDriver ? "passengerId" : "driverId"), increments);
+            return result;
+        });
+    }
+
+    private void increment(Transaction transaction, String userId, Map<String, Number> increments) {
+        if (userId == null || userId.isEmpty()) return;
+
+        Map<String, Object> fields = new HashMap<>();
+        for (Map.Entry<String, Number> entry : increments.entrySet()) {
+            Number delta = entry.getValue();
+            fields.put(entry.getKey(), delta instanceof Long
+                    ? FieldValue.increment(delta.longValue())
+                    : FieldValue.increment(delta.doubleValue()));
+        }
+        fields.put(LocalDatabase.FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+        // Merge so a user whose document predates the counters simply gains them
+        transaction.set(db.collection("users").document(userId), fields, SetOptions.merge());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.ridesharing;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Snapshot listeners owned by one screen, attached only while it is started.
+ *
+ * A stopped screen keeps its listeners for {@link #GRACE_MS}, so a quick trip to
+ * another screen, an app switch or a rotation does not tear down and re-download the feed. After that
+ * they are removed; on the next start the screen's restart hook repaints from the
+ * local mirror and listens again. During a rotation the old instance's listeners are
+ * muted but kept for the grace period, so Firestore still holds the query when the
+ * new instance asks for it and answers from memory instead of the server.
+ *
+ * Counts are reported to {@link ListenerStats} under the screen's name.
+ */
+public final class ScreenListeners implements DefaultLifecycleObserver {
+
+    private static final String TAG = "ScreenListeners";
+
+    static final long GRACE_MS = 5000;
+
+    private static final Handler HANDLER = new Handler(Looper.getMainLooper());
+
+    private final AppCompatActivity activity;
+    private final String screen;
+    private final Runnable onRestart;
+    private final Runnable detach = this::removeAll;
+    private final List<Tracked> listeners = new ArrayList<>(); // main thread only
+    private boolean stopped = false;
+    private boolean removedWhileStopped = false;
+
+    /** One attached listener; muted ones drop whatever Firestore still delivers. */
+    private final class Tracked implements ListenerRegistration {
+        private final ListenerRegistration registration;
+        private volatile boolean muted = false;
+
+        Tracked(Query query, Executor executor, EventListener<QuerySnapshot> listener) {
+            registration = query.addSnapshotListener(executor, (snapshots, error) -> {
+                if (muted) return;
+                if (snapshots != null) {
+                    ListenerStats.received(screen, snapshots.getDocumentChanges().size());
+                }
+                listener.onEvent(snapshots, error);
+            });
+        }
+
+        @Override
+        public void remove() {
+            if (!listeners.remove(this)) return;
+            release();
+        }
+
+        void release() {
+            muted = true;
+            registration.remove();
+            ListenerStats.detached(screen);
+        }
+    }
+
+    /**
+     * Binds the screen's listeners to its lifecycle.
+     * @param onRestart called on start when the listeners were removed while stopped
+     */
+    public ScreenListeners(@NonNull AppCompatActivity activity, @NonNull String screen,
+                           @NonNull Runnable onRestart) {
+        this.activity = activity;
+        this.screen = screen;
+        this.onRestart = onRestart;
+        activity.getLifecycle().addObserver(this);
+    }
+
+    /** Attaches a listener that lives until it is removed, {@link #removeAll} or the screen stops. */
+    public ListenerRegistration listen(Query query, Executor executor, EventListener<QuerySnapshot> listener) {
+        HANDLER.removeCallbacks(detach);
+        Tracked tracked = new Tracked(query, executor, listener);
+        listeners.add(tracked);
+        ListenerStats.attached(screen);
+        return tracked;
+    }
+
+    /** Removes every listener the screen has attached. */
+    public void removeAll() {
+        HANDLER.removeCallbacks(detach);
+        if (listeners.isEmpty()) return;
+        for (Tracked tracked : listeners) {
+            tracked.release();
+        }
+        listeners.clear();
+        if (stopped) {
+            removedWhileStopped = true;
+        }
+        Log.d(TAG, screen + ": listeners removed; " + ListenerStats.forScreen(screen));
+    }
+
+    public int size() {
+        return listeners.size();
+    }
+
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        HANDLER.removeCallbacks(detach);
+        stopped = false;
+        if (removedWhileStopped) {
+            removedWhileStopped = false;
+            onRestart.run();
+        }
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        stopped = true;
+        if (listeners.isEmpty()) return;
+        if (activity.isChangingConfigurations()) {
+            // This instance is going away; only keep the queries warm for the new one
+            for (Tracked tracked : listeners) {
+                tracked.muted = true;
+            }
+        }
+        HANDLER.postDelayed(detach, GRACE_MS);
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        // A rotating instance's muted listeners are released when the grace period ends
+        if (!activity.isChangingConfigurations()) {
+            removeAll();
+        }
+    }
+}
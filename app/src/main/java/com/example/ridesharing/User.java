@@ -10,6 +10,7 @@ public class User {
     private long createdAt;
     private boolean isVerified;
     private String userType; // "student", "faculty", etc.
+    private RideStats stats = RideStats.EMPTY;
 
     // Default constructor required for Firebase
     public User() {}
@@ -62,4 +63,7 @@ public class User {
 
     public String getUserType() { return userType; }
     public void setUserType(String userType) { this.userType = userType; }
+
+    public RideStats getStats() { return stats; }
+    public void setStats(RideStats stats) { this.stats = stats; }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.ridesharing;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+@Dao
+public abstract class UserDao {
+
+    @Query("SELECT * FROM users WHERE uid = :uid")
+    public abstract CachedUser get(String uid);
+
+    @Query("SELECT updatedAt FROM users WHERE uid = :uid")
+    abstract Long updatedAt(String uid);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insert(CachedUser user);
+
+    /** Stores the profile unless the copy on disk was written later. */
+    @Transaction
+    public boolean merge(CachedUser user) {
+        Long current = updatedAt(user.uid);
+        if (current != null && user.updatedAt < current) return false;
+        insert(user);
+        return true;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.ridesharing;
+
+import android.content.Context;
+import android.util.Log;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-wide copy of the signed-in user's profile, delivered on the main thread.
+ *
+ * One snapshot listener on users/{uid} replaces the one-off reads each screen used to
+ * make. The profile saved on disk is published first, so screens and the post and
+ * accept paths have it without waiting on the network; listeners are told again
+ * whenever the document changes.
+ */
+public final class UserProfileCache {
+
+    private static final String TAG = "UserProfileCache";
+
+    public interface Listener {
+        /** @param user the profile, or null if the user has none or nobody is signed in */
+        void onProfileChanged(User user);
+    }
+
+    private static final List<Listener> LISTENERS = new ArrayList<>(); // main thread only
+
+    private static UserRepository repository;
+    private static ListenerRegistration registration;
+    private static String uid;       // whose profile is held, null when signed out
+    private static User profile;
+    private static boolean loaded;   // profile holds an answer, even if that answer is null
+    private static boolean liveSeen; // a snapshot arrived, so the disk copy is no longer needed
+
+    private UserProfileCache() {}
+
+    /** The memoized profile, or null if it is missing or not loaded yet. */
+    public static User get() {
+        return profile;
+    }
+
+    /**
+     * Registers for profile changes. The current profile is delivered straight away
+     * if there is one; otherwise the first answer from disk or Firestore is.
+     */
+    public static void addListener(Context context, Listener listener) {
+        start(context);
+        if (LISTENERS.contains(listener)) return;
+        LISTENERS.add(listener);
+        if (loaded) {
+            listener.onProfileChanged(profile);
+        }
+    }
+
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * True once there is an answer: the profile from disk or Firestore, or the server's
+     * word that the user has none. Firestore's own cache missing the document is not one.
+     */
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Attaches the listener for whoever is signed in now; a no-op if already attached. */
+    public static void start(Context context) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        String currentUid = user != null ? user.getUid() : null;
+        if (currentUid == null) {
+            if (uid != null || !loaded) {
+                clear();
+                publish(null);
+            }
+            return;
+        }
+        if (currentUid.equals(uid) && registration != null) return;
+
+        clear();
+        uid = currentUid;
+        if (repository == null) {
+            repository = UserRepository.getInstance(context);
+        }
+
+        repository.loadCached(currentUid, cached -> {
+            // The live document may already have arrived, or the user may have changed
+            if (!currentUid.equals(uid) || liveSeen || cached == null) return;
+            publish(cached.toUser());
+        });
+
+        registration = FirebaseFirestore.getInstance().collection("users").document(currentUid)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (!currentUid.equals(uid)) return;
+                    if (error != null) {
+                        Log.e(TAG, "Profile listener failed for " + currentUid, error);
+                        // Firestore has dropped the listener; the next start() attaches a new one
+                        registration = null;
+                        return;
+                    }
+                    if (snapshot == null) return;
+
+                    if (!snapshot.exists()) {
+                        // Offline, a missing document only means it was never cached
+                        if (snapshot.getMetadata().isFromCache()) return;
+                        liveSeen = true;
+                        publish(null);
+                        return;
+                    }
+                    liveSeen = true;
+                    repository.save(snapshot);
+                    publish(CachedUser.fromDocument(snapshot).toUser());
+                });
+    }
+
+    /** Forgets the profile and stops listening, e.g. on sign-out. */
+    public static void clear() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        uid = null;
+        profile = null;
+        loaded = false;
+        liveSeen = false;
+    }
+
+    private static void publish(User user) {
+        profile = user;
+        loaded = true;
+        // Copy, so a listener may unregister itself while being notified
+        for (Listener listener : new ArrayList<>(LISTENERS)) {
+            listener.onProfileChanged(user);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ridesharing;
+
+import android.content.Context;
+import android.util.Log;
+import com.google.firebase.firestore.DocumentSnapshot;
+import java.util.concurrent.Executor;
+
+/**
+ * Offline-first access to user profiles: the copy on disk is handed back first, and
+ * every document read from Firestore is written back unless the disk copy is newer.
+ */
+public class UserRepository {
+
+    private static final String TAG = "UserRepository";
+
+    private static volatile UserRepository instance;
+
+    private final UserDao dao;
+    private final Executor diskIo;
+    private final Executor resultExecutor;
+
+    UserRepository(UserDao dao, Executor diskIo, Executor resultExecutor) {
+        this.dao = dao;
+        this.diskIo = diskIo;
+        this.resultExecutor = resultExecutor;
+    }
+
+    public static UserRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (UserRepository.class) {
+                if (instance == null) {
+                    instance = new UserRepository(LocalDatabase.getInstance(context).users(),
+                            AppExecutors.diskIo(), AppExecutors.mainThread());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** Hands back the cached profile, or null if this user was never seen on this device. */
+    public void loadCached(String uid, ResultCallback<CachedUser> callback) {
+        diskIo.execute(() -> {
+            CachedUser user = null;
+            try {
+                user = dao.get(uid);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not read cached profile " + uid, e);
+            }
+            CachedUser result = user;
+            resultExecutor.execute(() -> callback.onResult(result));
+        });
+    }
+
+    public void save(DocumentSnapshot document) {
+        if (!document.exists()) return;
+        save(CachedUser.fromDocument(document));
+    }
+
+    void save(CachedUser user) {
+        diskIo.execute(() -> {
+            try {
+                dao.merge(user);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not cache profile " + user.uid, e);
+            }
+        });
+    }
+}
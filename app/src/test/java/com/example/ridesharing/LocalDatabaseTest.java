@@ -0,0 +1,179 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Runs the local mirror against a real in-memory SQLite database under Robolectric, with
+ * the repository's executors made synchronous.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class LocalDatabaseTest {
+
+    private static final Executor DIRECT = Runnable::run;
+    private static final long NOW = 1_700_000_000_000L;
+
+    private LocalDatabase database;
+    private RideRequestRepository repository;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), LocalDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        repository = new RideRequestRepository(database.rideRequests(), DIRECT, DIRECT);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void applyChanges_olderCopyNeverReplacesNewer() {
+        CachedRideRequest accepted = row("r1", "accepted", NOW + 10);
+        CachedRideRequest pending = row("r1", "pending", NOW);
+
+        // The nearby listener's stale copy lands after the passenger listener's newer one
+        repository.applyChanges(list(accepted), list());
+        repository.applyChanges(list(pending), list());
+
+        List<MyRideRequest> stored = loadPassenger("passenger");
+        assertEquals(1, stored.size());
+        assertEquals("accepted", stored.get(0).getStatus());
+        assertTrue(loadFeed(NOW).isEmpty());
+
+        // An equal or later write still goes through
+        repository.applyChanges(list(row("r1", "completed", NOW + 10)), list());
+        assertEquals("completed", loadPassenger("passenger").get(0).getStatus());
+    }
+
+    @Test
+    public void applyChanges_removalKeepsRowWrittenAfterIt() {
+        repository.applyChanges(list(row("r1", "pending", NOW), row("r2", "pending", NOW)), list());
+
+        // r1 was rewritten after the copy the removal carries, r2 was not
+        repository.applyChanges(list(row("r1", "pending", NOW + 5)), list());
+        repository.applyChanges(list(), list(row("r1", "pending", NOW), row("r2", "pending", NOW)));
+
+        List<RideRequest> feed = loadFeed(NOW);
+        assertEquals(1, feed.size());
+        assertEquals("r1", feed.get(0).getId());
+    }
+
+    @Test
+    public void loadPendingFeed_skipsExpiredAndTakenRequests() {
+        CachedRideRequest expired = row("expired", "pending", NOW);
+        expired.expiresAt = NOW - 1;
+        CachedRideRequest bare = row("bare", "pending", NOW);
+        bare.passengerName = null;
+        bare.vehicleType = null;
+        repository.applyChanges(list(expired, bare, row("taken", "accepted", NOW)), list());
+
+        List<RideRequest> feed = loadFeed(NOW);
+        assertEquals(1, feed.size());
+        RideRequest request = feed.get(0);
+        assertEquals("bare", request.getId());
+        assertEquals("Anonymous Passenger", request.getPassengerName());
+        assertEquals("car", request.getVehicleType());
+        assertEquals(NOW + 3_600_000, request.getDepartureAt());
+    }
+
+    @Test
+    public void loadPendingFeed_capsLargeFeedNewestFirst() {
+        List<CachedRideRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            CachedRideRequest row = row("r" + i, i % 4 == 0 ? "accepted" : "pending", NOW + i);
+            row.createdAt = NOW - i;
+            rows.add(row);
+        }
+        repository.applyChanges(rows, list());
+
+        List<RideRequest> feed = loadFeed(NOW);
+        assertEquals(RideRequestRepository.CACHED_FEED_LIMIT, feed.size());
+        assertEquals("r1", feed.get(0).getId()); // newest first; r0 was taken
+        for (int i = 0; i < feed.size(); i++) {
+            // Every fourth row was accepted and must not be in the feed
+            assertTrue(Integer.parseInt(feed.get(i).getId().substring(1)) % 4 != 0);
+            if (i > 0) assertTrue(feed.get(i - 1).getCreatedAt() > feed.get(i).getCreatedAt());
+        }
+    }
+
+    @Test
+    public void userMerge_keepsLaterProfile() {
+        UserRepository users = new UserRepository(database.users(), DIRECT, DIRECT);
+        users.save(user("Old Name", NOW));
+        users.save(user("New Name", NOW + 1));
+        users.save(user("Stale Name", NOW - 1));
+
+        CachedUser[] cached = new CachedUser[1];
+        users.loadCached("u1", result -> cached[0] = result);
+        assertNotNull(cached[0]);
+        assertEquals("New Name", cached[0].toUser().getFullName());
+        assertFalse(database.users().merge(user("Stale Name", NOW)));
+
+        users.loadCached("nobody", result -> cached[0] = result);
+        assertNull(cached[0]);
+    }
+
+    private List<RideRequest> loadFeed(long now) {
+        List<RideRequest> feed = new ArrayList<>();
+        repository.loadPendingFeed(now, feed::addAll);
+        return feed;
+    }
+
+    private List<MyRideRequest> loadPassenger(String passengerId) {
+        List<MyRideRequest> requests = new ArrayList<>();
+        repository.loadPassengerRequests(passengerId, requests::addAll);
+        return requests;
+    }
+
+    private static CachedRideRequest row(String id, String status, long updatedAt) {
+        CachedRideRequest row = new CachedRideRequest();
+        row.id = id;
+        row.status = status;
+        row.passengerId = "passenger";
+        row.passengerName = "Passenger " + id;
+        row.pickupLocation = "Campus";
+        row.dropLocation = "Station";
+        row.fare = 120.0;
+        row.vehicleType = "bike";
+        row.passengers = 1L;
+        row.departureTime = NOW + 3_600_000;
+        row.createdAt = NOW;
+        row.updatedAt = updatedAt;
+        return row;
+    }
+
+    private static CachedUser user(String fullName, long updatedAt) {
+        CachedUser user = new CachedUser();
+        user.uid = "u1";
+        user.fullName = fullName;
+        user.updatedAt = updatedAt;
+        return user;
+    }
+
+    @SafeVarargs
+    private static <T> List<T> list(T... items) {
+        List<T> result = new ArrayList<>();
+        Collections.addAll(result, items);
+        return result;
+    }
+}
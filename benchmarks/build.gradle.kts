@@ -0,0 +1,27 @@
+plugins {
+    java
+    id("me.champeau.jmh")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+
+    // Retained heap in RequestPoolBenchmark
+    jmh("org.openjdk.jol:jol-core:0.17")
+
+    // Baselines for RideCodecBenchmark
+    jmh("com.google.code.gson:gson:2.11.0")
+    jmh("org.json:json:20240303")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
@@ -0,0 +1,89 @@
+package com.example.ridesharing.benchmarks;
+
+import com.example.ridesharing.DispatchOptimizer;
+import com.example.ridesharing.DispatchPlan;
+import com.example.ridesharing.DriverState;
+import com.example.ridesharing.MatchingEngine;
+import com.example.ridesharing.RideRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Round latency of {@link DispatchOptimizer} for 1k pending requests and 1k drivers:
+ * a full round with an ample budget, and a greedy-only round with no refinement budget.
+ *
+ * Run with: ./gradlew :benchmarks:jmh
+ */
+@State(Scope.Benchmark)
+public class DispatchOptimizerBenchmark {
+
+    private static final int REQUEST_COUNT = 1_000;
+    private static final int DRIVER_COUNT = 1_000;
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double CENTER_LAT = 23.78;
+    private static final double CENTER_LNG = 90.41;
+
+    private ForkJoinPool pool;
+    private DispatchOptimizer optimizer;
+    private List<RideRequest> requests;
+    private List<DriverState> drivers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        optimizer = new DispatchOptimizer(MatchingEngine.getDefault(), pool);
+
+        Random random = new Random(42);
+        requests = new ArrayList<>(REQUEST_COUNT);
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            double pickupLat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.27;
+            double pickupLng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.29;
+            RideRequest request = new RideRequest("r" + i, "Passenger", "passenger", 5.0, "From", "To",
+                    "", "", 100 + random.nextInt(500), "p" + i, 1 + random.nextInt(4), "", "", "", "Car",
+                    pickupLat, pickupLng,
+                    pickupLat + (random.nextDouble() - 0.5) * 0.2,
+                    pickupLng + (random.nextDouble() - 0.5) * 0.2,
+                    null, null, null);
+            request.setDepartureAt(NOW + random.nextInt(60) * 60 * 1000L);
+            requests.add(request);
+        }
+
+        drivers = new ArrayList<>(DRIVER_COUNT);
+        for (int i = 0; i < DRIVER_COUNT; i++) {
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.27;
+            double lng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.29;
+            drivers.add(new DriverState("d" + i, lat, lng, random.nextDouble() * 360));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DispatchPlan fullRound() throws InterruptedException {
+        return optimizer.plan(drivers, requests, NOW, 10_000);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DispatchPlan greedyOnlyRound() throws InterruptedException {
+        return optimizer.plan(drivers, requests, NOW, 0);
+    }
+}
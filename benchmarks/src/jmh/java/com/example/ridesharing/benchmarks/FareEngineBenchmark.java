@@ -0,0 +1,84 @@
+package com.example.ridesharing.benchmarks;
+
+import com.example.ridesharing.FareEngine;
+import com.example.ridesharing.FareQuote;
+import com.example.ridesharing.FareQuoteInput;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Single-quote latency and bulk throughput of {@link FareEngine}.
+ *
+ * Run with: ./gradlew :benchmarks:jmh
+ */
+@State(Scope.Benchmark)
+public class FareEngineBenchmark {
+
+    private static final int BATCH_SIZE = 1_000_000;
+
+    private final FareEngine engine = FareEngine.getDefault();
+    private FareQuoteInput[] inputs;
+    private double[] fairOut;
+    private double[] minOut;
+    private double[] maxOut;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        inputs = new FareQuoteInput[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            double distance = 1 + random.nextDouble() * 30;
+            double routeDuration = distance * 2;
+            double trafficDuration = routeDuration * (1 + random.nextDouble() * 0.5);
+            inputs[i] = new FareQuoteInput(
+                    distance, routeDuration, trafficDuration,
+                    1 + random.nextInt(4),
+                    random.nextInt(24),
+                    Calendar.SUNDAY + random.nextInt(7),
+                    1.0 + random.nextInt(5) * 0.05);
+        }
+        fairOut = new double[BATCH_SIZE];
+        minOut = new double[BATCH_SIZE];
+        maxOut = new double[BATCH_SIZE];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public FareQuote singleQuote() {
+        FareQuoteInput input = inputs[next];
+        next = (next + 1) % BATCH_SIZE;
+        return engine.quote(input);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double singleFairFare() {
+        FareQuoteInput input = inputs[next];
+        next = (next + 1) % BATCH_SIZE;
+        return engine.fairFare(input);
+    }
+
+    // Reported as quotes per second
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void batchOfOneMillion(Blackhole blackhole) {
+        engine.quoteBatch(inputs, fairOut, minOut, maxOut);
+        blackhole.consume(fairOut);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ridesharing.benchmarks;
+
+import com.example.ridesharing.LocationSearchIndex;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One keystroke's From/To query against {@link LocationSearchIndex} over thousands of
+ * requests, cycling through short prefixes and multi-word queries.
+ *
+ * Run with: ./gradlew :benchmarks:jmh
+ */
+@State(Scope.Benchmark)
+public class LocationSearchIndexBenchmark {
+
+    private static final String[] AREAS = {
+            "EWU Main Campus, Aftabnagar", "Bashundhara R/A", "Gulshan 1", "Gulshan 2",
+            "Banani", "Dhanmondi 27", "Mirpur 10", "Uttara Sector 7", "Motijheel",
+            "Mohakhali DOHS", "Badda", "Rampura", "Farmgate", "Shahbag", "Airport"
+    };
+    private static final String[][] QUERIES = {
+            {"ewu", ""}, {"g", "ban"}, {"gulshan 2", "dhan"}, {"", "uttara sec"}, {"mo", "m"}
+    };
+
+    @Param({"5000"})
+    public int requestCount;
+
+    private final LocationSearchIndex index = new LocationSearchIndex();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < requestCount; i++) {
+            index.put("request-" + i,
+                    AREAS[random.nextInt(AREAS.length)] + " Road " + random.nextInt(200),
+                    AREAS[random.nextInt(AREAS.length)] + " Block " + (char) ('A' + random.nextInt(8)));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> search() {
+        String[] query = QUERIES[next];
+        next = (next + 1) % QUERIES.length;
+        return index.search(query[0], query[1]);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.ridesharing.benchmarks;
+
+import com.example.ridesharing.DriverState;
+import com.example.ridesharing.MatchingEngine;
+import com.example.ridesharing.RequestGrid;
+import com.example.ridesharing.RequestMatch;
+import com.example.ridesharing.RideRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Ranking 10k pending requests for 1k drivers with {@link MatchingEngine}, spread over a
+ * city-sized area: one driver at a time, all drivers in a loop and all drivers in parallel.
+ *
+ * Run with: ./gradlew :benchmarks:jmh
+ */
+@State(Scope.Benchmark)
+public class MatchingEngineBenchmark {
+
+    private static final int REQUEST_COUNT = 10_000;
+    private static final int DRIVER_COUNT = 1_000;
+    private static final int TOP_K = 10;
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double CENTER_LAT = 23.78;
+    private static final double CENTER_LNG = 90.41;
+
+    private final MatchingEngine engine = MatchingEngine.getDefault();
+    private List<RideRequest> requests;
+    private List<DriverState> drivers;
+    private RequestGrid grid;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        requests = new ArrayList<>(REQUEST_COUNT);
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            double pickupLat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.27;
+            double pickupLng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.29;
+            RideRequest request = new RideRequest("r" + i, "Passenger", "passenger", 5.0, "From", "To",
+                    "", "", 100 + random.nextInt(500), "p" + i, 1 + random.nextInt(4), "", "", "", "Car",
+                    pickupLat, pickupLng,
+                    pickupLat + (random.nextDouble() - 0.5) * 0.2,
+                    pickupLng + (random.nextDouble() - 0.5) * 0.2,
+                    null, null, null);
+            request.setDepartureAt(NOW + random.nextInt(60) * 60 * 1000L);
+            requests.add(request);
+        }
+
+        drivers = new ArrayList<>(DRIVER_COUNT);
+        for (int i = 0; i < DRIVER_COUNT; i++) {
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.27;
+            double lng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.29;
+            drivers.add(i % 2 == 0
+                    ? new DriverState("d" + i, lat, lng, random.nextDouble() * 360)
+                    : new DriverState("d" + i, lat, lng, Double.NaN,
+                            lat + (random.nextDouble() - 0.5) * 0.2, lng + (random.nextDouble() - 0.5) * 0.2));
+        }
+
+        grid = new RequestGrid(requests);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RequestMatch> singleDriverTopK() {
+        DriverState driver = drivers.get(next);
+        next = (next + 1) % DRIVER_COUNT;
+        return engine.topK(grid, driver, TOP_K, NOW);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RequestGrid buildGrid() {
+        return new RequestGrid(requests);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void allDriversSequential(Blackhole blackhole) {
+        for (DriverState driver : drivers) {
+            blackhole.consume(engine.topK(grid, driver, TOP_K, NOW));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<List<RequestMatch>> allDriversParallel() {
+        return engine.matchAll(grid, drivers, TOP_K, NOW);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ridesharing.benchmarks;
+
+import com.example.ridesharing.PoolingEngine;
+import com.example.ridesharing.PooledTrip;
+import com.example.ridesharing.RideRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time for {@link PoolingEngine} to propose shared trips over a growing city at constant
+ * request density; near-linear candidate generation keeps the time roughly proportional
+ * to the request count.
+ *
+ * Run with: ./gradlew :benchmarks:jmh
+ */
+@State(Scope.Benchmark)
+public class PoolingEngineBenchmark {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double CENTER_LAT = 23.78;
+    private static final double CENTER_LNG = 90.41;
+    // About 30 km across at 5,000 requests
+    private static final int BASE_COUNT = 5_000;
+
+    @Param({"5000", "10000", "20000"})
+    public int requestCount;
+
+    private final PoolingEngine engine = PoolingEngine.getDefault();
+    private List<RideRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        double scale = Math.sqrt((double) requestCount / BASE_COUNT);
+        requests = new ArrayList<>(requestCount);
+        for (int i = 0; i < requestCount; i++) {
+            double pickupLat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.27 * scale;
+            double pickupLng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.29 * scale;
+            RideRequest request = new RideRequest("r" + i, "Passenger", "passenger", 5.0, "From", "To",
+                    "", "", 100 + random.nextInt(500), "p" + i, 1 + random.nextInt(2), "", "", "",
+                    random.nextInt(5) == 0 ? "bike" : "car",
+                    pickupLat, pickupLng,
+                    pickupLat + (random.nextDouble() - 0.5) * 0.2,
+                    pickupLng + (random.nextDouble() - 0.5) * 0.2,
+                    null, null, null);
+            request.setDepartureAt(NOW + random.nextInt(60) * 60 * 1000L);
+            requests.add(request);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<PooledTrip> propose() {
+        return engine.propose(requests);
+    }
+}
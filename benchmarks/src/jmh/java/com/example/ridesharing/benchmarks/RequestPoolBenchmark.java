@@ -0,0 +1,138 @@
+package com.example.ridesharing.benchmarks;
+
+import com.example.ridesharing.RequestPool;
+import com.example.ridesharing.RideRequest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * The same filter-and-sort over 10k pending requests, as a list of {@link RideRequest}
+ * objects and as a columnar {@link RequestPool}, plus the cost of building each form.
+ *
+ * The scan benchmarks also report the retained heap of each form, walked with JOL, as
+ * the objectsBytes and poolBytes counters. The GC profiler's bytes per op on the build
+ * benchmarks is the allocation rate instead, which includes the arrays discarded as the
+ * pool grows.
+ *
+ * Run with: ./gradlew :benchmarks:jmh
+ */
+@State(Scope.Benchmark)
+public class RequestPoolBenchmark {
+
+    private static final int REQUEST_COUNT = 10_000;
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double CENTER_LAT = 23.78;
+    private static final double CENTER_LNG = 90.41;
+    private static final double RADIUS_KM = 5.0;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private List<RideRequest> requests;
+    private RequestPool pool;
+
+    /** Retained size of both forms, in bytes, reported next to the scan times. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedSize {
+        public long objectsBytes;
+        public long poolBytes;
+
+        @Setup(Level.Iteration)
+        public void measure(RequestPoolBenchmark benchmark) {
+            objectsBytes = GraphLayout.parseInstance(benchmark.requests).totalSize();
+            poolBytes = GraphLayout.parseInstance(benchmark.pool).totalSize();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        requests = new ArrayList<>(REQUEST_COUNT);
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            double pickupLat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.27;
+            double pickupLng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.29;
+            RideRequest request = new RideRequest("request-" + i, "Passenger " + i, "passenger",
+                    3 + random.nextInt(3), "Pickup " + i, "Drop " + i, "Oct 18, 08:30 AM", "25 min",
+                    100 + random.nextInt(500), "passenger-" + i, 1 + random.nextInt(4), "",
+                    "", "01700000000", random.nextBoolean() ? "car" : "bike",
+                    pickupLat, pickupLng, pickupLat + 0.05, pickupLng + 0.05,
+                    1 + random.nextDouble() * 20, 5 + random.nextDouble() * 60, "moderate");
+            request.setDepartureAt(NOW + (random.nextInt(120) - 30) * 60_000L);
+            request.setCreatedAt(NOW - random.nextInt(3_600_000));
+            requests.add(request);
+        }
+        pool = buildPool();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RideRequest> scanObjects(RetainedSize retained) {
+        double kmPerDegreeLng = KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(CENTER_LAT));
+        List<RideRequest> matches = new ArrayList<>();
+        for (RideRequest request : requests) {
+            if (request.getDepartureAt() <= NOW || request.getPassengers() > 2) continue;
+            if (!"car".equals(request.getVehicleType())) continue;
+            double northKm = (request.getPickupLat() - CENTER_LAT) * KM_PER_DEGREE_LAT;
+            double eastKm = (request.getPickupLng() - CENTER_LNG) * kmPerDegreeLng;
+            if (northKm * northKm + eastKm * eastKm > RADIUS_KM * RADIUS_KM) continue;
+            matches.add(request);
+        }
+        matches.sort(Comparator.comparingLong(RideRequest::getDepartureAt));
+        return matches;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] scanPool(RetainedSize retained) {
+        int[] slots = pool.selectNear(CENTER_LAT, CENTER_LNG, RADIUS_KM, "car", 2, NOW);
+        pool.sortByDeparture(slots);
+        return slots;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RideRequest> buildObjects() {
+        List<RideRequest> copies = new ArrayList<>(REQUEST_COUNT);
+        for (RideRequest request : requests) {
+            RideRequest copy = new RideRequest(new String(request.getId()), request.getPassengerName(),
+                    request.getUserType(), request.getRating(), request.getSource(), request.getDestination(),
+                    new String(request.getDepartureTime()), new String(request.getTimeRemaining()),
+                    request.getOfferedFare(), request.getPassengerId(), request.getPassengers(),
+                    request.getSpecialRequest(), request.getPassengerPhoto(), request.getPassengerPhone(),
+                    request.getVehicleType(), Double.valueOf(request.getPickupLat()),
+                    Double.valueOf(request.getPickupLng()), Double.valueOf(request.getDropLat()),
+                    Double.valueOf(request.getDropLng()), Double.valueOf(request.getDistance()),
+                    Double.valueOf(request.getDuration()), request.getTrafficLevel());
+            copy.setDepartureAt(request.getDepartureAt());
+            copy.setCreatedAt(request.getCreatedAt());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RequestPool buildPool() {
+        RequestPool built = new RequestPool();
+        for (RideRequest request : requests) {
+            built.upsert(request);
+        }
+        return built;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.ridesharing.benchmarks;
+
+import com.example.ridesharing.RideCodec;
+import com.example.ridesharing.RideRequest;
+import com.example.ridesharing.RideSnapshot;
+import com.example.ridesharing.WireWriter;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Encoding and decoding a feed of 1000 requests with {@link RideCodec}, with Gson data
+ * binding and with org.json, the JSON library bundled with Android.
+ *
+ * The decode benchmarks also report the encoded size of each format as the binaryBytes,
+ * gsonBytes and orgJsonBytes counters. Run with the GC profiler to compare garbage per
+ * op: ./gradlew :benchmarks:jmh -Pjmh.includes=RideCodec -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+public class RideCodecBenchmark {
+
+    private static final int REQUEST_COUNT = 1000;
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final Gson gson = new Gson();
+    private final WireWriter writer = new WireWriter(128 * REQUEST_COUNT);
+    private List<RideRequest> requests;
+    private ByteBuffer binary;
+    private String gsonJson;
+    private String orgJson;
+
+    /** Size of the feed in each format, in bytes, reported next to the decode times. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long binaryBytes;
+        public long gsonBytes;
+        public long orgJsonBytes;
+
+        @Setup(Level.Iteration)
+        public void measure(RideCodecBenchmark benchmark) {
+            binaryBytes = benchmark.binary.capacity();
+            gsonBytes = benchmark.gsonJson.getBytes(StandardCharsets.UTF_8).length;
+            orgJsonBytes = benchmark.orgJson.getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        requests = new ArrayList<>(REQUEST_COUNT);
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            double pickupLat = 23.78 + (random.nextDouble() - 0.5) * 0.27;
+            double pickupLng = 90.41 + (random.nextDouble() - 0.5) * 0.29;
+            RideRequest request = new RideRequest("request-" + i, "Passenger " + i, "Passenger",
+                    3 + random.nextInt(3), "Pickup " + i, "Drop " + i, null, null,
+                    100 + random.nextInt(500), "passenger-" + i, 1 + random.nextInt(4), "",
+                    "", "01700000000", random.nextBoolean() ? "car" : "bike",
+                    pickupLat, pickupLng, pickupLat + 0.05, pickupLng + 0.05,
+                    1 + random.nextDouble() * 20, 5 + random.nextDouble() * 60, "Moderate");
+            request.setDepartureAt(NOW + (random.nextInt(120) - 30) * 60_000L);
+            request.setCreatedAt(NOW - random.nextInt(3_600_000));
+            requests.add(request);
+        }
+
+        binary = ByteBuffer.wrap(encodeBinary().toByteArray());
+        gsonJson = encodeGson();
+        orgJson = encodeOrgJson();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public WireWriter encodeBinary() {
+        writer.reset();
+        RideSnapshot.writeTo(writer, RideCodec.RIDE_REQUEST, requests);
+        return writer;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RideRequest> decodeBinary(EncodedSize size) throws IOException {
+        RideSnapshot<RideRequest> snapshot = RideSnapshot.wrap(binary, RideCodec.RIDE_REQUEST);
+        List<RideRequest> decoded = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            decoded.add(snapshot.get(i));
+        }
+        return decoded;
+    }
+
+    /** Cold start with lazy decoding: index the snapshot, decode only the first screenful. */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RideRequest> decodeBinaryFirstPage() throws IOException {
+        RideSnapshot<RideRequest> snapshot = RideSnapshot.wrap(binary, RideCodec.RIDE_REQUEST);
+        return new ArrayList<>(snapshot.subList(0, 20));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String encodeGson() {
+        return gson.toJson(requests);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RideRequest[] decodeGson(EncodedSize size) {
+        return gson.fromJson(gsonJson, RideRequest[].class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String encodeOrgJson() {
+        JSONArray array = new JSONArray();
+        for (RideRequest request : requests) {
+            JSONObject json = new JSONObject();
+            json.put("id", request.getId());
+            json.put("passengerName", request.getPassengerName());
+            json.put("userType", request.getUserType());
+            json.put("rating", request.getRating());
+            json.put("source", request.getSource());
+            json.put("destination", request.getDestination());
+            json.put("offeredFare", request.getOfferedFare());
+            json.put("passengerId", request.getPassengerId());
+            json.put("passengers", request.getPassengers());
+            json.put("specialRequest", request.getSpecialRequest());
+            json.put("passengerPhoto", request.getPassengerPhoto());
+            json.put("passengerPhone", request.getPassengerPhone());
+            json.put("vehicleType", request.getVehicleType());
+            json.put("pickupLat", request.getPickupLat());
+            json.put("pickupLng", request.getPickupLng());
+            json.put("dropLat", request.getDropLat());
+            json.put("dropLng", request.getDropLng());
+            json.put("distance", request.getDistance());
+            json.put("duration", request.getDuration());
+            json.put("trafficLevel", request.getTrafficLevel());
+            json.put("departureAt", request.getDepartureAt());
+            json.put("createdAt", request.getCreatedAt());
+            array.put(json);
+        }
+        return array.toString();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RideRequest> decodeOrgJson(EncodedSize size) {
+        JSONArray array = new JSONArray(orgJson);
+        List<RideRequest> decoded = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject json = array.getJSONObject(i);
+            RideRequest request = new RideRequest(json.getString("id"), json.optString("passengerName", null),
+                    json.optString("userType", null), json.getDouble("rating"), json.optString("source", null),
+                    json.optString("destination", null), null, null, json.getDouble("offeredFare"),
+                    json.optString("passengerId", null), json.getInt("passengers"),
+                    json.optString("specialRequest", null), json.optString("passengerPhoto", null),
+                    json.optString("passengerPhone", null), json.optString("vehicleType", null),
+                    optDouble(json, "pickupLat"), optDouble(json, "pickupLng"),
+                    optDouble(json, "dropLat"), optDouble(json, "dropLng"),
+                    optDouble(json, "distance"), optDouble(json, "duration"),
+                    json.optString("trafficLevel", null));
+            request.setDepartureAt(json.getLong("departureAt"));
+            request.setCreatedAt(json.getLong("createdAt"));
+            decoded.add(request);
+        }
+        return decoded;
+    }
+
+    private static Double optDouble(JSONObject json, String key) {
+        return json.has(key) ? json.getDouble(key) : null;
+    }
+}
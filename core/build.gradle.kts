@@ -0,0 +1,18 @@
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Tests hold Bengali addresses; don't depend on the platform's default encoding
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    // Testing
+    testImplementation(libs.junit)
+}
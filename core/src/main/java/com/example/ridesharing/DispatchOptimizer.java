@@ -0,0 +1,364 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Assigns pending requests to available drivers in one global round, instead of every
+ * driver picking from the same feed and colliding on the popular requests.
+ *
+ * Each round scores the best few requests per driver with {@link MatchingEngine} on a
+ * fork-join pool, pairs them greedily by score, then solves the assignment exactly over
+ * that sparse candidate graph with Hungarian-style shortest augmenting paths (one Dijkstra
+ * search per driver, as in Jonker-Volgenant). The refinement stops when its time budget
+ * runs out; the drivers it did not reach are then paired greedily and the better of the
+ * two plans is returned, so a round always produces a plan on time.
+ *
+ * The objective rewards every assignment with a constant larger than any possible score
+ * difference, so the plan serves as many passengers as possible first and only then
+ * maximizes the total score.
+ */
+public final class DispatchOptimizer {
+
+    public static final int DEFAULT_CANDIDATES_PER_DRIVER = 16;
+
+    private final MatchingEngine engine;
+    private final ForkJoinPool pool;
+    private final int candidatesPerDriver;
+
+    public DispatchOptimizer(MatchingEngine engine, ForkJoinPool pool) {
+        this(engine, pool, DEFAULT_CANDIDATES_PER_DRIVER);
+    }
+
+    public DispatchOptimizer(MatchingEngine engine, ForkJoinPool pool, int candidatesPerDriver) {
+        this.engine = engine;
+        this.pool = pool;
+        this.candidatesPerDriver = candidatesPerDriver;
+    }
+
+    /**
+     * Runs one round. The time budget covers the whole round; candidate scoring always
+     * completes, and the refinement gives up when the budget is spent.
+     */
+    public DispatchPlan plan(List<DriverState> drivers, Collection<RideRequest> requests,
+                             long now, long budgetMillis) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + budgetMillis * 1_000_000;
+
+        RequestGrid grid = new RequestGrid(requests);
+        List<List<RequestMatch>> candidates;
+        try {
+            // Parallel streams started inside a pool task run on that pool
+            candidates = pool.submit(() -> engine.matchAll(grid, drivers, candidatesPerDriver, now)).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Candidate scoring failed", e.getCause());
+        }
+
+        Graph graph = new Graph(drivers.size(), candidates);
+        int[] greedy = graph.completeGreedily(graph.unassigned());
+
+        int[] refined = graph.unassigned();
+        boolean converged = graph.solve(refined, deadline);
+        if (!converged) {
+            graph.completeGreedily(refined);
+        }
+
+        int[] best = graph.objective(refined) >= graph.objective(greedy) ? refined : greedy;
+        return graph.toPlan(drivers, best, converged && best == refined, System.nanoTime() - startedAt);
+    }
+
+    /**
+     * Candidate pairs as a compressed sparse row graph: the edges of driver i are
+     * edgeStart[i] until edgeStart[i + 1], each with a request index and a benefit.
+     */
+    private static final class Graph {
+        private final int driverCount;
+        private final List<RideRequest> requests = new ArrayList<>();
+        private final int[] edgeStart;
+        private final int[] edgeRequest;
+        private final double[] edgeScore;
+        private final double[] edgeBenefit;
+        private final int[] edgeDriver;
+        private final int[] edgeOfColumn; // edge behind each driver's current column in solve()
+
+        Graph(int driverCount, List<List<RequestMatch>> candidates) {
+            this.driverCount = driverCount;
+            Map<String, Integer> requestIndex = new HashMap<>();
+
+            int edgeCount = 0;
+            for (List<RequestMatch> matches : candidates) {
+                edgeCount += matches.size();
+            }
+            edgeStart = new int[driverCount + 1];
+            edgeRequest = new int[edgeCount];
+            edgeScore = new double[edgeCount];
+            edgeBenefit = new double[edgeCount];
+            edgeDriver = new int[edgeCount];
+            edgeOfColumn = new int[driverCount];
+
+            int edge = 0;
+            double minScore = Double.POSITIVE_INFINITY;
+            double maxScore = Double.NEGATIVE_INFINITY;
+            for (int driver = 0; driver < driverCount; driver++) {
+                edgeStart[driver] = edge;
+                for (RequestMatch match : candidates.get(driver)) {
+                    RideRequest request = match.getRequest();
+                    Integer index = requestIndex.get(request.getId());
+                    if (index == null) {
+                        index = requests.size();
+                        requestIndex.put(request.getId(), index);
+                        requests.add(request);
+                    }
+                    edgeRequest[edge] = index;
+                    edgeScore[edge] = match.getScore();
+                    edgeDriver[edge] = driver;
+                    minScore = Math.min(minScore, match.getScore());
+                    maxScore = Math.max(maxScore, match.getScore());
+                    edge++;
+                }
+            }
+            edgeStart[driverCount] = edge;
+
+            // One more assignment outweighs any change in the scores of all the others
+            double perAssignment = (maxScore - minScore + 1) * (driverCount + 1);
+            for (int i = 0; i < edgeCount; i++) {
+                edgeBenefit[i] = edgeScore[i] - minScore + perAssignment;
+            }
+        }
+
+        /** Assignment with every driver idle: the chosen edge per driver, or -1. */
+        int[] unassigned() {
+            int[] assigned = new int[driverCount];
+            Arrays.fill(assigned, -1);
+            return assigned;
+        }
+
+        /** Adds the highest-scoring free pairs to the assignment, in place. */
+        int[] completeGreedily(int[] assigned) {
+            boolean[] taken = new boolean[requests.size()];
+            for (int edge : assigned) {
+                if (edge >= 0) taken[edgeRequest[edge]] = true;
+            }
+
+            Integer[] byScore = new Integer[edgeRequest.length];
+            for (int i = 0; i < byScore.length; i++) {
+                byScore[i] = i;
+            }
+            Arrays.sort(byScore, (e1, e2) -> Double.compare(edgeScore[e2], edgeScore[e1]));
+
+            for (int edge : byScore) {
+                int driver = edgeDriver[edge];
+                int request = edgeRequest[edge];
+                if (assigned[driver] < 0 && !taken[request]) {
+                    assigned[driver] = edge;
+                    taken[request] = true;
+                }
+            }
+            return assigned;
+        }
+
+        /**
+         * Maximum-benefit assignment by successive shortest augmenting paths, writing the
+         * chosen edge per driver into assigned. Costs are negated benefits; every driver
+         * also has a private idle column of cost zero, so each search ends at a free request
+         * or an idle column and the matching stays optimal for the drivers added so far.
+         * Returns false if the deadline passed first; assigned then holds a conflict-free
+         * optimal assignment of the drivers reached.
+         */
+        boolean solve(int[] assigned, long deadline) {
+            int requestCount = requests.size();
+            int columnCount = requestCount + driverCount; // idle column of driver i is requestCount + i
+            int[] owner = new int[columnCount];
+            Arrays.fill(owner, -1);
+            int[] column = new int[driverCount];
+            Arrays.fill(column, -1);
+            double[] price = new double[columnCount];
+
+            double[] dist = new double[columnCount];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            int[] predDriver = new int[columnCount];
+            int[] predEdge = new int[columnCount];
+            boolean[] scanned = new boolean[columnCount];
+            int[] touched = new int[columnCount];
+            ColumnHeap heap = new ColumnHeap(columnCount);
+
+            for (int start = 0; start < driverCount; start++) {
+                if (System.nanoTime() > deadline) {
+                    copyReal(column, assigned, requestCount);
+                    return false;
+                }
+
+                heap.clear();
+                // The starting driver has no assignment yet, so its reduced costs start at zero
+                int touchedCount = relax(start, 0, 0, price, dist, predDriver, predEdge, scanned,
+                        touched, 0, heap, requestCount);
+
+                int free = -1;
+                double freeDist = 0;
+                while (!heap.isEmpty()) {
+                    double d = heap.peekKey();
+                    int col = heap.poll();
+                    if (scanned[col] || d > dist[col]) continue;
+                    scanned[col] = true;
+                    if (owner[col] < 0) {
+                        free = col;
+                        freeDist = d;
+                        break;
+                    }
+                    int next = owner[col];
+                    double nextReduced = costOf(next, column[next], requestCount) - price[col];
+                    touchedCount = relax(next, d, nextReduced, price, dist, predDriver, predEdge, scanned,
+                            touched, touchedCount, heap, requestCount);
+                }
+
+                // Keep reduced costs non-negative for the next searches
+                for (int t = 0; t < touchedCount; t++) {
+                    int col = touched[t];
+                    if (scanned[col] && col != free) {
+                        price[col] += dist[col] - freeDist;
+                    }
+                }
+
+                // Flip the path: every driver on it moves to the column it was reached from
+                int col = free;
+                while (true) {
+                    int driver = predDriver[col];
+                    int previous = column[driver];
+                    owner[col] = driver;
+                    column[driver] = col;
+                    edgeOfColumn[driver] = predEdge[col];
+                    if (driver == start) break;
+                    col = previous;
+                }
+
+                for (int t = 0; t < touchedCount; t++) {
+                    int touchedColumn = touched[t];
+                    dist[touchedColumn] = Double.POSITIVE_INFINITY;
+                    scanned[touchedColumn] = false;
+                }
+            }
+
+            copyReal(column, assigned, requestCount);
+            return true;
+        }
+
+        // Cost of driver holding column: its negated benefit, or zero for its idle column
+        private double costOf(int driver, int col, int requestCount) {
+            return col >= requestCount ? 0 : -edgeBenefit[edgeOfColumn[driver]];
+        }
+
+        private int relax(int driver, double base, double driverReduced, double[] price, double[] dist,
+                          int[] predDriver, int[] predEdge, boolean[] scanned, int[] touched,
+                          int touchedCount, ColumnHeap heap, int requestCount) {
+            for (int edge = edgeStart[driver]; edge <= edgeStart[driver + 1]; edge++) {
+                boolean idle = edge == edgeStart[driver + 1];
+                int col = idle ? requestCount + driver : edgeRequest[edge];
+                if (scanned[col]) continue;
+                double cost = idle ? 0 : -edgeBenefit[edge];
+                double d = base + cost - price[col] - driverReduced;
+                if (d < dist[col]) {
+                    if (dist[col] == Double.POSITIVE_INFINITY) touched[touchedCount++] = col;
+                    dist[col] = d;
+                    predDriver[col] = driver;
+                    predEdge[col] = idle ? -1 : edge;
+                    heap.add(d, col);
+                }
+            }
+            return touchedCount;
+        }
+
+        private void copyReal(int[] column, int[] assigned, int requestCount) {
+            for (int driver = 0; driver < driverCount; driver++) {
+                assigned[driver] = column[driver] >= 0 && column[driver] < requestCount
+                        ? edgeOfColumn[driver] : -1;
+            }
+        }
+
+        double objective(int[] assigned) {
+            double total = 0;
+            for (int edge : assigned) {
+                if (edge >= 0) total += edgeBenefit[edge];
+            }
+            return total;
+        }
+
+        DispatchPlan toPlan(List<DriverState> drivers, int[] assigned, boolean refined, long elapsedNanos) {
+            List<DispatchPlan.Assignment> assignments = new ArrayList<>();
+            double total = 0;
+            for (int driver = 0; driver < driverCount; driver++) {
+                int edge = assigned[driver];
+                if (edge < 0) continue;
+                assignments.add(new DispatchPlan.Assignment(drivers.get(driver).getDriverId(),
+                        requests.get(edgeRequest[edge]), edgeScore[edge]));
+                total += edgeScore[edge];
+            }
+            return new DispatchPlan(assignments, total, refined, elapsedNanos);
+        }
+    }
+
+    /** Binary min-heap of (distance, column) entries; stale entries are skipped by the caller. */
+    private static final class ColumnHeap {
+        private double[] keys;
+        private int[] columns;
+        private int size;
+
+        ColumnHeap(int capacity) {
+            keys = new double[Math.max(16, capacity)];
+            columns = new int[keys.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void add(double key, int column) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                columns = Arrays.copyOf(columns, size * 2);
+            }
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (keys[parent] <= key) break;
+                keys[index] = keys[parent];
+                columns[index] = columns[parent];
+                index = parent;
+            }
+            keys[index] = key;
+            columns[index] = column;
+        }
+
+        int poll() {
+            int top = columns[0];
+            double lastKey = keys[--size];
+            int lastColumn = columns[size];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (keys[child] >= lastKey) break;
+                keys[index] = keys[child];
+                columns[index] = columns[child];
+                index = child;
+            }
+            keys[index] = lastKey;
+            columns[index] = lastColumn;
+            return top;
+        }
+    }
+}
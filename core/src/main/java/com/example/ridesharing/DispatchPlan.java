@@ -0,0 +1,48 @@
+package com.example.ridesharing;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of one {@link DispatchOptimizer} round: at most one request per driver and one
+ * driver per request, so the assignments can be written without drivers colliding.
+ */
+public final class DispatchPlan {
+
+    /** One driver paired with one request. */
+    public static final class Assignment {
+        private final String driverId;
+        private final RideRequest request;
+        private final double score;
+
+        public Assignment(String driverId, RideRequest request, double score) {
+            this.driverId = driverId;
+            this.request = request;
+            this.score = score;
+        }
+
+        // Getters
+        public String getDriverId() { return driverId; }
+        public RideRequest getRequest() { return request; }
+        public double getScore() { return score; }
+    }
+
+    private final List<Assignment> assignments;
+    private final double totalScore;
+    private final boolean refined;
+    private final long elapsedNanos;
+
+    public DispatchPlan(List<Assignment> assignments, double totalScore, boolean refined, long elapsedNanos) {
+        this.assignments = Collections.unmodifiableList(assignments);
+        this.totalScore = totalScore;
+        this.refined = refined;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Getters
+    public List<Assignment> getAssignments() { return assignments; }
+    public double getTotalScore() { return totalScore; }
+    /** False if the time budget ran out and the plan fell back to the greedy heuristic. */
+    public boolean isRefined() { return refined; }
+    public long getElapsedNanos() { return elapsedNanos; }
+}
@@ -0,0 +1,57 @@
+package com.example.ridesharing;
+
+/**
+ * Immutable driver position for {@link MatchingEngine}. Heading and destination are
+ * optional: a NaN heading means the driver is standing still or the bearing is unknown,
+ * and a driver without a destination is willing to go anywhere.
+ */
+public final class DriverState {
+    private final String driverId;
+    private final double lat;
+    private final double lng;
+    private final double headingDegrees; // 0 = north, clockwise; NaN if unknown
+    private final Double destinationLat;
+    private final Double destinationLng;
+
+    // Precomputed for MatchingEngine, which scores thousands of requests per driver
+    private final double kmPerDegreeLng;
+    private final double headingSin;
+    private final double headingCos;
+
+    public DriverState(String driverId, double lat, double lng, double headingDegrees) {
+        this(driverId, lat, lng, headingDegrees, null, null);
+    }
+
+    public DriverState(String driverId, double lat, double lng, double headingDegrees,
+                       Double destinationLat, Double destinationLng) {
+        this.driverId = driverId;
+        this.lat = lat;
+        this.lng = lng;
+        this.headingDegrees = headingDegrees;
+        this.destinationLat = destinationLat;
+        this.destinationLng = destinationLng;
+        this.kmPerDegreeLng = MatchingEngine.KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat));
+        this.headingSin = Math.sin(Math.toRadians(headingDegrees));
+        this.headingCos = Math.cos(Math.toRadians(headingDegrees));
+    }
+
+    public boolean hasHeading() {
+        return !Double.isNaN(headingDegrees);
+    }
+
+    public boolean hasDestination() {
+        return destinationLat != null && destinationLng != null;
+    }
+
+    // Getters
+    public String getDriverId() { return driverId; }
+    public double getLat() { return lat; }
+    public double getLng() { return lng; }
+    public double getHeadingDegrees() { return headingDegrees; }
+    public Double getDestinationLat() { return destinationLat; }
+    public Double getDestinationLng() { return destinationLng; }
+
+    double getKmPerDegreeLng() { return kmPerDegreeLng; }
+    double getHeadingSin() { return headingSin; }
+    double getHeadingCos() { return headingCos; }
+}
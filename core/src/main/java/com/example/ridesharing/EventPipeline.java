@@ -0,0 +1,150 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Delivers each of a user's {@link RideEvent}s once, whichever source reports it.
+ *
+ * Sources deliver at least once: the live listener replays recent events when it
+ * reattaches, and the periodic catch-up reads overlap with it. Every event is checked
+ * against the ids already delivered and then handed to the foreground sink if a
+ * screen has registered one, or to the background sink otherwise. Events older
+ * than the maximum age are dropped, so a fresh install does not replay old news.
+ *
+ * Thread-safe. The seen ids are bounded and can be saved and restored as text.
+ */
+public final class EventPipeline {
+
+    public static final int DEFAULT_SEEN_CAPACITY = 200;
+    public static final long DEFAULT_MAX_AGE_MS = 24 * 60 * 60 * 1000L;
+
+    /** Reports events for one user; a source may report the same event more than once. */
+    public interface Source {
+        void start(EventPipeline pipeline);
+        void stop();
+    }
+
+    public interface Sink {
+        void deliver(RideEvent event);
+    }
+
+    private final Sink background;
+    private final int seenCapacity;
+    private final long maxAgeMs;
+    private final LinkedHashSet<String> seen = new LinkedHashSet<>(); // oldest first
+    private long newestCreatedAt;
+    private Sink foreground;
+    private Source source;
+
+    public EventPipeline(Sink background) {
+        this(background, DEFAULT_SEEN_CAPACITY, DEFAULT_MAX_AGE_MS);
+    }
+
+    public EventPipeline(Sink background, int seenCapacity, long maxAgeMs) {
+        if (seenCapacity <= 0) {
+            throw new IllegalArgumentException("Seen capacity must be positive: " + seenCapacity);
+        }
+        this.background = background;
+        this.seenCapacity = seenCapacity;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    /** Replaces the source, stopping the previous one. */
+    public void start(Source newSource) {
+        Source previous;
+        synchronized (this) {
+            previous = source;
+            source = newSource;
+        }
+        if (previous != null) previous.stop();
+        newSource.start(this);
+    }
+
+    public void stop() {
+        Source previous;
+        synchronized (this) {
+            previous = source;
+            source = null;
+        }
+        if (previous != null) previous.stop();
+    }
+
+    /** Routes events to a visible screen instead of the background sink; null clears it. */
+    public synchronized void setForeground(Sink sink) {
+        foreground = sink;
+    }
+
+    /** Clears the foreground sink if it is still the given one. */
+    public synchronized void clearForeground(Sink sink) {
+        if (foreground == sink) foreground = null;
+    }
+
+    /**
+     * Accepts a batch from a source.
+     * @return the events delivered, in order; repeats and stale events are left out
+     */
+    public List<RideEvent> accept(List<RideEvent> events, long now) {
+        List<RideEvent> fresh = new ArrayList<>();
+        Sink sink;
+        synchronized (this) {
+            for (RideEvent event : events) {
+                if (event.getId() == null || seen.contains(event.getId())) continue;
+                markSeen(event.getId());
+                newestCreatedAt = Math.max(newestCreatedAt, event.getCreatedAt());
+                if (now - event.getCreatedAt() > maxAgeMs) continue;
+                fresh.add(event);
+            }
+            sink = foreground != null ? foreground : background;
+        }
+        // Outside the lock, sinks may call back into the pipeline
+        for (RideEvent event : fresh) {
+            sink.deliver(event);
+        }
+        return Collections.unmodifiableList(fresh);
+    }
+
+    /** Creation time of the newest event seen; sources read from a little before it. */
+    public synchronized long getNewestCreatedAt() {
+        return newestCreatedAt;
+    }
+
+    public synchronized boolean hasSeen(String eventId) {
+        return seen.contains(eventId);
+    }
+
+    /** Seen ids and the newest creation time, one per line, for {@link #restore}. */
+    public synchronized String save() {
+        StringBuilder out = new StringBuilder().append(newestCreatedAt);
+        for (String id : seen) {
+            out.append('\n').append(id);
+        }
+        return out.toString();
+    }
+
+    /** Restores what {@link #save} wrote; malformed text is ignored. */
+    public synchronized void restore(String saved) {
+        if (saved == null || saved.isEmpty()) return;
+        String[] lines = saved.split("\n");
+        try {
+            newestCreatedAt = Math.max(newestCreatedAt, Long.parseLong(lines[0]));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            if (!lines[i].isEmpty()) markSeen(lines[i]);
+        }
+    }
+
+    private void markSeen(String eventId) {
+        seen.add(eventId);
+        if (seen.size() > seenCapacity) {
+            Iterator<String> oldest = seen.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+}
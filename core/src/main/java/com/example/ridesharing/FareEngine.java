@@ -0,0 +1,148 @@
+package com.example.ridesharing;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * Fair fare calculation used when passengers post a ride request.
+ *
+ * The engine is stateless and thread-safe: every input comes in through an immutable
+ * {@link FareQuoteInput}, so quotes can be computed off the UI thread and in bulk.
+ * {@link #fairFare} and {@link #quoteBatch} do not allocate.
+ */
+public final class FareEngine {
+
+    public static final double DEFAULT_BASE_FARE = 60.0;
+    public static final double DEFAULT_FARE_PER_KM = 15.0;
+
+    private static final FareEngine DEFAULT = new FareEngine(DEFAULT_BASE_FARE, DEFAULT_FARE_PER_KM);
+
+    private final double baseFare;
+    private final double farePerKm;
+
+    public FareEngine(double baseFare, double farePerKm) {
+        this.baseFare = baseFare;
+        this.farePerKm = farePerKm;
+    }
+
+    public static FareEngine getDefault() {
+        return DEFAULT;
+    }
+
+    public FareQuote quote(FareQuoteInput input) {
+        double fare = rawFare(input);
+        return new FareQuote(roundToTen(fare), minFare(fare), maxFare(fare));
+    }
+
+    /** Rounded fair fare only, without allocating a {@link FareQuote}. */
+    public double fairFare(FareQuoteInput input) {
+        return roundToTen(rawFare(input));
+    }
+
+    /**
+     * Quotes every input and writes the results into the given arrays, which must be
+     * at least as long as inputs. Allocation-free, for bulk and simulation use.
+     */
+    public void quoteBatch(FareQuoteInput[] inputs, double[] fairOut, double[] minOut, double[] maxOut) {
+        for (int i = 0; i < inputs.length; i++) {
+            double fare = rawFare(inputs[i]);
+            fairOut[i] = roundToTen(fare);
+            minOut[i] = minFare(fare);
+            maxOut[i] = maxFare(fare);
+        }
+    }
+
+    private double rawFare(FareQuoteInput input) {
+        double distance = input.getDistanceKm();
+        int hour = input.getHourOfDay();
+
+        double fare = baseFare + (distance * farePerKm);
+        fare *= timeMultiplier(hour, input.getDayOfWeek());
+        fare *= trafficMultiplier(hour);
+        fare *= input.getWeatherMultiplier();
+        fare *= passengerMultiplier(input.getPassengers());
+        fare *= distanceMultiplier(distance);
+
+        double trafficFactor = Math.max(1.0,
+                input.getTrafficDurationMin() / Math.max(input.getRouteDurationMin(), 1.0));
+        return fare * trafficFactor;
+    }
+
+    private double minFare(double fare) {
+        double range = Math.max(50, fare * 0.2);
+        return roundToTen(Math.max(fare - range, baseFare));
+    }
+
+    private double maxFare(double fare) {
+        double range = Math.max(50, fare * 0.2);
+        return roundToTen(fare + range);
+    }
+
+    private static double roundToTen(double value) {
+        return Math.round(value / 10) * 10;
+    }
+
+    public static double timeMultiplier(int hour, int dayOfWeek) {
+        if (dayOfWeek == Calendar.FRIDAY || dayOfWeek == Calendar.SATURDAY) return 1.2;
+        if ((hour >= 7 && hour <= 10) || (hour >= 16 && hour <= 20)) return 1.3;
+        if (hour >= 22 || hour <= 5) return 1.4;
+        return 1.0;
+    }
+
+    public static double trafficMultiplier(int hour) {
+        if ((hour >= 8 && hour <= 9) || (hour >= 17 && hour <= 18)) return 1.25;
+        if ((hour >= 7 && hour <= 10) || (hour >= 16 && hour <= 19)) return 1.15;
+        return 1.0;
+    }
+
+    public static double passengerMultiplier(int passengers) {
+        return 1.0 + (passengers - 1) * 0.15;
+    }
+
+    public static double distanceMultiplier(double distance) {
+        if (distance > 20) return 0.9;
+        if (distance > 10) return 0.95;
+        return 1.0;
+    }
+
+    public static double weatherMultiplier(String weatherCondition, double temperature) {
+        switch (weatherCondition.toLowerCase(Locale.ROOT)) {
+            case "thunderstorm":
+                return 1.25; // 25% increase for thunderstorms
+            case "rain":
+            case "drizzle":
+                return 1.2; // 20% increase for rain
+            case "snow":
+                return 1.3; // 30% increase for snow
+            case "mist":
+            case "fog":
+            case "haze":
+                return 1.15; // 15% increase for poor visibility
+            case "clouds":
+                return 1.05; // 5% increase for cloudy
+            case "extreme": // Extreme conditions
+                return 1.4; // 40% increase
+            case "clear":
+            default:
+                // Check temperature extremes
+                if (temperature > 35) { // Very hot
+                    return 1.1;
+                } else if (temperature < 10) { // Very cold
+                    return 1.1;
+                }
+                return 1.0; // Normal weather
+        }
+    }
+
+    public static String trafficLevel(int hour) {
+        if ((hour >= 8 && hour <= 9) || (hour >= 17 && hour <= 18)) return "Heavy";
+        if ((hour >= 7 && hour <= 10) || (hour >= 16 && hour <= 19)) return "Moderate";
+        return "Light";
+    }
+
+    public static String timeOfDayDescription(int hour) {
+        if (hour >= 22 || hour <= 5) return "late night";
+        if ((hour >= 7 && hour <= 10) || (hour >= 16 && hour <= 20)) return "peak hours";
+        return "normal hours";
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ridesharing;
+
+/**
+ * Immutable result of {@link FareEngine#quote}: the fair fare and the accepted range
+ * around it, all rounded to the nearest 10 taka.
+ */
+public final class FareQuote {
+    private final double fairFare;
+    private final double minFare;
+    private final double maxFare;
+
+    public FareQuote(double fairFare, double minFare, double maxFare) {
+        this.fairFare = fairFare;
+        this.minFare = minFare;
+        this.maxFare = maxFare;
+    }
+
+    // Getters
+    public double getFairFare() { return fairFare; }
+    public double getMinFare() { return minFare; }
+    public double getMaxFare() { return maxFare; }
+
+    public boolean isFair(double offeredFare) {
+        return offeredFare >= minFare && offeredFare <= maxFare;
+    }
+}
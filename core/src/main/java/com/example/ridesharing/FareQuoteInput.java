@@ -0,0 +1,35 @@
+package com.example.ridesharing;
+
+/**
+ * Immutable input for {@link FareEngine}. Time of day is passed as plain values
+ * instead of a shared Calendar so quotes can be computed on any thread.
+ */
+public final class FareQuoteInput {
+    private final double distanceKm;
+    private final double routeDurationMin;
+    private final double trafficDurationMin;
+    private final int passengers;
+    private final int hourOfDay;   // 0-23
+    private final int dayOfWeek;   // java.util.Calendar.SUNDAY .. SATURDAY
+    private final double weatherMultiplier;
+
+    public FareQuoteInput(double distanceKm, double routeDurationMin, double trafficDurationMin,
+                          int passengers, int hourOfDay, int dayOfWeek, double weatherMultiplier) {
+        this.distanceKm = distanceKm;
+        this.routeDurationMin = routeDurationMin;
+        this.trafficDurationMin = trafficDurationMin;
+        this.passengers = passengers;
+        this.hourOfDay = hourOfDay;
+        this.dayOfWeek = dayOfWeek;
+        this.weatherMultiplier = weatherMultiplier;
+    }
+
+    // Getters
+    public double getDistanceKm() { return distanceKm; }
+    public double getRouteDurationMin() { return routeDurationMin; }
+    public double getTrafficDurationMin() { return trafficDurationMin; }
+    public int getPassengers() { return passengers; }
+    public int getHourOfDay() { return hourOfDay; }
+    public int getDayOfWeek() { return dayOfWeek; }
+    public double getWeatherMultiplier() { return weatherMultiplier; }
+}
@@ -0,0 +1,92 @@
+package com.example.ridesharing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * {@link RouteCache.Store} keeping one small binary file per route in a directory,
+ * typically under the app's cache dir so the system may reclaim it.
+ *
+ * Writes go to a temp file that is renamed into place, so a crash never leaves a torn
+ * entry. When the directory grows past maxEntries, the least recently written quarter
+ * is pruned.
+ */
+public class FileRouteStore implements RouteCache.Store {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".route";
+
+    private final File directory;
+    private final int maxEntries;
+
+    public FileRouteStore(File directory, int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public RouteInfo read(String key) throws IOException {
+        File file = fileFor(key);
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) return null;
+            return new RouteInfo(in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readUTF(), in.readLong());
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void write(String key, RouteInfo route) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+
+        File temp = new File(directory, key + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeDouble(route.getDistanceKm());
+            out.writeDouble(route.getDurationMin());
+            out.writeDouble(route.getTrafficDurationMin());
+            out.writeUTF(route.getEncodedPolyline());
+            out.writeLong(route.getExpiresAt());
+        }
+        if (!temp.renameTo(fileFor(key))) {
+            temp.delete();
+            throw new IOException("Cannot store route " + key);
+        }
+
+        pruneIfNeeded();
+    }
+
+    @Override
+    public void delete(String key) {
+        fileFor(key).delete();
+    }
+
+    private void pruneIfNeeded() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null || files.length <= maxEntries) return;
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        int toDelete = Math.max(1, files.length / 4);
+        for (int i = 0; i < toDelete; i++) {
+            files[i].delete();
+        }
+    }
+
+    private File fileFor(String key) {
+        return new File(directory, key + SUFFIX);
+    }
+}
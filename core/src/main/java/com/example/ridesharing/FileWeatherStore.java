@@ -0,0 +1,73 @@
+package com.example.ridesharing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link WeatherProvider.Store} keeping every cached cell in one small binary file,
+ * replaced atomically on each save.
+ */
+public class FileWeatherStore implements WeatherProvider.Store {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final File file;
+
+    public FileWeatherStore(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public Map<String, WeatherInfo> load() throws IOException {
+        Map<String, WeatherInfo> entries = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) return entries;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String cell = in.readUTF();
+                entries.put(cell, new WeatherInfo(in.readUTF(), in.readUTF(),
+                        in.readDouble(), in.readLong()));
+            }
+        } catch (FileNotFoundException e) {
+            // Nothing saved yet
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized void save(Map<String, WeatherInfo> entries) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, WeatherInfo> entry : entries.entrySet()) {
+                WeatherInfo weather = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeUTF(weather.getCondition());
+                out.writeUTF(weather.getDescription());
+                out.writeDouble(weather.getTemperatureC());
+                out.writeLong(weather.getFetchedAt());
+            }
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot save " + file);
+        }
+    }
+}
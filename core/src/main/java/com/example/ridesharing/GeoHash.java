@@ -0,0 +1,131 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Geohash helpers for the nearby ride request feed.
+ *
+ * Requests store a full precision "geohash" field when they are posted. Drivers then
+ * query only the handful of cells around their position (see {@link #coveringPrefixes})
+ * and refine the results with the exact {@link #distanceKm} check.
+ */
+public final class GeoHash {
+
+    // Precision stored on every ride_requests document (~4.8m x 4.8m cells)
+    public static final int STORED_PRECISION = 9;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private GeoHash() {}
+
+    public static String encode(double lat, double lng) {
+        return encode(lat, lng, STORED_PRECISION);
+    }
+
+    public static String encode(double lat, double lng, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true; // Geohash interleaves bits starting with longitude
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Returns the geohash prefixes whose cells together cover a circle of radiusKm
+     * around the given point: the center cell and its eight neighbours, at the finest
+     * precision where a single cell is still at least radiusKm wide and tall.
+     */
+    public static List<String> coveringPrefixes(double lat, double lng, double radiusKm) {
+        int precision = precisionForRadius(lat, radiusKm);
+        double latStep = cellHeightDegrees(precision);
+        double lngStep = cellWidthDegrees(precision);
+
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLng = -1; dLng <= 1; dLng++) {
+                double cellLat = clampLat(lat + dLat * latStep);
+                double cellLng = wrapLng(lng + dLng * lngStep);
+                prefixes.add(encode(cellLat, cellLng, precision));
+            }
+        }
+        return new ArrayList<>(prefixes);
+    }
+
+    /** Great-circle (haversine) distance between two points in kilometers. */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    static int precisionForRadius(double lat, double radiusKm) {
+        double cosLat = Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        for (int precision = STORED_PRECISION; precision > 1; precision--) {
+            double heightKm = cellHeightDegrees(precision) * KM_PER_DEGREE_LAT;
+            double widthKm = cellWidthDegrees(precision) * KM_PER_DEGREE_LAT * cosLat;
+            if (heightKm >= radiusKm && widthKm >= radiusKm) {
+                return precision;
+            }
+        }
+        return 1;
+    }
+
+    private static double cellHeightDegrees(int precision) {
+        int latBits = (precision * 5) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    private static double cellWidthDegrees(int precision) {
+        int lngBits = (precision * 5 + 1) / 2;
+        return 360.0 / (1L << lngBits);
+    }
+
+    private static double clampLat(double lat) {
+        return Math.max(-90.0, Math.min(90.0, lat));
+    }
+
+    private static double wrapLng(double lng) {
+        if (lng >= 180.0) return lng - 360.0;
+        if (lng < -180.0) return lng + 360.0;
+        return lng;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.ridesharing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared HTTP GET client for the JSON APIs the app calls (Directions, OpenWeather).
+ *
+ * <ul>
+ *   <li>Requests run on a small bounded pool instead of a new thread each.</li>
+ *   <li>Every connection has connect and read timeouts.</li>
+ *   <li>Bodies are read to the end and the stream closed, so HttpURLConnection can keep
+ *       the socket alive and reuse it for the next request to the same host.</li>
+ *   <li>A GET for a URL that is already in flight joins that request instead of
+ *       opening another connection.</li>
+ *   <li>{@link Call#cancel} drops the caller's callback; the request itself is aborted
+ *       once no caller is waiting for it.</li>
+ * </ul>
+ *
+ * Callbacks run on a pool thread; callers hop to the UI thread themselves.
+ */
+public class HttpClient {
+
+    public static final int DEFAULT_MAX_CONCURRENT = 4;
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 10_000;
+    public static final int DEFAULT_READ_TIMEOUT_MS = 15_000;
+
+    private static final int MAX_QUEUED = 64;
+
+    private static final HttpClient DEFAULT = new HttpClient(
+            DEFAULT_MAX_CONCURRENT, DEFAULT_CONNECT_TIMEOUT_MS, DEFAULT_READ_TIMEOUT_MS);
+
+    public interface Callback {
+        void onSuccess(String body);
+        void onFailure(IOException e);
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+
+    public HttpClient(int maxConcurrent, int connectTimeoutMs, int readTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(MAX_QUEUED), runnable -> {
+                    Thread thread = new Thread(runnable, "http-client");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static HttpClient getDefault() {
+        return DEFAULT;
+    }
+
+    /** Starts (or joins) a GET for the given URL. */
+    public Call get(String url, Callback callback) {
+        Call call = new Call(url, callback);
+        InFlight request;
+        synchronized (inFlight) {
+            request = inFlight.get(url);
+            if (request != null) {
+                request.calls.add(call);
+                return call;
+            }
+            request = new InFlight(url);
+            request.calls.add(call);
+            inFlight.put(url, request);
+        }
+
+        try {
+            request.future = executor.submit(request);
+        } catch (RejectedExecutionException e) {
+            finish(request, null, new IOException("Too many requests in flight", e));
+        }
+        return call;
+    }
+
+    /** Number of distinct requests currently running or queued. */
+    public int inFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+
+    private String execute(InFlight request) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(request.url).openConnection();
+        request.connection = conn;
+        try {
+            if (request.canceled) throw new InterruptedIOException("Canceled");
+
+            conn.setRequestMethod("GET");
+            conn.setConnectTimeout(connectTimeoutMs);
+            conn.setReadTimeout(readTimeoutMs);
+            conn.setRequestProperty("Accept", "application/json");
+
+            int code = conn.getResponseCode();
+            if (code < 200 || code >= 300) {
+                // Drain the error body too, otherwise the socket cannot be reused
+                InputStream error = conn.getErrorStream();
+                if (error != null) readFully(error);
+                throw new IOException("HTTP " + code + " for " + request.url);
+            }
+            return readFully(conn.getInputStream());
+        } catch (IOException e) {
+            if (request.canceled) throw new InterruptedIOException("Canceled");
+            throw e;
+        }
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void finish(InFlight request, String body, IOException error) {
+        List<Call> calls;
+        synchronized (inFlight) {
+            if (inFlight.get(request.url) == request) {
+                inFlight.remove(request.url);
+            }
+            calls = new ArrayList<>(request.calls);
+            request.calls.clear();
+        }
+
+        for (Call call : calls) {
+            if (call.canceled) continue;
+            if (error == null) {
+                call.callback.onSuccess(body);
+            } else {
+                call.callback.onFailure(error);
+            }
+        }
+    }
+
+    private void cancel(Call call) {
+        InFlight abandoned = null;
+        synchronized (inFlight) {
+            InFlight request = inFlight.get(call.url);
+            if (request != null && request.calls.remove(call) && request.calls.isEmpty()) {
+                inFlight.remove(call.url);
+                abandoned = request;
+            }
+        }
+        if (abandoned != null) {
+            abandoned.abort();
+        }
+    }
+
+    /** One caller's interest in a request. */
+    public final class Call {
+        private final String url;
+        private final Callback callback;
+        private volatile boolean canceled;
+
+        private Call(String url, Callback callback) {
+            this.url = url;
+            this.callback = callback;
+        }
+
+        /**
+         * Drops the callback and aborts the request if no other caller is waiting for it.
+         * A callback that a pool thread has already started may still run, so callers that
+         * must ignore late results check their own state as well.
+         */
+        public void cancel() {
+            canceled = true;
+            HttpClient.this.cancel(this);
+        }
+
+        public boolean isCanceled() {
+            return canceled;
+        }
+    }
+
+    // A single network request shared by every Call for the same URL
+    private final class InFlight implements Runnable {
+        final String url;
+        final List<Call> calls = new ArrayList<>(1);
+        volatile Future<?> future;
+        volatile HttpURLConnection connection;
+        volatile boolean canceled;
+
+        InFlight(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public void run() {
+            if (canceled) return;
+            String body;
+            try {
+                body = execute(this);
+            } catch (IOException e) {
+                finish(this, null, e);
+                return;
+            } catch (RuntimeException e) {
+                // e.g. a URL that does not open an HttpURLConnection; must still leave the map
+                finish(this, null, new IOException("Request failed for " + url, e));
+                return;
+            }
+            // Outside the try, so a throwing callback is not reported to the others as a failure
+            finish(this, body, null);
+        }
+
+        void abort() {
+            canceled = true;
+            Future<?> pending = future;
+            if (pending != null) pending.cancel(false);
+
+            // Unblocks a read in progress; the socket is not reused afterwards
+            HttpURLConnection open = connection;
+            if (open != null) open.disconnect();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ridesharing;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide counts of snapshot listeners and what they deliver, per screen.
+ *
+ * Screens report when a listener is attached or removed and how many document changes
+ * each snapshot carried, so a listener left streaming behind a stopped screen shows up
+ * as an active count that never drops. Thread-safe; snapshots are reported from the
+ * parser thread while listeners are attached and removed on the main thread.
+ */
+public final class ListenerStats {
+
+    /** Counters for one screen. Reads are not atomic across fields. */
+    public static final class Counters {
+        private final AtomicInteger activeListeners = new AtomicInteger();
+        private final AtomicLong listenersAttached = new AtomicLong();
+        private final AtomicLong snapshotsReceived = new AtomicLong();
+        private final AtomicLong documentsReceived = new AtomicLong();
+
+        // Getters
+        public int getActiveListeners() { return activeListeners.get(); }
+        public long getListenersAttached() { return listenersAttached.get(); }
+        public long getSnapshotsReceived() { return snapshotsReceived.get(); }
+        public long getDocumentsReceived() { return documentsReceived.get(); }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d active, %d attached, %d snapshots, %d documents",
+                    getActiveListeners(), getListenersAttached(), getSnapshotsReceived(), getDocumentsReceived());
+        }
+    }
+
+    private static final ConcurrentMap<String, Counters> SCREENS = new ConcurrentHashMap<>();
+
+    private ListenerStats() {}
+
+    public static void attached(String screen) {
+        Counters counters = forScreen(screen);
+        counters.activeListeners.incrementAndGet();
+        counters.listenersAttached.incrementAndGet();
+    }
+
+    public static void detached(String screen) {
+        forScreen(screen).activeListeners.decrementAndGet();
+    }
+
+    /** @param documents document changes the snapshot carried, not the size of the result */
+    public static void received(String screen, int documents) {
+        Counters counters = forScreen(screen);
+        counters.snapshotsReceived.incrementAndGet();
+        counters.documentsReceived.addAndGet(documents);
+    }
+
+    public static Counters forScreen(String screen) {
+        return SCREENS.computeIfAbsent(screen, name -> new Counters());
+    }
+
+    public static int activeListeners(String screen) {
+        return forScreen(screen).getActiveListeners();
+    }
+
+    public static long documentsReceived(String screen) {
+        return forScreen(screen).getDocumentsReceived();
+    }
+
+    /** Listeners attached across all screens. */
+    public static int totalActiveListeners() {
+        int total = 0;
+        for (Counters counters : SCREENS.values()) {
+            total += counters.getActiveListeners();
+        }
+        return total;
+    }
+
+    /** Every screen's counters, ordered by screen name. */
+    public static Map<String, Counters> all() {
+        return new TreeMap<>(SCREENS);
+    }
+
+    /** Forgets all counters; for tests. */
+    static void reset() {
+        SCREENS.clear();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.ridesharing;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Token and prefix index over the pickup and drop addresses of ride requests, for the
+ * From/To search on the driver feed.
+ *
+ * Addresses are normalized (case and accents folded) and split into word tokens once,
+ * when a request is added or changed. Each side keeps a sorted token map, so a query
+ * token finds every indexed word starting with it through one range lookup instead of
+ * a substring scan over every address. Every query token must match some word on its
+ * side; results are ranked by how many query tokens matched whole words.
+ *
+ * Not thread-safe; the feed updates and queries it on the main thread.
+ */
+public final class LocationSearchIndex {
+
+    private final Side sources = new Side();
+    private final Side destinations = new Side();
+
+    public void put(String id, String source, String destination) {
+        remove(id);
+        sources.add(id, tokenize(source));
+        destinations.add(id, tokenize(destination));
+    }
+
+    public void remove(String id) {
+        sources.remove(id);
+        destinations.remove(id);
+    }
+
+    public void clear() {
+        sources.clear();
+        destinations.clear();
+    }
+
+    public int size() {
+        return sources.tokensById.size();
+    }
+
+    /**
+     * Ids of requests matching both queries, best first. An empty query matches every
+     * indexed request on its side.
+     */
+    public List<String> search(String fromQuery, String toQuery) {
+        Map<String, Integer> scores = scores(fromQuery, toQuery);
+        List<String> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort((a, b) -> {
+            int byScore = Integer.compare(scores.get(b), scores.get(a));
+            return byScore != 0 ? byScore : a.compareTo(b);
+        });
+        return ranked;
+    }
+
+    /** Matching ids with their rank score (higher is better). */
+    public Map<String, Integer> scores(String fromQuery, String toQuery) {
+        List<String> fromTokens = tokenize(fromQuery);
+        List<String> toTokens = tokenize(toQuery);
+
+        Map<String, Integer> scores = null;
+        if (!fromTokens.isEmpty()) {
+            scores = sources.match(fromTokens, null);
+        }
+        if (!toTokens.isEmpty()) {
+            scores = destinations.match(toTokens, scores);
+        }
+        if (scores == null) {
+            scores = new HashMap<>();
+            for (String id : sources.tokensById.keySet()) {
+                scores.put(id, 0);
+            }
+        }
+        return scores;
+    }
+
+    /** Lowercases, strips accents and splits on anything that is not a letter or digit. */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) return Collections.emptyList();
+
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK && isLatin(token)) {
+                continue; // accent on a Latin letter
+            }
+            if (Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK
+                    || Character.getType(c) == Character.COMBINING_SPACING_MARK) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) tokens.add(token.toString());
+        return tokens;
+    }
+
+    // Bengali vowel signs are combining marks that belong to the word; Latin accents are not
+    private static boolean isLatin(StringBuilder token) {
+        return token.length() > 0 && token.charAt(token.length() - 1) < 0x0250;
+    }
+
+    // Index over one address field
+    private static final class Side {
+        final NavigableMap<String, Set<String>> idsByToken = new TreeMap<>();
+        final Map<String, List<String>> tokensById = new HashMap<>();
+
+        void add(String id, List<String> tokens) {
+            tokensById.put(id, tokens);
+            for (String token : tokens) {
+                idsByToken.computeIfAbsent(token, key -> new HashSet<>()).add(id);
+            }
+        }
+
+        void remove(String id) {
+            List<String> tokens = tokensById.remove(id);
+            if (tokens == null) return;
+            for (String token : tokens) {
+                Set<String> ids = idsByToken.get(token);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    idsByToken.remove(token);
+                }
+            }
+        }
+
+        void clear() {
+            idsByToken.clear();
+            tokensById.clear();
+        }
+
+        /**
+         * Scores ids matching every query token, adding to (and restricted to) the given
+         * candidates when not null. Whole-word matches score 2, prefix matches 1.
+         */
+        Map<String, Integer> match(List<String> queryTokens, Map<String, Integer> candidates) {
+            Map<String, Integer> scores = candidates;
+            for (String query : queryTokens) {
+                Map<String, Integer> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Set<String>> entry : prefixRange(query).entrySet()) {
+                    int score = entry.getKey().length() == query.length() ? 2 : 1;
+                    for (String id : entry.getValue()) {
+                        if (scores != null && !scores.containsKey(id)) continue;
+                        tokenScores.merge(id, score, Math::max);
+                    }
+                }
+
+                Map<String, Integer> next = new HashMap<>(tokenScores.size());
+                for (Map.Entry<String, Integer> entry : tokenScores.entrySet()) {
+                    int previous = scores != null ? scores.get(entry.getKey()) : 0;
+                    next.put(entry.getKey(), previous + entry.getValue());
+                }
+                scores = next;
+                if (scores.isEmpty()) break;
+            }
+            return scores;
+        }
+
+        private NavigableMap<String, Set<String>> prefixRange(String prefix) {
+            return idsByToken.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+    }
+}
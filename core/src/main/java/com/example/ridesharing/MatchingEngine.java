@@ -0,0 +1,257 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Ranks pending ride requests for a driver.
+ *
+ * A request scores higher the better it pays per kilometer driven, and lower the farther
+ * the pickup is (more so when it lies behind the driver's heading), the longer the detour
+ * from the driver's own destination, and the worse the pickup time fits the requested
+ * departure. Requests beyond the pickup radius or without coordinates are not ranked.
+ *
+ * Distances are measured in a flat projection around the driver, which is well within a
+ * percent of great-circle distance at city scale and needs no trigonometry per request.
+ *
+ * The engine is stateless and thread-safe. {@link #topK} reads candidates from a
+ * {@link RequestGrid} and keeps only the best K in a bounded heap, and {@link #matchAll}
+ * ranks many drivers in parallel for dispatch simulations.
+ */
+public final class MatchingEngine {
+
+    public static final double DEFAULT_MAX_PICKUP_KM = 10.0;
+    public static final double DEFAULT_AVERAGE_SPEED_KMH = 20.0; // city traffic
+
+    // Score weights, in points per unit
+    private static final double FARE_PER_KM_WEIGHT = 1.0;  // per taka/km
+    private static final double PICKUP_KM_WEIGHT = 6.0;
+    private static final double DETOUR_KM_WEIGHT = 4.0;
+    private static final double LATE_MIN_WEIGHT = 3.0;     // driver arrives after departure time
+    private static final double EARLY_MIN_WEIGHT = 0.2;    // driver waits for departure time
+    private static final double MAX_EARLY_PENALTY = 20.0;
+    // A pickup straight behind the driver counts as this much farther than one ahead
+    private static final double BEHIND_PICKUP_FACTOR = 0.5;
+    // Trips shorter than this are priced per km as if they were this long
+    private static final double MIN_PAID_KM = 1.0;
+
+    static final double KM_PER_DEGREE_LAT = 111.32;
+    private static final double MILLIS_PER_MINUTE = 60 * 1000;
+
+    private static final MatchingEngine DEFAULT =
+            new MatchingEngine(DEFAULT_MAX_PICKUP_KM, DEFAULT_AVERAGE_SPEED_KMH);
+
+    private final double maxPickupKm;
+    private final double averageSpeedKmh;
+
+    public MatchingEngine(double maxPickupKm, double averageSpeedKmh) {
+        this.maxPickupKm = maxPickupKm;
+        this.averageSpeedKmh = averageSpeedKmh;
+    }
+
+    public static MatchingEngine getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Score of one request for the driver at time now (epoch millis), or
+     * {@link Double#NEGATIVE_INFINITY} if it cannot be matched. Allocation-free.
+     */
+    public double score(DriverState driver, RideRequest request, long now) {
+        if (request.getPickupLat() == null || request.getPickupLng() == null) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double pickupKm = km(driver, driver.getLat(), driver.getLng(),
+                request.getPickupLat(), request.getPickupLng());
+        if (pickupKm > maxPickupKm) return Double.NEGATIVE_INFINITY;
+
+        double detourKm = detourKm(driver, request, pickupKm);
+        return combine(driver, request, now, pickupKm, detourKm);
+    }
+
+    /** The request with its score components, or null if it cannot be matched. */
+    public RequestMatch match(DriverState driver, RideRequest request, long now) {
+        double score = score(driver, request, now);
+        return score == Double.NEGATIVE_INFINITY ? null : newMatch(driver, request, score);
+    }
+
+    /** Best k requests in the grid for the driver, best first. */
+    public List<RequestMatch> topK(RequestGrid grid, DriverState driver, int k, long now) {
+        if (k <= 0) return Collections.emptyList();
+
+        TopK best = new TopK(driver, now, k);
+        grid.forEachCandidate(driver.getLat(), driver.getLng(), maxPickupKm, best);
+        return best.toMatches();
+    }
+
+    /**
+     * {@link #topK} for every driver, computed in parallel on the common fork-join pool.
+     * Results are in the same order as drivers.
+     */
+    public List<List<RequestMatch>> matchAll(RequestGrid grid, List<DriverState> drivers, int k, long now) {
+        // Sized up front; each task sets its own index, so the list is never resized concurrently
+        List<List<RequestMatch>> results = new ArrayList<>(Collections.nCopies(drivers.size(), null));
+        IntStream.range(0, drivers.size())
+                .parallel()
+                .forEach(i -> results.set(i, topK(grid, drivers.get(i), k, now)));
+        return results;
+    }
+
+    private RequestMatch newMatch(DriverState driver, RideRequest request, double score) {
+        double pickupKm = km(driver, driver.getLat(), driver.getLng(),
+                request.getPickupLat(), request.getPickupLng());
+        return new RequestMatch(request, score, pickupKm, etaMinutes(pickupKm),
+                detourKm(driver, request, pickupKm), farePerKm(driver, request, pickupKm));
+    }
+
+    private double combine(DriverState driver, RideRequest request, long now,
+                           double pickupKm, double detourKm) {
+        double effectivePickupKm = pickupKm * (1 + BEHIND_PICKUP_FACTOR * behindFraction(driver, request, pickupKm));
+
+        return farePerKm(driver, request, pickupKm) * FARE_PER_KM_WEIGHT
+                - effectivePickupKm * PICKUP_KM_WEIGHT
+                - detourKm * DETOUR_KM_WEIGHT
+                - departurePenalty(request, now, etaMinutes(pickupKm));
+    }
+
+    private double etaMinutes(double pickupKm) {
+        return pickupKm / averageSpeedKmh * 60;
+    }
+
+    // Offered fare over every km the driver covers for it, including the way to the pickup
+    private static double farePerKm(DriverState driver, RideRequest request, double pickupKm) {
+        return request.getOfferedFare() / Math.max(MIN_PAID_KM, tripKm(driver, request) + pickupKm);
+    }
+
+    // Routed distance when the request has one, otherwise straight-line pickup to drop
+    private static double tripKm(DriverState driver, RideRequest request) {
+        Double distance = request.getDistance();
+        if (distance != null && distance > 0) return distance;
+        if (request.getDropLat() == null || request.getDropLng() == null) return 0;
+        return km(driver, request.getPickupLat(), request.getPickupLng(),
+                request.getDropLat(), request.getDropLng());
+    }
+
+    // Extra distance over driving straight to the driver's own destination
+    private static double detourKm(DriverState driver, RideRequest request, double pickupKm) {
+        if (!driver.hasDestination()) return 0;
+
+        double destLat = driver.getDestinationLat();
+        double destLng = driver.getDestinationLng();
+        double endLat = request.getDropLat() != null ? request.getDropLat() : request.getPickupLat();
+        double endLng = request.getDropLng() != null ? request.getDropLng() : request.getPickupLng();
+
+        double withRide = pickupKm + tripKm(driver, request) + km(driver, endLat, endLng, destLat, destLng);
+        double direct = km(driver, driver.getLat(), driver.getLng(), destLat, destLng);
+        return Math.max(0, withRide - direct);
+    }
+
+    // 0 when the pickup is straight ahead, 1 when it is straight behind
+    private static double behindFraction(DriverState driver, RideRequest request, double pickupKm) {
+        if (!driver.hasHeading() || pickupKm == 0) return 0;
+        double northKm = (request.getPickupLat() - driver.getLat()) * KM_PER_DEGREE_LAT;
+        double eastKm = (request.getPickupLng() - driver.getLng()) * driver.getKmPerDegreeLng();
+        // Cosine of the angle between the heading and the direction of the pickup
+        double cos = (eastKm * driver.getHeadingSin() + northKm * driver.getHeadingCos()) / pickupKm;
+        return (1 - cos) / 2;
+    }
+
+    private static double departurePenalty(RideRequest request, long now, double etaMin) {
+        if (request.getDepartureAt() <= 0) return 0;
+
+        double slackMin = (request.getDepartureAt() - now) / MILLIS_PER_MINUTE - etaMin;
+        if (slackMin < 0) return -slackMin * LATE_MIN_WEIGHT;
+        return Math.min(MAX_EARLY_PENALTY, slackMin * EARLY_MIN_WEIGHT);
+    }
+
+    private static double km(DriverState driver, double lat1, double lng1, double lat2, double lng2) {
+        double northKm = (lat2 - lat1) * KM_PER_DEGREE_LAT;
+        double eastKm = (lng2 - lng1) * driver.getKmPerDegreeLng();
+        return Math.sqrt(northKm * northKm + eastKm * eastKm);
+    }
+
+    /**
+     * Bounded min-heap of the best k scores seen so far. The worst kept request sits at
+     * the root, so each candidate costs one comparison unless it beats it.
+     */
+    private final class TopK implements Consumer<RideRequest> {
+        private final DriverState driver;
+        private final long now;
+        private final double[] scores;
+        private final RideRequest[] requests;
+        private int size;
+
+        TopK(DriverState driver, long now, int k) {
+            this.driver = driver;
+            this.now = now;
+            this.scores = new double[k];
+            this.requests = new RideRequest[k];
+        }
+
+        @Override
+        public void accept(RideRequest request) {
+            double score = score(driver, request, now);
+            if (score == Double.NEGATIVE_INFINITY) return;
+
+            if (size < scores.length) {
+                scores[size] = score;
+                requests[size] = request;
+                siftUp(size++);
+            } else if (worse(scores[0], requests[0], score, request)) {
+                scores[0] = score;
+                requests[0] = request;
+                siftDown(0);
+            }
+        }
+
+        List<RequestMatch> toMatches() {
+            List<RequestMatch> matches = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                matches.add(newMatch(driver, requests[i], scores[i]));
+            }
+            matches.sort((m1, m2) -> worse(m1.getScore(), m1.getRequest(), m2.getScore(), m2.getRequest()) ? 1
+                    : worse(m2.getScore(), m2.getRequest(), m1.getScore(), m1.getRequest()) ? -1 : 0);
+            return matches;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!worse(scores[index], requests[index], scores[parent], requests[parent])) break;
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) break;
+                int right = left + 1;
+                int worst = right < size && worse(scores[right], requests[right], scores[left], requests[left])
+                        ? right : left;
+                if (!worse(scores[worst], requests[worst], scores[index], requests[index])) break;
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            double score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+            RideRequest request = requests[i];
+            requests[i] = requests[j];
+            requests[j] = request;
+        }
+    }
+
+    // Lower score is worse; equal scores are ordered by id so rankings are deterministic
+    private static boolean worse(double score1, RideRequest r1, double score2, RideRequest r2) {
+        if (score1 != score2) return score1 < score2;
+        return r1.getId().compareTo(r2.getId()) > 0;
+    }
+}
@@ -14,13 +14,12 @@ public class MyRideRequest {
     private String driverName;
     private String driverPhone;
     private Long acceptedAt;
-    private boolean notificationShown;
 
     public MyRideRequest(String id, String status, String pickupLocation,
                          String dropLocation, double fare, String vehicleType,
                          int passengers, Long departureTime, Long createdAt,
                          String driverId, String driverName, String driverPhone,
-                         Long acceptedAt, boolean notificationShown) {
+                         Long acceptedAt) {
         this.id = id;
         this.status = status;
         this.pickupLocation = pickupLocation;
@@ -34,7 +33,6 @@ public class MyRideRequest {
         this.driverName = driverName;
         this.driverPhone = driverPhone;
         this.acceptedAt = acceptedAt;
-        this.notificationShown = notificationShown;
     }
 
     // Getters
@@ -51,5 +49,4 @@ public class MyRideRequest {
     public String getDriverName() { return driverName; }
     public String getDriverPhone() { return driverPhone; }
     public Long getAcceptedAt() { return acceptedAt; }
-    public boolean isNotificationShown() { return notificationShown; }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.ridesharing;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A group of compatible ride requests served by one vehicle, with the order the vehicle
+ * visits their pickups and drops. Proposed by {@link PoolingEngine}.
+ */
+public final class PooledTrip {
+
+    /** One pickup or drop on the shared route. */
+    public static final class Stop {
+        private final RideRequest request;
+        private final boolean pickup;
+
+        public Stop(RideRequest request, boolean pickup) {
+            this.request = request;
+            this.pickup = pickup;
+        }
+
+        public double getLat() {
+            return pickup ? request.getPickupLat() : request.getDropLat();
+        }
+
+        public double getLng() {
+            return pickup ? request.getPickupLng() : request.getDropLng();
+        }
+
+        // Getters
+        public RideRequest getRequest() { return request; }
+        public boolean isPickup() { return pickup; }
+    }
+
+    private final List<RideRequest> requests;
+    private final List<Stop> stops;
+    private final int seats;
+    private final double pooledKm;
+    private final double soloKm;
+
+    public PooledTrip(List<RideRequest> requests, List<Stop> stops, int seats, double pooledKm, double soloKm) {
+        this.requests = Collections.unmodifiableList(requests);
+        this.stops = Collections.unmodifiableList(stops);
+        this.seats = seats;
+        this.pooledKm = pooledKm;
+        this.soloKm = soloKm;
+    }
+
+    /** Kilometers saved against driving every request on its own. */
+    public double getSavedKm() {
+        return soloKm - pooledKm;
+    }
+
+    // Getters
+    public List<RideRequest> getRequests() { return requests; }
+    public List<Stop> getStops() { return stops; }
+    public int getSeats() { return seats; }
+    public double getPooledKm() { return pooledKm; }
+    public double getSoloKm() { return soloKm; }
+}
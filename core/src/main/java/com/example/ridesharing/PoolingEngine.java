@@ -0,0 +1,371 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups pending ride requests that can share one vehicle.
+ *
+ * Two requests are compatible when they want the same vehicle type, fit in its seats
+ * together, leave within a few minutes of each other from nearby pickups, travel in
+ * roughly the same direction, and can be served on one route that stretches no rider's
+ * trip beyond the detour tolerance. Candidates come from a {@link RequestGrid} over the
+ * pickups, the cheap checks run before any route is built, and only the closest few
+ * compatible neighbors of each request are routed, so candidate generation stays close to
+ * linear in the number of requests even where they are dense.
+ *
+ * Compatible pairs seed groups greedily by kilometers saved, and each new group grows at
+ * once by inserting the best remaining partner of its members until the vehicle is full
+ * or no insertion saves distance. Distances are straight-line in a flat projection, which
+ * is accurate to well under a percent at city scale.
+ *
+ * The app does not call this yet. A driver can only accept one request per transaction
+ * (see {@link RequestAcceptance}), so proposals stay out of the feed until accepting a
+ * whole group is supported.
+ */
+public final class PoolingEngine {
+
+    public static final double DEFAULT_MAX_DETOUR_FRACTION = 0.3;
+    public static final double DEFAULT_MAX_PICKUP_GAP_KM = 2.0;
+    public static final long DEFAULT_MAX_DEPARTURE_GAP_MILLIS = 15 * 60 * 1000;
+
+    public static final String VEHICLE_BIKE = "bike";
+    private static final int CAR_SEATS = 4;
+    private static final int BIKE_SEATS = 1;
+
+    // Any rider may ride this much farther than alone, however short the trip
+    private static final double MIN_DETOUR_ALLOWANCE_KM = 1.0;
+    // Trips pointing more than about 60 degrees apart are never pooled
+    private static final double MIN_DIRECTION_COSINE = 0.5;
+    // Compatible neighbors routed per request; the rest are farther and rarely save more
+    private static final int MAX_ROUTED_NEIGHBORS = 12;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private static final PoolingEngine DEFAULT = new PoolingEngine(
+            DEFAULT_MAX_DETOUR_FRACTION, DEFAULT_MAX_PICKUP_GAP_KM, DEFAULT_MAX_DEPARTURE_GAP_MILLIS);
+
+    private final double maxDetourFraction;
+    private final double maxPickupGapKm;
+    private final long maxDepartureGapMillis;
+
+    public PoolingEngine(double maxDetourFraction, double maxPickupGapKm, long maxDepartureGapMillis) {
+        this.maxDetourFraction = maxDetourFraction;
+        this.maxPickupGapKm = maxPickupGapKm;
+        this.maxDepartureGapMillis = maxDepartureGapMillis;
+    }
+
+    public static PoolingEngine getDefault() {
+        return DEFAULT;
+    }
+
+    /** Passenger seats of a vehicle type; anything but a bike is treated as a car. */
+    public static int seatLimit(String vehicleType) {
+        return VEHICLE_BIKE.equalsIgnoreCase(vehicleType) ? BIKE_SEATS : CAR_SEATS;
+    }
+
+    /**
+     * Proposes shared trips of two or more requests, most kilometers saved first.
+     * Requests that pool with nobody are left out.
+     */
+    public List<PooledTrip> propose(Collection<RideRequest> requests) {
+        List<RideRequest> eligible = new ArrayList<>();
+        for (RideRequest request : requests) {
+            if (request.getPickupLat() == null || request.getPickupLng() == null
+                    || request.getDropLat() == null || request.getDropLng() == null) continue;
+            // Only requests that leave a seat free can share
+            if (Math.max(1, request.getPassengers()) >= seatLimit(request.getVehicleType())) continue;
+            eligible.add(request);
+        }
+        return new Pooler(eligible).run();
+    }
+
+    /** Working state of one {@link #propose} call; stops are encoded as rider * 2 (+1 for the drop). */
+    private final class Pooler {
+        private final RideRequest[] riders;
+        private final double[] stopLat;
+        private final double[] stopLng;
+        private final double[] soloKm;
+        private final List<List<Pair>> partners = new ArrayList<>();
+        private final int[] groupOf;
+
+        Pooler(List<RideRequest> eligible) {
+            riders = eligible.toArray(new RideRequest[0]);
+            stopLat = new double[riders.length * 2];
+            stopLng = new double[riders.length * 2];
+            soloKm = new double[riders.length];
+            groupOf = new int[riders.length];
+            Arrays.fill(groupOf, -1);
+            for (int i = 0; i < riders.length; i++) {
+                stopLat[pickup(i)] = riders[i].getPickupLat();
+                stopLng[pickup(i)] = riders[i].getPickupLng();
+                stopLat[drop(i)] = riders[i].getDropLat();
+                stopLng[drop(i)] = riders[i].getDropLng();
+                soloKm[i] = legKm(pickup(i), drop(i));
+                partners.add(new ArrayList<>());
+            }
+        }
+
+        List<PooledTrip> run() {
+            Comparator<Pair> mostSavedFirst = Comparator.comparingDouble((Pair pair) -> pair.savedKm).reversed();
+            List<Pair> pairs = findPairs();
+            pairs.sort(mostSavedFirst);
+            for (List<Pair> riderPartners : partners) {
+                riderPartners.sort(mostSavedFirst);
+            }
+
+            List<Group> groups = new ArrayList<>();
+            for (Pair pair : pairs) {
+                if (groupOf[pair.first] >= 0 || groupOf[pair.second] >= 0) continue;
+                Group group = new Group(pair.route, seats(pair.first) + seats(pair.second));
+                groupOf[pair.first] = groups.size();
+                groupOf[pair.second] = groups.size();
+                groups.add(group);
+                // Fill this vehicle before seeding the next one from a weaker pair
+                grow(group, groups.size() - 1);
+            }
+
+            List<PooledTrip> trips = new ArrayList<>(groups.size());
+            for (Group group : groups) {
+                trips.add(toTrip(group));
+            }
+            trips.sort(Comparator.comparingDouble(PooledTrip::getSavedKm).reversed());
+            return trips;
+        }
+
+        private List<Pair> findPairs() {
+            List<RideRequest> all = Arrays.asList(riders);
+            RequestGrid grid = new RequestGrid(all);
+            Map<RideRequest, Integer> indexOf = new IdentityHashMap<>();
+            for (int i = 0; i < riders.length; i++) {
+                indexOf.put(riders[i], i);
+            }
+
+            List<Pair> pairs = new ArrayList<>();
+            List<Integer> neighbors = new ArrayList<>();
+            double[] closeness = new double[riders.length];
+            for (int i = 0; i < riders.length; i++) {
+                int first = i;
+                RideRequest request = riders[i];
+                neighbors.clear();
+                grid.forEachCandidate(request.getPickupLat(), request.getPickupLng(), maxPickupGapKm, other -> {
+                    int second = indexOf.get(other);
+                    // Each unordered pair once
+                    if (second <= first || !compatible(first, second)) return;
+                    closeness[second] = legKm(pickup(first), pickup(second)) + legKm(drop(first), drop(second));
+                    neighbors.add(second);
+                });
+
+                if (neighbors.size() > MAX_ROUTED_NEIGHBORS) {
+                    neighbors.sort(Comparator.comparingDouble(neighbor -> closeness[neighbor]));
+                }
+                int routed = Math.min(MAX_ROUTED_NEIGHBORS, neighbors.size());
+                int[] route = {pickup(first), drop(first)};
+                for (int n = 0; n < routed; n++) {
+                    int second = neighbors.get(n);
+                    Insertion insertion = bestInsertion(route, second);
+                    if (insertion == null) continue;
+
+                    double savedKm = soloKm[second] - insertion.addedKm;
+                    if (savedKm <= 0) continue;
+                    Pair pair = new Pair(first, second, insertion.route, savedKm);
+                    pairs.add(pair);
+                    partners.get(first).add(pair);
+                    partners.get(second).add(pair);
+                }
+            }
+            return pairs;
+        }
+
+        // Cheap checks that rule out most neighbors before any route is built
+        private boolean compatible(int a, int b) {
+            RideRequest first = riders[a];
+            RideRequest second = riders[b];
+            if (seatLimit(first.getVehicleType()) != seatLimit(second.getVehicleType())) return false;
+            if (seats(a) + seats(b) > seatLimit(first.getVehicleType())) return false;
+
+            if (first.getDepartureAt() > 0 && second.getDepartureAt() > 0
+                    && Math.abs(first.getDepartureAt() - second.getDepartureAt()) > maxDepartureGapMillis) {
+                return false;
+            }
+            if (legKm(pickup(a), pickup(b)) > maxPickupGapKm) return false;
+
+            double aNorth = first.getDropLat() - first.getPickupLat();
+            double aEast = first.getDropLng() - first.getPickupLng();
+            double bNorth = second.getDropLat() - second.getPickupLat();
+            double bEast = second.getDropLng() - second.getPickupLng();
+            double norms = Math.sqrt((aNorth * aNorth + aEast * aEast) * (bNorth * bNorth + bEast * bEast));
+            return norms == 0 || (aNorth * bNorth + aEast * bEast) / norms >= MIN_DIRECTION_COSINE;
+        }
+
+        private void grow(Group group, int groupIndex) {
+            while (true) {
+                int limit = seatLimit(riders[group.route[0] / 2].getVehicleType());
+                int bestRider = -1;
+                Insertion best = null;
+                double bestSaved = 0;
+
+                for (int stop : group.route) {
+                    if (!isPickup(stop)) continue;
+                    int tried = 0;
+                    for (Pair pair : partners.get(stop / 2)) {
+                        int candidate = pair.first == stop / 2 ? pair.second : pair.first;
+                        if (groupOf[candidate] >= 0 || group.seats + seats(candidate) > limit) continue;
+                        // Partners are sorted by pairwise saving; the tail rarely fits better
+                        if (++tried > MAX_ROUTED_NEIGHBORS) break;
+
+                        Insertion insertion = bestInsertion(group.route, candidate);
+                        if (insertion == null) continue;
+                        double saved = soloKm[candidate] - insertion.addedKm;
+                        if (saved > bestSaved) {
+                            bestSaved = saved;
+                            best = insertion;
+                            bestRider = candidate;
+                        }
+                    }
+                }
+
+                if (best == null) return;
+                group.route = best.route;
+                group.seats += seats(bestRider);
+                groupOf[bestRider] = groupIndex;
+            }
+        }
+
+        /**
+         * Cheapest way to add the rider's pickup and drop to the route, pickup first, with
+         * every rider still within the detour tolerance; null if there is none.
+         */
+        private Insertion bestInsertion(int[] route, int rider) {
+            double baseKm = routeKm(route);
+            Insertion best = null;
+            int[] candidate = new int[route.length + 2];
+
+            for (int p = 0; p <= route.length; p++) {
+                for (int d = p + 1; d <= route.length + 1; d++) {
+                    int source = 0;
+                    for (int i = 0; i < candidate.length; i++) {
+                        if (i == p) candidate[i] = pickup(rider);
+                        else if (i == d) candidate[i] = drop(rider);
+                        else candidate[i] = route[source++];
+                    }
+                    double addedKm = routeKm(candidate) - baseKm;
+                    if ((best == null || addedKm < best.addedKm) && withinDetour(candidate)) {
+                        best = new Insertion(candidate.clone(), addedKm);
+                    }
+                }
+            }
+            return best;
+        }
+
+        private boolean withinDetour(int[] route) {
+            double[] pickedUpAt = new double[route.length];
+            int[] pickedUpRider = new int[route.length];
+            int onBoard = 0;
+            double travelled = 0;
+
+            for (int i = 0; i < route.length; i++) {
+                if (i > 0) travelled += legKm(route[i - 1], route[i]);
+                int rider = route[i] / 2;
+                if (isPickup(route[i])) {
+                    pickedUpRider[onBoard] = rider;
+                    pickedUpAt[onBoard++] = travelled;
+                    continue;
+                }
+                for (int j = 0; j < onBoard; j++) {
+                    if (pickedUpRider[j] != rider) continue;
+                    double allowedKm = soloKm[rider] + Math.max(MIN_DETOUR_ALLOWANCE_KM, soloKm[rider] * maxDetourFraction);
+                    if (travelled - pickedUpAt[j] > allowedKm) return false;
+                    break;
+                }
+            }
+            return true;
+        }
+
+        private double routeKm(int[] route) {
+            double km = 0;
+            for (int i = 1; i < route.length; i++) {
+                km += legKm(route[i - 1], route[i]);
+            }
+            return km;
+        }
+
+        private double legKm(int fromStop, int toStop) {
+            double fromLat = stopLat[fromStop];
+            double toLat = stopLat[toStop];
+            double northKm = (toLat - fromLat) * KM_PER_DEGREE_LAT;
+            double eastKm = (stopLng[toStop] - stopLng[fromStop])
+                    * KM_PER_DEGREE_LAT * Math.cos(Math.toRadians((fromLat + toLat) / 2));
+            return Math.sqrt(northKm * northKm + eastKm * eastKm);
+        }
+
+        private int seats(int rider) {
+            return Math.max(1, riders[rider].getPassengers());
+        }
+
+        private PooledTrip toTrip(Group group) {
+            List<RideRequest> members = new ArrayList<>();
+            List<PooledTrip.Stop> stops = new ArrayList<>(group.route.length);
+            double solo = 0;
+            for (int stop : group.route) {
+                RideRequest request = riders[stop / 2];
+                stops.add(new PooledTrip.Stop(request, isPickup(stop)));
+                if (isPickup(stop)) {
+                    members.add(request);
+                    solo += soloKm[stop / 2];
+                }
+            }
+            return new PooledTrip(members, stops, group.seats, routeKm(group.route), solo);
+        }
+    }
+
+    private static int pickup(int rider) {
+        return rider * 2;
+    }
+
+    private static int drop(int rider) {
+        return rider * 2 + 1;
+    }
+
+    private static boolean isPickup(int stop) {
+        return stop % 2 == 0;
+    }
+
+    private static final class Pair {
+        final int first;
+        final int second;
+        final int[] route;
+        final double savedKm;
+
+        Pair(int first, int second, int[] route, double savedKm) {
+            this.first = first;
+            this.second = second;
+            this.route = route;
+            this.savedKm = savedKm;
+        }
+    }
+
+    private static final class Insertion {
+        final int[] route;
+        final double addedKm;
+
+        Insertion(int[] route, double addedKm) {
+            this.route = route;
+            this.addedKm = addedKm;
+        }
+    }
+
+    private static final class Group {
+        int[] route;
+        int seats;
+
+        Group(int[] route, int seats) {
+            this.route = route;
+            this.seats = seats;
+        }
+    }
+}
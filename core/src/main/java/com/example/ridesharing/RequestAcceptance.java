@@ -0,0 +1,48 @@
+package com.example.ridesharing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compare-and-set rule for a driver accepting a ride request.
+ *
+ * A request may only move to "accepted" while it is still "pending"; whoever commits
+ * first wins and every later attempt is rejected without writing. The rule is kept free
+ * of Firestore types so the transaction in the app and the in-memory store used by the
+ * contention tests apply exactly the same check and write the same fields. The app adds
+ * its server-stamped updatedAt to the returned map.
+ */
+public final class RequestAcceptance {
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_ACCEPTED = "accepted";
+
+    public enum Result {
+        ACCEPTED,
+        ALREADY_TAKEN,
+        NOT_FOUND
+    }
+
+    private RequestAcceptance() {}
+
+    /**
+     * Decides an acceptance attempt from the status read inside the transaction.
+     * @param currentStatus status of the request, or null if the document is gone
+     */
+    public static Result check(String currentStatus) {
+        if (currentStatus == null) return Result.NOT_FOUND;
+        return STATUS_PENDING.equals(currentStatus) ? Result.ACCEPTED : Result.ALREADY_TAKEN;
+    }
+
+    /** Mutable map of the fields written when {@link #check} returned {@link Result#ACCEPTED}. */
+    public static Map<String, Object> acceptedFields(String driverId, String driverName,
+                                                     String driverPhone, long acceptedAt) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("status", STATUS_ACCEPTED);
+        fields.put("driverId", driverId);
+        fields.put("driverName", driverName);
+        fields.put("driverPhone", driverPhone);
+        fields.put("acceptedAt", acceptedAt);
+        return fields;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Uniform lat/lng grid over the pickup points of a set of ride requests.
+ *
+ * Built once per snapshot of pending requests and read-only afterwards, so any number of
+ * threads can query it at the same time. A radius query only visits the cells around the
+ * point instead of every request; callers refine the candidates with an exact distance.
+ * Requests without pickup coordinates are left out.
+ */
+public final class RequestGrid {
+
+    // About 1.1 km north-south; small enough that a pickup radius covers few empty cells
+    public static final double DEFAULT_CELL_DEGREES = 0.01;
+
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final double cellDegrees;
+    private final Map<Long, RideRequest[]> cells;
+    private final int size;
+
+    public RequestGrid(Collection<RideRequest> requests) {
+        this(requests, DEFAULT_CELL_DEGREES);
+    }
+
+    public RequestGrid(Collection<RideRequest> requests, double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+
+        Map<Long, List<RideRequest>> building = new HashMap<>();
+        int count = 0;
+        for (RideRequest request : requests) {
+            if (request.getPickupLat() == null || request.getPickupLng() == null) continue;
+            long key = key(latCell(request.getPickupLat()), lngCell(request.getPickupLng()));
+            building.computeIfAbsent(key, k -> new ArrayList<>()).add(request);
+            count++;
+        }
+
+        cells = new HashMap<>(building.size() * 2);
+        for (Map.Entry<Long, List<RideRequest>> entry : building.entrySet()) {
+            cells.put(entry.getKey(), entry.getValue().toArray(new RideRequest[0]));
+        }
+        size = count;
+    }
+
+    /** Number of indexed requests. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits every request in the cells overlapping the square around the point that
+     * contains the given radius. Some visited requests lie outside the radius.
+     */
+    public void forEachCandidate(double lat, double lng, double radiusKm, Consumer<RideRequest> visitor) {
+        double latSpan = radiusKm / KM_PER_DEGREE_LAT;
+        double lngSpan = radiusKm / (KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+
+        int minLat = latCell(lat - latSpan);
+        int maxLat = latCell(lat + latSpan);
+        int minLng = lngCell(lng - lngSpan);
+        int maxLng = lngCell(lng + lngSpan);
+
+        for (int latCell = minLat; latCell <= maxLat; latCell++) {
+            for (int lngCell = minLng; lngCell <= maxLng; lngCell++) {
+                RideRequest[] cell = cells.get(key(latCell, lngCell));
+                if (cell == null) continue;
+                for (RideRequest request : cell) {
+                    visitor.accept(request);
+                }
+            }
+        }
+    }
+
+    private int latCell(double lat) {
+        return (int) Math.floor((lat + 90) / cellDegrees);
+    }
+
+    private int lngCell(double lng) {
+        return (int) Math.floor((lng + 180) / cellDegrees);
+    }
+
+    private static long key(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.ridesharing;
+
+/**
+ * One ranked result from {@link MatchingEngine}: the request, its score (higher is
+ * better) and the components the score was built from, for display and tuning.
+ */
+public final class RequestMatch {
+    private final RideRequest request;
+    private final double score;
+    private final double pickupKm;
+    private final double pickupEtaMin;
+    private final double detourKm;
+    private final double farePerKm;
+
+    public RequestMatch(RideRequest request, double score, double pickupKm, double pickupEtaMin,
+                        double detourKm, double farePerKm) {
+        this.request = request;
+        this.score = score;
+        this.pickupKm = pickupKm;
+        this.pickupEtaMin = pickupEtaMin;
+        this.detourKm = detourKm;
+        this.farePerKm = farePerKm;
+    }
+
+    // Getters
+    public RideRequest getRequest() { return request; }
+    public double getScore() { return score; }
+    public double getPickupKm() { return pickupKm; }
+    public double getPickupEtaMin() { return pickupEtaMin; }
+    public double getDetourKm() { return detourKm; }
+    public double getFarePerKm() { return farePerKm; }
+}
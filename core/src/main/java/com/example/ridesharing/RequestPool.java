@@ -0,0 +1,345 @@
+package com.example.ridesharing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Struct-of-arrays store for a large in-memory set of pending ride requests.
+ *
+ * Each field lives in its own primitive column (coordinates in double[], departure and
+ * creation times in long[], fares in float[]) instead of a boxed field on one object per
+ * request, so a pool of thousands costs a fraction of the heap and filter and sort scans
+ * walk contiguous arrays. Missing coordinates and distances are stored as NaN. Ids and
+ * the few repeated strings (vehicle and user type, traffic level) are interned, which
+ * also lets the vehicle filter compare references.
+ *
+ * Rows are dense: removing a request moves the last row into its slot, so slots are only
+ * valid until the next removal. Formatted display strings are not kept; {@link #view}
+ * builds a {@link RideRequest} on demand with departureAt set for the caller to format.
+ * Not thread-safe.
+ */
+public final class RequestPool {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private int size;
+
+    // Scanned columns
+    private double[] pickupLat;
+    private double[] pickupLng;
+    private double[] dropLat;
+    private double[] dropLng;
+    private long[] departureAt;
+    private long[] createdAt;
+    private float[] fare;
+    private float[] distanceKm;
+    private float[] durationMin;
+    private float[] rating;
+    private byte[] passengers;
+    private String[] vehicleType;
+
+    // Display columns, only read by view()
+    private String[] id;
+    private String[] passengerId;
+    private String[] passengerName;
+    private String[] userType;
+    private String[] source;
+    private String[] destination;
+    private String[] specialRequest;
+    private String[] passengerPhoto;
+    private String[] passengerPhone;
+    private String[] trafficLevel;
+
+    public RequestPool() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(String requestId) {
+        return slotById.containsKey(requestId);
+    }
+
+    /** Slot of the request, or -1 if it is not in the pool. */
+    public int slotOf(String requestId) {
+        Integer slot = slotById.get(requestId);
+        return slot != null ? slot : -1;
+    }
+
+    /** Adds the request or overwrites the row with the same id; returns its slot. */
+    public int upsert(RideRequest request) {
+        Integer existing = slotById.get(request.getId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+        } else {
+            if (size == id.length) {
+                allocate(size * 2);
+            }
+            slot = size++;
+            String internedId = request.getId().intern();
+            id[slot] = internedId;
+            slotById.put(internedId, slot);
+        }
+
+        pickupLat[slot] = orNaN(request.getPickupLat());
+        pickupLng[slot] = orNaN(request.getPickupLng());
+        dropLat[slot] = orNaN(request.getDropLat());
+        dropLng[slot] = orNaN(request.getDropLng());
+        departureAt[slot] = request.getDepartureAt();
+        createdAt[slot] = request.getCreatedAt();
+        fare[slot] = (float) request.getOfferedFare();
+        distanceKm[slot] = (float) orNaN(request.getDistance());
+        durationMin[slot] = (float) orNaN(request.getDuration());
+        rating[slot] = (float) request.getRating();
+        passengers[slot] = (byte) Math.max(0, Math.min(Byte.MAX_VALUE, request.getPassengers()));
+        vehicleType[slot] = intern(request.getVehicleType());
+
+        passengerId[slot] = request.getPassengerId();
+        passengerName[slot] = request.getPassengerName();
+        userType[slot] = intern(request.getUserType());
+        source[slot] = request.getSource();
+        destination[slot] = request.getDestination();
+        specialRequest[slot] = request.getSpecialRequest();
+        passengerPhoto[slot] = request.getPassengerPhoto();
+        passengerPhone[slot] = request.getPassengerPhone();
+        trafficLevel[slot] = intern(request.getTrafficLevel());
+        return slot;
+    }
+
+    public boolean remove(String requestId) {
+        Integer slot = slotById.remove(requestId);
+        if (slot == null) return false;
+
+        int last = --size;
+        if (slot != last) {
+            moveRow(last, slot);
+            slotById.put(id[slot], slot);
+        }
+        clearRow(last);
+        return true;
+    }
+
+    public void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            clearRow(slot);
+        }
+        slotById.clear();
+        size = 0;
+    }
+
+    public String idAt(int slot) {
+        return id[slot];
+    }
+
+    public long departureAt(int slot) {
+        return departureAt[slot];
+    }
+
+    /** Builds a request object for the row, e.g. for the adapter; display strings are left unset. */
+    public RideRequest view(int slot) {
+        RideRequest request = new RideRequest(id[slot], passengerName[slot], userType[slot], rating[slot],
+                source[slot], destination[slot], null, null, fare[slot], passengerId[slot],
+                passengers[slot], specialRequest[slot], passengerPhoto[slot], passengerPhone[slot],
+                vehicleType[slot], orNull(pickupLat[slot]), orNull(pickupLng[slot]),
+                orNull(dropLat[slot]), orNull(dropLng[slot]), orNull(distanceKm[slot]),
+                orNull(durationMin[slot]), trafficLevel[slot]);
+        request.setDepartureAt(departureAt[slot]);
+        request.setCreatedAt(createdAt[slot]);
+        return request;
+    }
+
+    /**
+     * Slots of the requests matching every given condition.
+     * @param vehicleType required vehicle type, or null for any
+     * @param maxPassengers most passengers a request may have, or 0 for any
+     * @param departingAfter epoch millis the departure must be later than, or 0 for any
+     */
+    public int[] select(String vehicleType, int maxPassengers, long departingAfter) {
+        return selectNear(Double.NaN, Double.NaN, Double.POSITIVE_INFINITY,
+                vehicleType, maxPassengers, departingAfter);
+    }
+
+    /** Like {@link #select}, limited to pickups within radiusKm of the point. */
+    public int[] selectNear(double lat, double lng, double radiusKm, String vehicleType,
+                            int maxPassengers, long departingAfter) {
+        String wantedVehicle = vehicleType != null ? intern(vehicleType) : null;
+        boolean byDistance = !Double.isNaN(lat) && !Double.isInfinite(radiusKm);
+        double kmPerDegreeLng = byDistance ? KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat)) : 0;
+        double radiusSquared = radiusKm * radiusKm;
+
+        int[] matches = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (departureAt[slot] <= departingAfter && departingAfter > 0) continue;
+            if (maxPassengers > 0 && passengers[slot] > maxPassengers) continue;
+            // Interned on the way in, so the reference compare is exact
+            if (wantedVehicle != null && this.vehicleType[slot] != wantedVehicle) continue;
+            if (byDistance) {
+                double northKm = (pickupLat[slot] - lat) * KM_PER_DEGREE_LAT;
+                double eastKm = (pickupLng[slot] - lng) * kmPerDegreeLng;
+                // NaN coordinates fail this test too
+                if (!(northKm * northKm + eastKm * eastKm <= radiusSquared)) continue;
+            }
+            matches[count++] = slot;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /** Sorts slots by departure time, soonest first. */
+    public void sortByDeparture(int[] slots) {
+        long base = Long.MAX_VALUE;
+        for (int slot : slots) {
+            base = Math.min(base, departureAt[slot]);
+        }
+        int[] keys = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            keys[i] = secondsBetween(base, departureAt[slots[i]]);
+        }
+        sortByKeys(slots, keys);
+    }
+
+    /** Sorts slots by creation time, newest first. */
+    public void sortByNewest(int[] slots) {
+        long latest = Long.MIN_VALUE;
+        for (int slot : slots) {
+            latest = Math.max(latest, createdAt[slot]);
+        }
+        int[] keys = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            keys[i] = secondsBetween(createdAt[slots[i]], latest);
+        }
+        sortByKeys(slots, keys);
+    }
+
+    /** Sorts slots by pickup distance from the point, nearest first; no pickup sorts last. */
+    public void sortByDistance(int[] slots, double lat, double lng) {
+        double kmPerDegreeLng = KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat));
+        int[] keys = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            double northKm = (pickupLat[slots[i]] - lat) * KM_PER_DEGREE_LAT;
+            double eastKm = (pickupLng[slots[i]] - lng) * kmPerDegreeLng;
+            double squared = northKm * northKm + eastKm * eastKm;
+            // Bits of a non-negative float order the same way as the float itself
+            keys[i] = Double.isNaN(squared) ? Integer.MAX_VALUE : Float.floatToIntBits((float) squared);
+        }
+        sortByKeys(slots, keys);
+    }
+
+    private static int secondsBetween(long fromMillis, long toMillis) {
+        return (int) Math.min(Integer.MAX_VALUE, (toMillis - fromMillis) / 1000);
+    }
+
+    /**
+     * Sorts slots by their keys, ties by slot. Each key is packed above its slot into one
+     * long, so a primitive sort does it without boxing or a comparator.
+     */
+    private static void sortByKeys(int[] slots, int[] keys) {
+        long[] packed = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            packed[i] = ((long) keys[i] << 32) | (slots[i] & 0xffffffffL);
+        }
+        Arrays.sort(packed);
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = (int) packed[i];
+        }
+    }
+
+    private void moveRow(int from, int to) {
+        pickupLat[to] = pickupLat[from];
+        pickupLng[to] = pickupLng[from];
+        dropLat[to] = dropLat[from];
+        dropLng[to] = dropLng[from];
+        departureAt[to] = departureAt[from];
+        createdAt[to] = createdAt[from];
+        fare[to] = fare[from];
+        distanceKm[to] = distanceKm[from];
+        durationMin[to] = durationMin[from];
+        rating[to] = rating[from];
+        passengers[to] = passengers[from];
+        vehicleType[to] = vehicleType[from];
+        id[to] = id[from];
+        passengerId[to] = passengerId[from];
+        passengerName[to] = passengerName[from];
+        userType[to] = userType[from];
+        source[to] = source[from];
+        destination[to] = destination[from];
+        specialRequest[to] = specialRequest[from];
+        passengerPhoto[to] = passengerPhoto[from];
+        passengerPhone[to] = passengerPhone[from];
+        trafficLevel[to] = trafficLevel[from];
+    }
+
+    // Drops string references so removed rows can be collected
+    private void clearRow(int slot) {
+        vehicleType[slot] = null;
+        id[slot] = null;
+        passengerId[slot] = null;
+        passengerName[slot] = null;
+        userType[slot] = null;
+        source[slot] = null;
+        destination[slot] = null;
+        specialRequest[slot] = null;
+        passengerPhoto[slot] = null;
+        passengerPhone[slot] = null;
+        trafficLevel[slot] = null;
+    }
+
+    private void allocate(int capacity) {
+        pickupLat = grow(pickupLat, capacity);
+        pickupLng = grow(pickupLng, capacity);
+        dropLat = grow(dropLat, capacity);
+        dropLng = grow(dropLng, capacity);
+        departureAt = grow(departureAt, capacity);
+        createdAt = grow(createdAt, capacity);
+        fare = grow(fare, capacity);
+        distanceKm = grow(distanceKm, capacity);
+        durationMin = grow(durationMin, capacity);
+        rating = grow(rating, capacity);
+        passengers = passengers != null ? Arrays.copyOf(passengers, capacity) : new byte[capacity];
+        vehicleType = grow(vehicleType, capacity);
+        id = grow(id, capacity);
+        passengerId = grow(passengerId, capacity);
+        passengerName = grow(passengerName, capacity);
+        userType = grow(userType, capacity);
+        source = grow(source, capacity);
+        destination = grow(destination, capacity);
+        specialRequest = grow(specialRequest, capacity);
+        passengerPhoto = grow(passengerPhoto, capacity);
+        passengerPhone = grow(passengerPhone, capacity);
+        trafficLevel = grow(trafficLevel, capacity);
+    }
+
+    private static double[] grow(double[] column, int capacity) {
+        return column != null ? Arrays.copyOf(column, capacity) : new double[capacity];
+    }
+
+    private static long[] grow(long[] column, int capacity) {
+        return column != null ? Arrays.copyOf(column, capacity) : new long[capacity];
+    }
+
+    private static float[] grow(float[] column, int capacity) {
+        return column != null ? Arrays.copyOf(column, capacity) : new float[capacity];
+    }
+
+    private static String[] grow(String[] column, int capacity) {
+        return column != null ? Arrays.copyOf(column, capacity) : new String[capacity];
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.ridesharing;
+
+/**
+ * Compact binary records for {@link RideRequest}, {@link MyRideRequest} and {@link MyRideItem}.
+ *
+ * Each field is written in a fixed order with no names: timestamps as varints,
+ * coordinates as fixed-point 1e-7 degrees (about 1 cm), money, ratings and durations to
+ * two decimals, distances to the metre, and vehicle type, status, user type and traffic
+ * level as codes from the tables below. Nullable numbers share one presence bitmask per
+ * record. Formatted display strings are not stored, as in {@link RequestPool}; callers
+ * format them from departureAt.
+ *
+ * A change to a layout or to a code table must bump {@link #FORMAT_VERSION}; values
+ * missing from a table are still written, as an escaped string.
+ */
+public final class RideCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    static final String[] VEHICLE_TYPES = {"car", "bike"};
+    static final String[] STATUSES = {
+            RequestAcceptance.STATUS_PENDING, RequestAcceptance.STATUS_ACCEPTED, RideStats.STATUS_COMPLETED};
+    static final String[] USER_TYPES = {"Passenger", "passenger", "Driver", "driver"};
+    static final String[] TRAFFIC_LEVELS = {"Light", "Moderate", "Heavy", "Unknown"};
+
+    private static final long COORDINATE_SCALE = 10_000_000L;
+    private static final long CENTS = 100L;
+    private static final long METRES = 1000L;
+
+    /** Record layout for one type; the id is always the first field. */
+    public interface Format<T> {
+        /** Identifies the layout in snapshot headers. */
+        int kind();
+        void write(WireWriter out, T value);
+        T read(WireReader in);
+    }
+
+    public static final Format<RideRequest> RIDE_REQUEST = new Format<RideRequest>() {
+        private static final int PICKUP = 1, DROP = 1 << 1, DISTANCE = 1 << 2, DURATION = 1 << 3;
+
+        @Override
+        public int kind() {
+            return 1;
+        }
+
+        @Override
+        public void write(WireWriter out, RideRequest request) {
+            out.writeString(request.getId());
+            out.writeString(request.getPassengerName());
+            out.writeCode(request.getUserType(), USER_TYPES);
+            out.writeFixed(request.getRating(), CENTS);
+            out.writeString(request.getSource());
+            out.writeString(request.getDestination());
+            out.writeFixed(request.getOfferedFare(), CENTS);
+            out.writeString(request.getPassengerId());
+            out.writeVarLong(request.getPassengers());
+            out.writeString(request.getSpecialRequest());
+            out.writeString(request.getPassengerPhoto());
+            out.writeString(request.getPassengerPhone());
+            out.writeCode(request.getVehicleType(), VEHICLE_TYPES);
+            out.writeCode(request.getTrafficLevel(), TRAFFIC_LEVELS);
+
+            // A point is only stored when both of its coordinates are known
+            boolean pickup = request.getPickupLat() != null && request.getPickupLng() != null;
+            boolean drop = request.getDropLat() != null && request.getDropLng() != null;
+            int present = (pickup ? PICKUP : 0) | (drop ? DROP : 0)
+                    | (request.getDistance() != null ? DISTANCE : 0)
+                    | (request.getDuration() != null ? DURATION : 0);
+            out.writeVarLong(present);
+            if (pickup) {
+                out.writeFixed(request.getPickupLat(), COORDINATE_SCALE);
+                out.writeFixed(request.getPickupLng(), COORDINATE_SCALE);
+            }
+            if (drop) {
+                // Relative to pickup: a trip across town is a few bytes instead of five
+                double baseLat = pickup ? request.getPickupLat() : 0;
+                double baseLng = pickup ? request.getPickupLng() : 0;
+                out.writeSignedVarLong(Math.round(request.getDropLat() * COORDINATE_SCALE)
+                        - Math.round(baseLat * COORDINATE_SCALE));
+                out.writeSignedVarLong(Math.round(request.getDropLng() * COORDINATE_SCALE)
+                        - Math.round(baseLng * COORDINATE_SCALE));
+            }
+            if (request.getDistance() != null) out.writeFixed(request.getDistance(), METRES);
+            if (request.getDuration() != null) out.writeFixed(request.getDuration(), CENTS);
+
+            out.writeSignedVarLong(request.getDepartureAt());
+            // Requests are posted shortly before they depart, so the gap is small
+            out.writeSignedVarLong(request.getCreatedAt() - request.getDepartureAt());
+        }
+
+        @Override
+        public RideRequest read(WireReader in) {
+            String id = in.readString();
+            String passengerName = in.readString();
+            String userType = in.readCode(USER_TYPES);
+            double rating = in.readFixed(CENTS);
+            String source = in.readString();
+            String destination = in.readString();
+            double fare = in.readFixed(CENTS);
+            String passengerId = in.readString();
+            int passengers = in.readVarInt();
+            String specialRequest = in.readString();
+            String passengerPhoto = in.readString();
+            String passengerPhone = in.readString();
+            String vehicleType = in.readCode(VEHICLE_TYPES);
+            String trafficLevel = in.readCode(TRAFFIC_LEVELS);
+
+            int present = in.readVarInt();
+            Double pickupLat = null, pickupLng = null, dropLat = null, dropLng = null;
+            long pickupLatUnits = 0, pickupLngUnits = 0;
+            if ((present & PICKUP) != 0) {
+                pickupLatUnits = in.readSignedVarLong();
+                pickupLngUnits = in.readSignedVarLong();
+                pickupLat = (double) pickupLatUnits / COORDINATE_SCALE;
+                pickupLng = (double) pickupLngUnits / COORDINATE_SCALE;
+            }
+            if ((present & DROP) != 0) {
+                dropLat = (double) (pickupLatUnits + in.readSignedVarLong()) / COORDINATE_SCALE;
+                dropLng = (double) (pickupLngUnits + in.readSignedVarLong()) / COORDINATE_SCALE;
+            }
+            Double distance = (present & DISTANCE) != 0 ? in.readFixed(METRES) : null;
+            Double duration = (present & DURATION) != 0 ? in.readFixed(CENTS) : null;
+
+            RideRequest request = new RideRequest(id, passengerName, userType, rating, source, destination,
+                    null, null, fare, passengerId, passengers, specialRequest, passengerPhoto, passengerPhone,
+                    vehicleType, pickupLat, pickupLng, dropLat, dropLng, distance, duration, trafficLevel);
+            long departureAt = in.readSignedVarLong();
+            request.setDepartureAt(departureAt);
+            request.setCreatedAt(departureAt + in.readSignedVarLong());
+            return request;
+        }
+    };
+
+    public static final Format<MyRideRequest> MY_RIDE_REQUEST = new Format<MyRideRequest>() {
+        private static final int DEPARTURE = 1, CREATED = 1 << 1, ACCEPTED = 1 << 2;
+
+        @Override
+        public int kind() {
+            return 2;
+        }
+
+        @Override
+        public void write(WireWriter out, MyRideRequest request) {
+            out.writeString(request.getId());
+            out.writeCode(request.getStatus(), STATUSES);
+            out.writeString(request.getPickupLocation());
+            out.writeString(request.getDropLocation());
+            out.writeFixed(request.getFare(), CENTS);
+            out.writeCode(request.getVehicleType(), VEHICLE_TYPES);
+            out.writeVarLong(request.getPassengers());
+            out.writeString(request.getDriverId());
+            out.writeString(request.getDriverName());
+            out.writeString(request.getDriverPhone());
+
+            int present = (request.getDepartureTime() != null ? DEPARTURE : 0)
+                    | (request.getCreatedAt() != null ? CREATED : 0)
+                    | (request.getAcceptedAt() != null ? ACCEPTED : 0);
+            out.writeVarLong(present);
+            if (request.getDepartureTime() != null) out.writeSignedVarLong(request.getDepartureTime());
+            if (request.getCreatedAt() != null) out.writeSignedVarLong(request.getCreatedAt());
+            if (request.getAcceptedAt() != null) out.writeSignedVarLong(request.getAcceptedAt());
+        }
+
+        @Override
+        public MyRideRequest read(WireReader in) {
+            String id = in.readString();
+            String status = in.readCode(STATUSES);
+            String pickup = in.readString();
+            String drop = in.readString();
+            double fare = in.readFixed(CENTS);
+            String vehicleType = in.readCode(VEHICLE_TYPES);
+            int passengers = in.readVarInt();
+            String driverId = in.readString();
+            String driverName = in.readString();
+            String driverPhone = in.readString();
+
+            int present = in.readVarInt();
+            Long departureTime = (present & DEPARTURE) != 0 ? in.readSignedVarLong() : null;
+            Long createdAt = (present & CREATED) != 0 ? in.readSignedVarLong() : null;
+            Long acceptedAt = (present & ACCEPTED) != 0 ? in.readSignedVarLong() : null;
+            return new MyRideRequest(id, status, pickup, drop, fare, vehicleType, passengers,
+                    departureTime, createdAt, driverId, driverName, driverPhone, acceptedAt);
+        }
+    };
+
+    public static final Format<MyRideItem> MY_RIDE_ITEM = new Format<MyRideItem>() {
+        private static final int DEPARTURE = 1, ACCEPTED = 1 << 1, PASSENGER_VIEW = 1 << 2;
+
+        @Override
+        public int kind() {
+            return 3;
+        }
+
+        @Override
+        public void write(WireWriter out, MyRideItem ride) {
+            out.writeString(ride.getId());
+            out.writeCode(ride.getStatus(), STATUSES);
+            out.writeString(ride.getPickupLocation());
+            out.writeString(ride.getDropLocation());
+            out.writeFixed(ride.getFare(), CENTS);
+            out.writeCode(ride.getVehicleType(), VEHICLE_TYPES);
+            out.writeVarLong(ride.getPassengers());
+            out.writeString(ride.getOtherPersonName());
+            out.writeString(ride.getOtherPersonPhone());
+            out.writeString(ride.getOtherPersonId());
+
+            int present = (ride.getDepartureTime() != null ? DEPARTURE : 0)
+                    | (ride.getAcceptedAt() != null ? ACCEPTED : 0)
+                    | (ride.isPassengerView() ? PASSENGER_VIEW : 0);
+            out.writeVarLong(present);
+            if (ride.getDepartureTime() != null) out.writeSignedVarLong(ride.getDepartureTime());
+            if (ride.getAcceptedAt() != null) out.writeSignedVarLong(ride.getAcceptedAt());
+        }
+
+        @Override
+        public MyRideItem read(WireReader in) {
+            String id = in.readString();
+            String status = in.readCode(STATUSES);
+            String pickup = in.readString();
+            String drop = in.readString();
+            double fare = in.readFixed(CENTS);
+            String vehicleType = in.readCode(VEHICLE_TYPES);
+            int passengers = in.readVarInt();
+            String otherPersonName = in.readString();
+            String otherPersonPhone = in.readString();
+            String otherPersonId = in.readString();
+
+            int present = in.readVarInt();
+            Long departureTime = (present & DEPARTURE) != 0 ? in.readSignedVarLong() : null;
+            Long acceptedAt = (present & ACCEPTED) != 0 ? in.readSignedVarLong() : null;
+            return new MyRideItem(id, status, pickup, drop, fare, vehicleType, passengers,
+                    departureTime, acceptedAt, otherPersonName, otherPersonPhone, otherPersonId,
+                    (present & PASSENGER_VIEW) != 0);
+        }
+    };
+
+    private RideCodec() {}
+
+    /** One record as a standalone byte array, without framing. */
+    public static <T> byte[] encode(Format<T> format, T value) {
+        WireWriter out = new WireWriter();
+        format.write(out, value);
+        return out.toByteArray();
+    }
+
+    public static <T> T decode(Format<T> format, byte[] bytes) {
+        WireReader in = new WireReader(bytes);
+        T value = format.read(in);
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Trailing bytes after record");
+        }
+        return value;
+    }
+}
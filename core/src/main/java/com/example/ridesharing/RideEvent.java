@@ -0,0 +1,105 @@
+package com.example.ridesharing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Something a user should be told about, stored as users/{uid}/events/{id}.
+ *
+ * Events are written in the same transaction as the change they describe, with an id
+ * derived from that change, so a retried transaction rewrites the same event rather
+ * than adding a second one. Consumers dedup on the id; nothing is written back.
+ */
+public final class RideEvent {
+
+    public static final String TYPE_REQUEST_ACCEPTED = "request_accepted";
+
+    // Event document fields
+    public static final String FIELD_TYPE = "type";
+    public static final String FIELD_REQUEST_ID = "requestId";
+    public static final String FIELD_DRIVER_NAME = "driverName";
+    public static final String FIELD_DRIVER_PHONE = "driverPhone";
+    public static final String FIELD_PICKUP = "pickupLocation";
+    public static final String FIELD_DROP = "dropLocation";
+    public static final String FIELD_FARE = "fare";
+    public static final String FIELD_CREATED_AT = "createdAt";
+
+    private final String id;
+    private final String type;
+    private final String requestId;
+    private final String driverName;
+    private final String driverPhone;
+    private final String pickupLocation;
+    private final String dropLocation;
+    private final double fare;
+    private final long createdAt;
+
+    public RideEvent(String id, String type, String requestId, String driverName, String driverPhone,
+                     String pickupLocation, String dropLocation, double fare, long createdAt) {
+        this.id = id;
+        this.type = type;
+        this.requestId = requestId;
+        this.driverName = driverName;
+        this.driverPhone = driverPhone;
+        this.pickupLocation = pickupLocation;
+        this.dropLocation = dropLocation;
+        this.fare = fare;
+        this.createdAt = createdAt;
+    }
+
+    /** Id of the event telling the passenger their request was accepted; one per request. */
+    public static String acceptedEventId(String requestId) {
+        return TYPE_REQUEST_ACCEPTED + "_" + requestId;
+    }
+
+    /**
+     * Fields of the acceptance event, written to the passenger's events alongside
+     * {@link RequestAcceptance#acceptedFields}.
+     * @param request fields of the request as read inside the transaction
+     */
+    public static Map<String, Object> acceptedFields(String requestId, Map<String, Object> request,
+                                                     String driverName, String driverPhone, long acceptedAt) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(FIELD_TYPE, TYPE_REQUEST_ACCEPTED);
+        fields.put(FIELD_REQUEST_ID, requestId);
+        fields.put(FIELD_DRIVER_NAME, driverName);
+        fields.put(FIELD_DRIVER_PHONE, driverPhone);
+        fields.put(FIELD_PICKUP, request.get(FIELD_PICKUP));
+        fields.put(FIELD_DROP, request.get(FIELD_DROP));
+        fields.put(FIELD_FARE, request.get(FIELD_FARE));
+        fields.put(FIELD_CREATED_AT, acceptedAt);
+        return fields;
+    }
+
+    /** Reads an event document; missing fields become null, zero or empty. */
+    public static RideEvent fromFields(String id, Map<String, Object> fields) {
+        Object fare = fields.get(FIELD_FARE);
+        Object createdAt = fields.get(FIELD_CREATED_AT);
+        return new RideEvent(
+                id,
+                stringField(fields, FIELD_TYPE),
+                stringField(fields, FIELD_REQUEST_ID),
+                stringField(fields, FIELD_DRIVER_NAME),
+                stringField(fields, FIELD_DRIVER_PHONE),
+                stringField(fields, FIELD_PICKUP),
+                stringField(fields, FIELD_DROP),
+                fare instanceof Number ? ((Number) fare).doubleValue() : 0.0,
+                createdAt instanceof Number ? ((Number) createdAt).longValue() : 0L);
+    }
+
+    // Getters
+    public String getId() { return id; }
+    public String getType() { return type; }
+    public String getRequestId() { return requestId; }
+    public String getDriverName() { return driverName; }
+    public String getDriverPhone() { return driverPhone; }
+    public String getPickupLocation() { return pickupLocation; }
+    public String getDropLocation() { return dropLocation; }
+    public double getFare() { return fare; }
+    public long getCreatedAt() { return createdAt; }
+
+    private static String stringField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value instanceof String ? (String) value : null;
+    }
+}
@@ -23,6 +23,9 @@ public class RideRequest {
     private Double distance;
     private Double duration;
     private String trafficLevel;
+    private long departureAt;
+    private long createdAt;
+    private long expiresAt; // orders the feed by departure at the server; 0 if unknown
 
     public RideRequest(String id, String passengerName, String userType, double rating,
                        String source, String destination, String departureTime,
@@ -87,6 +90,9 @@ public class RideRequest {
     public Double getDistance() { return distance; }
     public Double getDuration() { return duration; }
     public String getTrafficLevel() { return trafficLevel; }
+    public long getDepartureAt() { return departureAt; }
+    public long getCreatedAt() { return createdAt; }
+    public long getExpiresAt() { return expiresAt; }
 
     // Setters
     public void setId(String id) { this.id = id; }
@@ -104,4 +110,7 @@ public class RideRequest {
     public void setPassengerPhoto(String passengerPhoto) { this.passengerPhoto = passengerPhoto; }
     public void setPassengerPhone(String passengerPhone) { this.passengerPhone = passengerPhone; }
     public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+    public void setDepartureAt(long departureAt) { this.departureAt = departureAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+    public void setExpiresAt(long expiresAt) { this.expiresAt = expiresAt; }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.ridesharing;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.Collection;
+
+/**
+ * A list of records in one file, memory-mapped and decoded lazily on read.
+ *
+ * Opening a snapshot maps the file and walks the length prefixes to find where each
+ * record starts; nothing is decoded until {@link #get} asks for that record, and
+ * {@link #idAt} reads only the id. A cold start can therefore show the first screenful
+ * without paying for the rest. Records are written to a temp file that is renamed into
+ * place, so a crash never leaves a torn snapshot.
+ *
+ * Layout: magic, format version, record kind, record count, then each record prefixed
+ * with its length, all as in {@link WireWriter}.
+ */
+public final class RideSnapshot<T> extends AbstractList<T> {
+
+    private static final int MAGIC = 0x52534e50; // "RSNP"
+
+    private final RideCodec.Format<T> format;
+    private final ByteBuffer buffer;
+    private final int[] offsets; // start of each record, past its length prefix
+    private final int[] limits;
+
+    private RideSnapshot(RideCodec.Format<T> format, ByteBuffer buffer, int[] offsets, int[] limits) {
+        this.format = format;
+        this.buffer = buffer;
+        this.offsets = offsets;
+        this.limits = limits;
+    }
+
+    /** Writes the records to the file, replacing it. */
+    public static <T> void write(File file, RideCodec.Format<T> format, Collection<? extends T> records)
+            throws IOException {
+        WireWriter out = new WireWriter(64 * records.size() + 16);
+        writeTo(out, format, records);
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp)) {
+            stream.write(out.buffer(), 0, out.size());
+            stream.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+
+    /** Encodes the records as a snapshot image, as {@link #write} stores it. */
+    public static <T> void writeTo(WireWriter out, RideCodec.Format<T> format, Collection<? extends T> records) {
+        out.writeByte(MAGIC >>> 24);
+        out.writeByte(MAGIC >>> 16);
+        out.writeByte(MAGIC >>> 8);
+        out.writeByte(MAGIC);
+        out.writeVarLong(RideCodec.FORMAT_VERSION);
+        out.writeVarLong(format.kind());
+        out.writeVarLong(records.size());
+        WireWriter record = new WireWriter();
+        for (T value : records) {
+            record.reset();
+            format.write(record, value);
+            out.writeFramed(record);
+        }
+    }
+
+    /**
+     * Maps the file read-only.
+     * @return the snapshot, or null if the file does not exist
+     * @throws IOException if the file is unreadable, corrupt, or of another version or kind
+     */
+    public static <T> RideSnapshot<T> open(File file, RideCodec.Format<T> format) throws IOException {
+        if (!file.isFile()) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return wrap(mapped, format);
+        }
+    }
+
+    /** Reads a snapshot image from the buffer without copying it. */
+    public static <T> RideSnapshot<T> wrap(ByteBuffer buffer, RideCodec.Format<T> format) throws IOException {
+        try {
+            WireReader in = new WireReader(buffer, 0, buffer.capacity());
+            int magic = in.readByte() << 24 | in.readByte() << 16 | in.readByte() << 8 | in.readByte();
+            if (magic != MAGIC) throw new IOException("Not a ride snapshot");
+            long version = in.readVarLong();
+            if (version != RideCodec.FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            long kind = in.readVarLong();
+            if (kind != format.kind()) {
+                throw new IOException("Snapshot holds record kind " + kind + ", not " + format.kind());
+            }
+
+            int count = in.readVarInt();
+            // Every record takes at least its length byte; a corrupt count must not size the arrays
+            if (count > in.remaining()) {
+                throw new IOException("Snapshot claims " + count + " records in " + in.remaining() + " bytes");
+            }
+            int[] offsets = new int[count];
+            int[] limits = new int[count];
+            for (int i = 0; i < count; i++) {
+                int length = in.readVarInt();
+                offsets[i] = in.position();
+                in.skip(length);
+                limits[i] = in.position();
+            }
+            return new RideSnapshot<>(format, buffer, offsets, limits);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt ride snapshot", e);
+        }
+    }
+
+    /** Decodes the record at the index; each call decodes it again. */
+    @Override
+    public T get(int index) {
+        return format.read(new WireReader(buffer, offsets[index], limits[index]));
+    }
+
+    /** The record's id, without decoding the rest of it. */
+    public String idAt(int index) {
+        return new WireReader(buffer, offsets[index], limits[index]).readString();
+    }
+
+    @Override
+    public int size() {
+        return offsets.length;
+    }
+}
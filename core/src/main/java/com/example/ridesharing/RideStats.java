@@ -0,0 +1,161 @@
+package com.example.ridesharing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-user ride aggregates kept on the user's document, and the rules for updating them.
+ *
+ * Aggregates only ever move by increments, applied in the same transaction that marks
+ * the ride as counted. A retried or repeated completion or rating finds the marker and
+ * writes nothing, so nothing is counted twice. Like {@link RequestAcceptance}, the rules
+ * are free of Firestore types so the app and the tests apply exactly the same ones.
+ */
+public final class RideStats {
+
+    // User document fields
+    public static final String FIELD_TOTAL_RIDES = "totalRides";
+    public static final String FIELD_RIDES_AS_DRIVER = "ridesAsDriver";
+    public static final String FIELD_RIDES_AS_PASSENGER = "ridesAsPassenger";
+    public static final String FIELD_RATING_SUM = "ratingSum";
+    public static final String FIELD_RATING_COUNT = "ratingCount";
+    public static final String FIELD_DISTANCE_KM = "totalDistanceKm";
+    public static final String FIELD_FARE = "totalFare";
+
+    // Ride document fields
+    public static final String FIELD_STATS_RECORDED = "statsRecorded";
+    public static final String FIELD_RATING_BY_DRIVER = "ratingByDriver";
+    public static final String FIELD_RATING_BY_PASSENGER = "ratingByPassenger";
+
+    public static final String STATUS_COMPLETED = "completed";
+
+    public static final double MIN_RATING = 1.0;
+    public static final double MAX_RATING = 5.0;
+
+    public static final RideStats EMPTY = new RideStats(0, 0, 0, 0, 0, 0, 0);
+
+    public enum Result {
+        RECORDED,
+        ALREADY_RECORDED,
+        NOT_ALLOWED
+    }
+
+    private final long totalRides;
+    private final long ridesAsDriver;
+    private final long ridesAsPassenger;
+    private final double ratingSum;
+    private final long ratingCount;
+    private final double totalDistanceKm;
+    private final double totalFare;
+
+    public RideStats(long totalRides, long ridesAsDriver, long ridesAsPassenger, double ratingSum,
+                     long ratingCount, double totalDistanceKm, double totalFare) {
+        this.totalRides = totalRides;
+        this.ridesAsDriver = ridesAsDriver;
+        this.ridesAsPassenger = ridesAsPassenger;
+        this.ratingSum = ratingSum;
+        this.ratingCount = ratingCount;
+        this.totalDistanceKm = totalDistanceKm;
+        this.totalFare = totalFare;
+    }
+
+    /** Reads the aggregates from a user document's fields; missing fields count as zero. */
+    public static RideStats fromFields(Map<String, Object> fields) {
+        long ridesAsDriver = longField(fields, FIELD_RIDES_AS_DRIVER);
+        long ridesAsPassenger = longField(fields, FIELD_RIDES_AS_PASSENGER);
+        // Rides completed before the per-role counts existed only bumped totalRides
+        long totalRides = Math.max(longField(fields, FIELD_TOTAL_RIDES), ridesAsDriver + ridesAsPassenger);
+        return new RideStats(
+                totalRides,
+                ridesAsDriver,
+                ridesAsPassenger,
+                doubleField(fields, FIELD_RATING_SUM),
+                longField(fields, FIELD_RATING_COUNT),
+                doubleField(fields, FIELD_DISTANCE_KM),
+                doubleField(fields, FIELD_FARE));
+    }
+
+    /**
+     * Decides whether completing a ride should be counted, from the ride read inside
+     * the transaction.
+     * @param status status of the ride, or null if the document is gone
+     * @param statsRecorded the ride's {@link #FIELD_STATS_RECORDED} flag, if any
+     */
+    public static Result checkCompletion(String status, Boolean statsRecorded) {
+        if (Boolean.TRUE.equals(statsRecorded)) return Result.ALREADY_RECORDED;
+        return RequestAcceptance.STATUS_ACCEPTED.equals(status) ? Result.RECORDED : Result.NOT_ALLOWED;
+    }
+
+    /** Mutable map of the fields written when {@link #checkCompletion} returned {@link Result#RECORDED}. */
+    public static Map<String, Object> completedRideFields(long completedAt) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("status", STATUS_COMPLETED);
+        fields.put("completedAt", completedAt);
+        fields.put(FIELD_STATS_RECORDED, true);
+        return fields;
+    }
+
+    /**
+     * Increments to one participant's aggregates for a completed ride.
+     * @param distanceKm route distance, or null if the ride never had one
+     */
+    public static Map<String, Number> completionIncrements(boolean asDriver, Double distanceKm, double fare) {
+        Map<String, Number> increments = new HashMap<>();
+        increments.put(FIELD_TOTAL_RIDES, 1L);
+        increments.put(asDriver ? FIELD_RIDES_AS_DRIVER : FIELD_RIDES_AS_PASSENGER, 1L);
+        increments.put(FIELD_DISTANCE_KM, distanceKm != null && distanceKm > 0 ? distanceKm : 0.0);
+        increments.put(FIELD_FARE, fare > 0 ? fare : 0.0);
+        return increments;
+    }
+
+    /** Ride field holding the rating the given participant left, which marks it as counted. */
+    public static String ratingField(boolean byDriver) {
+        return byDriver ? FIELD_RATING_BY_DRIVER : FIELD_RATING_BY_PASSENGER;
+    }
+
+    /**
+     * Decides whether a rating should be counted.
+     * @param status status of the ride, or null if the document is gone
+     * @param existingRating what the rater's {@link #ratingField} already holds, if anything
+     */
+    public static Result checkRating(String status, Object existingRating) {
+        if (existingRating != null) return Result.ALREADY_RECORDED;
+        return STATUS_COMPLETED.equals(status) ? Result.RECORDED : Result.NOT_ALLOWED;
+    }
+
+    /** Increments to the rated user's aggregates. */
+    public static Map<String, Number> ratingIncrements(double rating) {
+        if (!(rating >= MIN_RATING && rating <= MAX_RATING)) {
+            throw new IllegalArgumentException("Rating must be between " + MIN_RATING
+                    + " and " + MAX_RATING + ": " + rating);
+        }
+        Map<String, Number> increments = new HashMap<>();
+        increments.put(FIELD_RATING_SUM, rating);
+        increments.put(FIELD_RATING_COUNT, 1L);
+        return increments;
+    }
+
+    // Getters
+    public long getRidesAsDriver() { return ridesAsDriver; }
+    public long getRidesAsPassenger() { return ridesAsPassenger; }
+    public long getTotalRides() { return totalRides; }
+    public double getRatingSum() { return ratingSum; }
+    public long getRatingCount() { return ratingCount; }
+    public double getTotalDistanceKm() { return totalDistanceKm; }
+    public double getTotalFare() { return totalFare; }
+
+    /** Mean of the ratings received, or 0 if there are none. */
+    public double getAverageRating() {
+        return ratingCount > 0 ? ratingSum / ratingCount : 0.0;
+    }
+
+    private static long longField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double doubleField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+}
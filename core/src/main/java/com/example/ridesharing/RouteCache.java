@@ -0,0 +1,120 @@
+package com.example.ridesharing;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Two-tier cache for Directions API routes: an in-memory LRU in front of a persistent
+ * {@link Store}.
+ *
+ * Keys snap origin and destination to a grid, so picking the same campus or landmark
+ * again maps to the same entry even when the exact coordinates differ by a few metres.
+ * Traffic durations depend on the time of day, so the key also carries the traffic
+ * bucket and the TTL is shortest during rush hour when traffic changes fastest.
+ *
+ * Thread-safe; memory lookups can run on the main thread, {@link #get} may touch disk.
+ */
+public class RouteCache {
+
+    /** Default grid of 0.001 degrees, roughly 110 m. */
+    public static final double DEFAULT_GRID_DEGREES = 0.001;
+    public static final int DEFAULT_MEMORY_CAPACITY = 64;
+
+    private static final long MINUTE_MS = 60 * 1000;
+
+    /** Persistent second tier. Implementations report failures as IOException. */
+    public interface Store {
+        RouteInfo read(String key) throws IOException;
+        void write(String key, RouteInfo route) throws IOException;
+        void delete(String key) throws IOException;
+    }
+
+    private final double gridDegrees;
+    private final Store store;
+    private final Map<String, RouteInfo> memory;
+
+    public RouteCache(Store store) {
+        this(DEFAULT_MEMORY_CAPACITY, DEFAULT_GRID_DEGREES, store);
+    }
+
+    public RouteCache(int memoryCapacity, double gridDegrees, Store store) {
+        this.gridDegrees = gridDegrees;
+        this.store = store;
+        this.memory = new LinkedHashMap<String, RouteInfo>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RouteInfo> eldest) {
+                return size() > memoryCapacity;
+            }
+        };
+    }
+
+    /** Cache key for a route requested at the given hour of day. */
+    public String key(double originLat, double originLng, double destLat, double destLng, int hour) {
+        return String.format(Locale.ROOT, "%d_%d_%d_%d_%s",
+                snap(originLat), snap(originLng), snap(destLat), snap(destLng),
+                FareEngine.trafficLevel(hour).toLowerCase(Locale.ROOT));
+    }
+
+    /** Memory-only lookup, cheap enough for the main thread. */
+    public synchronized RouteInfo getFromMemory(String key, long now) {
+        RouteInfo route = memory.get(key);
+        if (route != null && route.isExpired(now)) {
+            memory.remove(key);
+            return null;
+        }
+        return route;
+    }
+
+    /** Memory, then disk; a disk hit is promoted to memory. Returns null on a miss. */
+    public RouteInfo get(String key, long now) {
+        RouteInfo route = getFromMemory(key, now);
+        if (route != null || store == null) return route;
+
+        try {
+            route = store.read(key);
+            if (route == null) return null;
+            if (route.isExpired(now)) {
+                store.delete(key);
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        synchronized (this) {
+            memory.put(key, route);
+        }
+        return route;
+    }
+
+    /** Adds to both tiers; a failed disk write only loses the second tier. */
+    public void put(String key, RouteInfo route) {
+        synchronized (this) {
+            memory.put(key, route);
+        }
+        if (store == null) return;
+        try {
+            store.write(key, route);
+        } catch (IOException ignored) {
+            // Still served from memory for this process
+        }
+    }
+
+    /** How long a route fetched at the given hour stays fresh. */
+    public static long ttlMillis(int hour) {
+        switch (FareEngine.trafficLevel(hour)) {
+            case "Heavy":
+                return 10 * MINUTE_MS;
+            case "Moderate":
+                return 30 * MINUTE_MS;
+            default:
+                return 120 * MINUTE_MS;
+        }
+    }
+
+    private long snap(double degrees) {
+        return Math.round(degrees / gridDegrees);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ridesharing;
+
+/**
+ * Immutable Directions API result for one origin/destination pair, as held by
+ * {@link RouteCache}.
+ */
+public final class RouteInfo {
+    private final double distanceKm;
+    private final double durationMin;
+    private final double trafficDurationMin;
+    private final String encodedPolyline;
+    private final long expiresAt;
+
+    public RouteInfo(double distanceKm, double durationMin, double trafficDurationMin,
+                     String encodedPolyline, long expiresAt) {
+        this.distanceKm = distanceKm;
+        this.durationMin = durationMin;
+        this.trafficDurationMin = trafficDurationMin;
+        this.encodedPolyline = encodedPolyline;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters
+    public double getDistanceKm() { return distanceKm; }
+    public double getDurationMin() { return durationMin; }
+    public double getTrafficDurationMin() { return trafficDurationMin; }
+    public String getEncodedPolyline() { return encodedPolyline; }
+    public long getExpiresAt() { return expiresAt; }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ridesharing;
+
+/**
+ * Immutable weather observation as cached by {@link WeatherProvider}, with the fare
+ * multiplier already worked out so fare checks never wait on the network.
+ */
+public final class WeatherInfo {
+    private final String condition;
+    private final String description;
+    private final double temperatureC;
+    private final double fareMultiplier;
+    private final long fetchedAt;
+
+    public WeatherInfo(String condition, String description, double temperatureC, long fetchedAt) {
+        this.condition = condition;
+        this.description = description;
+        this.temperatureC = temperatureC;
+        this.fareMultiplier = FareEngine.weatherMultiplier(condition, temperatureC);
+        this.fetchedAt = fetchedAt;
+    }
+
+    // Getters
+    public String getCondition() { return condition; }
+    public String getDescription() { return description; }
+    public double getTemperatureC() { return temperatureC; }
+    public double getFareMultiplier() { return fareMultiplier; }
+    public long getFetchedAt() { return fetchedAt; }
+}
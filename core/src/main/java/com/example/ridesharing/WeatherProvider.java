@@ -0,0 +1,179 @@
+package com.example.ridesharing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weather lookups cached by coarse geohash cell and 10-minute time bucket.
+ *
+ * Weather changes over kilometres and tens of minutes, so every pickup within the same
+ * ~5 km cell shares one observation. An observation from the current bucket is served
+ * as is. An older one (up to {@link #MAX_STALE_MS}) is still served straight away while
+ * a single background refresh replaces it for the next lookup (stale-while-revalidate).
+ * Only a cell with nothing usable waits on the network.
+ *
+ * Entries are persisted through a {@link Store} so a cold start still has recent weather.
+ * Thread-safe. {@link #get} may read the store on first use, so call it off the main
+ * thread; {@link #peek} is memory-only.
+ */
+public class WeatherProvider {
+
+    /** Geohash precision of a cache cell (~4.9 km x 4.9 km). */
+    public static final int CELL_PRECISION = 5;
+    public static final long BUCKET_MS = 10 * 60 * 1000;
+    public static final long MAX_STALE_MS = 2 * 60 * 60 * 1000;
+
+    private static final int MAX_CELLS = 32;
+
+    /** Fetches current weather; may complete on any thread. */
+    public interface Fetcher {
+        void fetch(double lat, double lng, Callback callback);
+    }
+
+    public interface Callback {
+        void onWeather(WeatherInfo weather);
+        void onFailure(Exception e);
+    }
+
+    /** Persistent copy of the cache, small enough to load and save whole. */
+    public interface Store {
+        Map<String, WeatherInfo> load() throws IOException;
+        void save(Map<String, WeatherInfo> entries) throws IOException;
+    }
+
+    private final Fetcher fetcher;
+    private final Store store;
+    private final Map<String, WeatherInfo> cells = new HashMap<>();
+    private final Map<String, List<Callback>> inFlight = new HashMap<>();
+    private boolean loaded;
+
+    public WeatherProvider(Fetcher fetcher, Store store) {
+        this.fetcher = fetcher;
+        this.store = store;
+    }
+
+    public static String cellOf(double lat, double lng) {
+        return GeoHash.encode(lat, lng, CELL_PRECISION);
+    }
+
+    public static boolean isFresh(WeatherInfo weather, long now) {
+        return weather.getFetchedAt() / BUCKET_MS == now / BUCKET_MS;
+    }
+
+    /** Memory-only lookup of a fresh or still usable observation, or null. */
+    public synchronized WeatherInfo peek(double lat, double lng, long now) {
+        return usable(cells.get(cellOf(lat, lng)), now);
+    }
+
+    /**
+     * Delivers weather for the location exactly once: from cache when usable (refreshing
+     * a stale entry in the background), otherwise after a fetch. Concurrent misses for
+     * the same cell share one fetch.
+     */
+    public void get(double lat, double lng, long now, Callback callback) {
+        String cell = cellOf(lat, lng);
+        WeatherInfo cached;
+        boolean startFetch;
+        synchronized (this) {
+            ensureLoaded();
+            cached = usable(cells.get(cell), now);
+            if (cached != null && isFresh(cached, now)) {
+                startFetch = false;
+            } else {
+                List<Callback> waiting = inFlight.get(cell);
+                startFetch = waiting == null;
+                if (startFetch) {
+                    waiting = new ArrayList<>(1);
+                    inFlight.put(cell, waiting);
+                }
+                if (cached == null) {
+                    waiting.add(callback);
+                }
+            }
+        }
+
+        if (cached != null) {
+            callback.onWeather(cached);
+        }
+        if (startFetch) {
+            fetch(lat, lng, cell);
+        }
+    }
+
+    private void fetch(double lat, double lng, String cell) {
+        fetcher.fetch(lat, lng, new Callback() {
+            @Override
+            public void onWeather(WeatherInfo weather) {
+                for (Callback waiting : put(cell, weather)) {
+                    waiting.onWeather(weather);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                List<Callback> waiting;
+                synchronized (WeatherProvider.this) {
+                    waiting = inFlight.remove(cell);
+                }
+                for (Callback callback : waiting) {
+                    callback.onFailure(e);
+                }
+            }
+        });
+    }
+
+    private List<Callback> put(String cell, WeatherInfo weather) {
+        List<Callback> waiting;
+        Map<String, WeatherInfo> snapshot;
+        synchronized (this) {
+            waiting = inFlight.remove(cell);
+            cells.put(cell, weather);
+            if (cells.size() > MAX_CELLS) {
+                evictOldest();
+            }
+            snapshot = new HashMap<>(cells);
+        }
+
+        if (store != null) {
+            try {
+                store.save(snapshot);
+            } catch (IOException ignored) {
+                // Memory copy is still good for this process
+            }
+        }
+        return waiting;
+    }
+
+    private WeatherInfo usable(WeatherInfo weather, long now) {
+        if (weather == null || now - weather.getFetchedAt() > MAX_STALE_MS) return null;
+        return weather;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        if (store == null) return;
+        try {
+            for (Map.Entry<String, WeatherInfo> entry : store.load().entrySet()) {
+                cells.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        } catch (IOException ignored) {
+            // Start cold
+        }
+    }
+
+    private void evictOldest() {
+        String oldest = null;
+        long oldestAt = Long.MAX_VALUE;
+        for (Map.Entry<String, WeatherInfo> entry : cells.entrySet()) {
+            if (entry.getValue().getFetchedAt() < oldestAt) {
+                oldestAt = entry.getValue().getFetchedAt();
+                oldest = entry.getKey();
+            }
+        }
+        cells.remove(oldest);
+    }
+}
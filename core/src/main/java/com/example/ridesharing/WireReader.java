@@ -0,0 +1,123 @@
+package com.example.ridesharing;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads what {@link WireWriter} wrote, straight out of a {@link ByteBuffer}.
+ *
+ * The buffer is never copied: reads use absolute positions, so a memory-mapped file is
+ * decoded in place and the buffer's own position is left alone. Only strings are
+ * materialised, and only the fields actually read. Malformed input throws
+ * IllegalArgumentException. Not thread-safe, but many readers may share one buffer.
+ */
+public final class WireReader {
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    public WireReader(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /** Reads buffer[offset, limit); the buffer's position and limit are ignored. */
+    public WireReader(ByteBuffer buffer, int offset, int limit) {
+        if (offset < 0 || limit > buffer.capacity() || offset > limit) {
+            throw new IllegalArgumentException("Bad range [" + offset + ", " + limit + ")");
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public void seek(int newPosition) {
+        if (newPosition < 0 || newPosition > limit) {
+            throw new IllegalArgumentException("Position out of range: " + newPosition);
+        }
+        position = newPosition;
+    }
+
+    public void skip(int bytes) {
+        seek(position + bytes);
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer.get(position++) & 0xFF;
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IllegalArgumentException("Varint longer than 10 bytes at " + position);
+    }
+
+    public int readVarInt() {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    public long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public double readFixed(long scale) {
+        return (double) readSignedVarLong() / scale;
+    }
+
+    public String readString() {
+        int encoded = readVarInt();
+        if (encoded == 0) return null;
+        int length = encoded - 1;
+        require(length);
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+        } else {
+            // Direct and mapped buffers have no array; copy just this string's bytes
+            byte[] bytes = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(position);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        position += length;
+        return value;
+    }
+
+    /** Reads a value written by {@link WireWriter#writeCode} with the same table. */
+    public String readCode(String[] table) {
+        int code = readVarInt();
+        if (code == 0) return null;
+        if (code <= table.length) return table[code - 1];
+        if (code == table.length + 1) return readString();
+        throw new IllegalArgumentException("Unknown code " + code + " at " + position);
+    }
+
+    private void require(int bytes) {
+        if (bytes > limit - position) {
+            throw new IllegalArgumentException("Truncated input: need " + bytes + " bytes at " + position);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.ridesharing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer for the compact record format read back by {@link WireReader}.
+ *
+ * Integers are LEB128 varints, zigzag-encoded when they may be negative, so small
+ * values take one byte. Strings are UTF-8 with their length plus one in front, which
+ * leaves 0 for null. Not thread-safe; reuse one writer with {@link #reset} to avoid
+ * growing a new buffer per record.
+ */
+public final class WireWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    public WireWriter() {
+        this(256);
+    }
+
+    public WireWriter(int initialCapacity) {
+        buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /** The internal buffer; only the first {@link #size} bytes are valid. */
+    byte[] buffer() {
+        return buffer;
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /** Zigzag varint: -1 and 1 both take one byte. */
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /** Writes value * scale rounded to a whole number, e.g. scale 100 keeps two decimals. */
+    public void writeFixed(double value, long scale) {
+        writeSignedVarLong(Math.round(value * scale));
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (!ascii) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, buffer, size, utf8.length);
+            size += utf8.length;
+            return;
+        }
+        // Common case: place names and ids are ASCII, so skip the intermediate array
+        writeVarLong(length + 1L);
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * Writes a value from a fixed table as its index plus one, 0 for null, or an escape
+     * code followed by the string for values the table does not know.
+     */
+    public void writeCode(String value, String[] table) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        for (int i = 0; i < table.length; i++) {
+            if (table[i].equals(value)) {
+                writeVarLong(i + 1);
+                return;
+            }
+        }
+        writeVarLong(table.length + 1);
+        writeString(value);
+    }
+
+    /** Appends another writer's bytes, prefixed with their length. */
+    public void writeFramed(WireWriter record) {
+        writeVarLong(record.size);
+        ensureCapacity(record.size);
+        System.arraycopy(record.buffer, 0, buffer, size, record.size);
+        size += record.size;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra <= buffer.length) return;
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class DispatchOptimizerTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private final MatchingEngine engine = MatchingEngine.getDefault();
+
+    @AfterClass
+    public static void shutDownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void plan_neverPairsADriverOrRequestTwice() throws Exception {
+        Random random = new Random(3);
+        List<RideRequest> requests = MatchingEngineTest.randomRequests(random, 500);
+        List<DriverState> drivers = drivers(random, 500);
+
+        DispatchPlan plan = optimizer().plan(drivers, requests, NOW, 1_000);
+
+        assertTrue(plan.isRefined());
+        assertNoDuplicates(plan);
+        assertFalse(plan.getAssignments().isEmpty());
+    }
+
+    @Test
+    public void plan_isOptimalOnSmallInstances() throws Exception {
+        Random random = new Random(5);
+        DispatchOptimizer optimizer = optimizer();
+        for (int round = 0; round < 30; round++) {
+            List<RideRequest> requests = MatchingEngineTest.randomRequests(random, 6);
+            List<DriverState> drivers = drivers(random, 5);
+
+            DispatchPlan plan = optimizer.plan(drivers, requests, NOW, 1_000);
+            Best best = bruteForce(drivers, requests);
+
+            assertEquals(best.count, plan.getAssignments().size());
+            assertEquals(best.total, plan.getTotalScore(), 1e-6);
+        }
+    }
+
+    @Test
+    public void plan_beatsEveryDriverTakingTheirOwnBest() throws Exception {
+        Random random = new Random(9);
+        List<RideRequest> requests = MatchingEngineTest.randomRequests(random, 1_000);
+        List<DriverState> drivers = drivers(random, 1_000);
+
+        DispatchPlan plan = optimizer().plan(drivers, requests, NOW, 1_000);
+
+        // Without dispatch, drivers who want the same request collide and only one gets it
+        Map<String, Double> served = new HashMap<>();
+        RequestGrid grid = new RequestGrid(requests);
+        for (DriverState driver : drivers) {
+            List<RequestMatch> top = engine.topK(grid, driver, 1, NOW);
+            if (!top.isEmpty()) served.merge(top.get(0).getRequest().getId(), top.get(0).getScore(), Math::max);
+        }
+
+        assertTrue(plan.getAssignments().size() > served.size());
+    }
+
+    @Test
+    public void plan_fallsBackToGreedyWhenBudgetIsSpent() throws Exception {
+        Random random = new Random(13);
+        List<RideRequest> requests = MatchingEngineTest.randomRequests(random, 2_000);
+        List<DriverState> drivers = drivers(random, 2_000);
+
+        DispatchPlan plan = optimizer().plan(drivers, requests, NOW, 0);
+
+        assertFalse(plan.isRefined());
+        assertNoDuplicates(plan);
+        assertFalse(plan.getAssignments().isEmpty());
+    }
+
+    @Test
+    public void plan_acceptsWithoutCollisionsInStore() throws Exception {
+        Random random = new Random(17);
+        List<RideRequest> requests = MatchingEngineTest.randomRequests(random, 300);
+        List<DriverState> drivers = drivers(random, 300);
+        InMemoryRequestStore store = new InMemoryRequestStore(0);
+        for (RideRequest request : requests) {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("status", RequestAcceptance.STATUS_PENDING);
+            store.put(request.getId(), fields);
+        }
+
+        DispatchPlan plan = optimizer().plan(drivers, requests, NOW, 1_000);
+        List<RequestAcceptance.Result> results = POOL.submit(() -> plan.getAssignments().parallelStream()
+                .map(a -> store.accept(a.getRequest().getId(), a.getDriverId(), a.getDriverId(), ""))
+                .collect(java.util.stream.Collectors.toList())).get();
+
+        for (RequestAcceptance.Result result : results) {
+            assertEquals(RequestAcceptance.Result.ACCEPTED, result);
+        }
+        assertEquals(0, store.abortedTransactions());
+        for (DispatchPlan.Assignment assignment : plan.getAssignments()) {
+            assertEquals(assignment.getDriverId(), store.get(assignment.getRequest().getId()).get("driverId"));
+        }
+    }
+
+    private DispatchOptimizer optimizer() {
+        return new DispatchOptimizer(engine, POOL);
+    }
+
+    private static List<DriverState> drivers(Random random, int count) {
+        List<DriverState> drivers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drivers.add(MatchingEngineTest.randomDriver(random, i));
+        }
+        return drivers;
+    }
+
+    private static void assertNoDuplicates(DispatchPlan plan) {
+        Set<String> drivers = new HashSet<>();
+        Set<String> requests = new HashSet<>();
+        for (DispatchPlan.Assignment assignment : plan.getAssignments()) {
+            assertTrue(drivers.add(assignment.getDriverId()));
+            assertTrue(requests.add(assignment.getRequest().getId()));
+        }
+    }
+
+    // Most assignments first, then highest total score, over every possible pairing
+    private Best bruteForce(List<DriverState> drivers, List<RideRequest> requests) {
+        Best best = new Best();
+        search(drivers, requests, 0, new boolean[requests.size()], 0, 0, best);
+        return best;
+    }
+
+    private void search(List<DriverState> drivers, List<RideRequest> requests, int driver,
+                        boolean[] taken, int count, double total, Best best) {
+        if (driver == drivers.size()) {
+            if (count > best.count || (count == best.count && total > best.total)) {
+                best.count = count;
+                best.total = total;
+            }
+            return;
+        }
+        search(drivers, requests, driver + 1, taken, count, total, best);
+        for (int r = 0; r < requests.size(); r++) {
+            if (taken[r]) continue;
+            double score = engine.score(drivers.get(driver), requests.get(r), NOW);
+            if (score == Double.NEGATIVE_INFINITY) continue;
+            taken[r] = true;
+            search(drivers, requests, driver + 1, taken, count + 1, total + score, best);
+            taken[r] = false;
+        }
+    }
+
+    private static final class Best {
+        int count;
+        double total = Double.NEGATIVE_INFINITY;
+    }
+}
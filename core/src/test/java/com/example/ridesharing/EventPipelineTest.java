@@ -0,0 +1,134 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives the notification pipeline from a fake event source that repeats itself the way
+ * the live listener and the catch-up reads do, and checks each event is delivered once.
+ */
+public class EventPipelineTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+
+    private final List<RideEvent> notified = new ArrayList<>();
+    private final List<RideEvent> shownInApp = new ArrayList<>();
+    private final FakeEventSource source = new FakeEventSource();
+    private EventPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        source.setNow(NOW);
+        pipeline = new EventPipeline(notified::add);
+        pipeline.start(source);
+    }
+
+    @Test
+    public void repeatedReports_areDeliveredOnce() {
+        source.emit("a1", accepted("r1", NOW));
+        source.emit("a1", accepted("r1", NOW)); // retried transaction rewrote the event
+        source.replay(0);
+        source.replay(NOW);
+
+        assertEquals(1, notified.size());
+        RideEvent event = notified.get(0);
+        assertEquals("r1", event.getRequestId());
+        assertEquals("Driver", event.getDriverName());
+        assertEquals(150.0, event.getFare(), 0.0);
+        assertTrue(pipeline.hasSeen("a1"));
+    }
+
+    @Test
+    public void visibleScreen_takesEventsInsteadOfSystemNotification() {
+        EventPipeline.Sink screen = shownInApp::add;
+        pipeline.setForeground(screen);
+        source.emit("a1", accepted("r1", NOW));
+        pipeline.clearForeground(event -> { }); // another screen's sink; ours stays
+        source.emit("b1", accepted("r3", NOW));
+        pipeline.clearForeground(screen);
+        source.emit("a2", accepted("r2", NOW + 1));
+        source.replay(0);
+
+        assertEquals(2, shownInApp.size());
+        assertEquals("a1", shownInApp.get(0).getId());
+        assertEquals("b1", shownInApp.get(1).getId());
+        assertEquals(1, notified.size());
+        assertEquals("a2", notified.get(0).getId());
+    }
+
+    @Test
+    public void restoredPipeline_skipsEventsDeliveredBeforeRestart() {
+        source.emit("a1", accepted("r1", NOW - 10));
+        source.emit("a2", accepted("r2", NOW));
+        String saved = pipeline.save();
+        pipeline.stop();
+
+        // The process is killed; a new event arrives before it starts again
+        source.emit("a3", accepted("r3", NOW + 5));
+        List<RideEvent> afterRestart = new ArrayList<>();
+        EventPipeline restarted = new EventPipeline(afterRestart::add);
+        restarted.restore(saved);
+        assertEquals(NOW, restarted.getNewestCreatedAt());
+        restarted.start(source);
+
+        assertEquals(2, notified.size());
+        assertEquals(1, afterRestart.size());
+        assertEquals("a3", afterRestart.get(0).getId());
+        assertEquals(2, source.getStarts());
+    }
+
+    @Test
+    public void staleEvents_areDroppedButRemembered() {
+        source.emit("old", accepted("r1", NOW - 25 * HOUR_MS));
+        source.emit("new", accepted("r2", NOW - HOUR_MS));
+
+        assertEquals(1, notified.size());
+        assertEquals("new", notified.get(0).getId());
+        assertTrue(pipeline.hasSeen("old"));
+    }
+
+    @Test
+    public void seenIds_areBounded() {
+        EventPipeline small = new EventPipeline(notified::add, 2, EventPipeline.DEFAULT_MAX_AGE_MS);
+        List<RideEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            batch.add(RideEvent.fromFields("e" + i, accepted("r" + i, NOW + i)));
+        }
+        small.accept(batch, NOW);
+
+        assertFalse(small.hasSeen("e0"));
+        assertTrue(small.hasSeen("e2"));
+        assertEquals(NOW + 2, small.getNewestCreatedAt());
+
+        EventPipeline restored = new EventPipeline(notified::add);
+        restored.restore(small.save());
+        assertTrue(restored.hasSeen("e1"));
+        restored.restore("not a number\ne0");
+        assertFalse(restored.hasSeen("e0"));
+    }
+
+    @Test
+    public void acceptedEvent_carriesRequestDetails() {
+        assertEquals("request_accepted_r9", RideEvent.acceptedEventId("r9"));
+        RideEvent event = RideEvent.fromFields("x", new HashMap<>());
+        assertEquals(0L, event.getCreatedAt());
+        assertEquals(0.0, event.getFare(), 0.0);
+    }
+
+    private static Map<String, Object> accepted(String requestId, long acceptedAt) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("pickupLocation", "Campus");
+        request.put("dropLocation", "Station");
+        request.put("fare", 150.0);
+        return RideEvent.acceptedFields(requestId, request, "Driver", "0170000000", acceptedAt);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ridesharing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-in for a user's events collection, delivering at least once like the live listener.
+ *
+ * Events are kept as the field maps the app writes. While started, every {@link #emit}
+ * reports the new event; {@link #replay} reports everything created since a given time,
+ * the way a reattached listener or the periodic catch-up read does.
+ */
+class FakeEventSource implements EventPipeline.Source {
+
+    private final List<RideEvent> events = new ArrayList<>();
+    private EventPipeline pipeline;
+    private long now;
+    private int starts;
+
+    void setNow(long now) {
+        this.now = now;
+    }
+
+    /** Stores an event and reports it if the source is started. */
+    void emit(String id, Map<String, Object> fields) {
+        RideEvent event = RideEvent.fromFields(id, fields);
+        events.add(event);
+        if (pipeline != null) {
+            pipeline.accept(Collections.singletonList(event), now);
+        }
+    }
+
+    /** Reports every stored event created at or after the given time, as one batch. */
+    List<RideEvent> replay(long since) {
+        List<RideEvent> batch = new ArrayList<>();
+        for (RideEvent event : events) {
+            if (event.getCreatedAt() >= since) batch.add(event);
+        }
+        return pipeline != null ? pipeline.accept(batch, now) : Collections.emptyList();
+    }
+
+    int getStarts() {
+        return starts;
+    }
+
+    @Override
+    public void start(EventPipeline pipeline) {
+        this.pipeline = pipeline;
+        starts++;
+        // A listener's first snapshot carries everything since the last event seen
+        replay(pipeline.getNewestCreatedAt());
+    }
+
+    @Override
+    public void stop() {
+        pipeline = null;
+    }
+}
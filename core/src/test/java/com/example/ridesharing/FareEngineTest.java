@@ -0,0 +1,83 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Calendar;
+import org.junit.Test;
+
+/** Fares pinned to what PostRequestActivity quoted before the formula moved here. */
+public class FareEngineTest {
+
+    private final FareEngine engine = FareEngine.getDefault();
+
+    @Test
+    public void quote_offPeakWeekdaySolo() {
+        // 60 + 10 km * 15, no multipliers
+        assertQuote(210, 160, 260, input(10, 20, 20, 1, 12, Calendar.TUESDAY, 1.0));
+    }
+
+    @Test
+    public void quote_rushHourRainSharedAndSlowed() {
+        // 210 * 1.3 time * 1.25 traffic * 1.2 rain * 1.15 two riders * 1.5 slowdown = 706.39
+        assertQuote(710, 570, 850, input(10, 20, 30, 2, 8, Calendar.TUESDAY, 1.2));
+    }
+
+    @Test
+    public void quote_fridayNightLongTripFullCar() {
+        // 435 * 1.2 Friday * 1.45 four riders * 0.9 long distance = 681.21; faster than
+        // the plain route, which never lowers the fare
+        assertQuote(680, 540, 820, input(25, 40, 30, 4, 23, Calendar.FRIDAY, 1.0));
+    }
+
+    @Test
+    public void quote_shortTripClampsMinimumAndRoundsHalfUp() {
+        // 75 rounds up to 80; the range floor keeps the minimum at the base fare of 60
+        assertQuote(80, 60, 130, input(1, 5, 5, 1, 13, Calendar.WEDNESDAY, 1.0));
+    }
+
+    @Test
+    public void fairFareAndBatch_agreeWithQuote() {
+        FareQuoteInput[] inputs = {
+                input(10, 20, 20, 1, 12, Calendar.TUESDAY, 1.0),
+                input(10, 20, 30, 2, 8, Calendar.TUESDAY, 1.2),
+                input(25, 40, 30, 4, 23, Calendar.FRIDAY, 1.0),
+        };
+        double[] fair = new double[inputs.length];
+        double[] min = new double[inputs.length];
+        double[] max = new double[inputs.length];
+        engine.quoteBatch(inputs, fair, min, max);
+
+        for (int i = 0; i < inputs.length; i++) {
+            FareQuote quote = engine.quote(inputs[i]);
+            assertEquals(quote.getFairFare(), engine.fairFare(inputs[i]), 0.0);
+            assertEquals(quote.getFairFare(), fair[i], 0.0);
+            assertEquals(quote.getMinFare(), min[i], 0.0);
+            assertEquals(quote.getMaxFare(), max[i], 0.0);
+        }
+    }
+
+    @Test
+    public void trafficMultiplierAndLevel_peakHourBoundaries() {
+        int[] hours = {6, 7, 8, 9, 10, 11, 15, 16, 17, 18, 19, 20};
+        double[] multipliers = {1.0, 1.15, 1.25, 1.25, 1.15, 1.0, 1.0, 1.15, 1.25, 1.25, 1.15, 1.0};
+        String[] levels = {"Light", "Moderate", "Heavy", "Heavy", "Moderate", "Light",
+                "Light", "Moderate", "Heavy", "Heavy", "Moderate", "Light"};
+
+        for (int i = 0; i < hours.length; i++) {
+            assertEquals("hour " + hours[i], multipliers[i], FareEngine.trafficMultiplier(hours[i]), 0.0);
+            assertEquals("hour " + hours[i], levels[i], FareEngine.trafficLevel(hours[i]));
+        }
+    }
+
+    private void assertQuote(double fair, double min, double max, FareQuoteInput input) {
+        FareQuote quote = engine.quote(input);
+        assertEquals(fair, quote.getFairFare(), 0.0);
+        assertEquals(min, quote.getMinFare(), 0.0);
+        assertEquals(max, quote.getMaxFare(), 0.0);
+    }
+
+    private static FareQuoteInput input(double distanceKm, double routeMin, double trafficMin,
+                                        int passengers, int hour, int dayOfWeek, double weather) {
+        return new FareQuoteInput(distanceKm, routeMin, trafficMin, passengers, hour, dayOfWeek, weather);
+    }
+}
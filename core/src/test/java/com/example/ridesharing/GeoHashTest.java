@@ -0,0 +1,103 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class GeoHashTest {
+
+    // The radius AvailableRequestsActivity listens to
+    private static final double FEED_RADIUS_KM = 10.0;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    @Test
+    public void encode_matchesKnownHashes() {
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", GeoHash.encode(42.6, -5.6, 5));
+        assertEquals(GeoHash.STORED_PRECISION, GeoHash.encode(23.8103, 90.4125).length());
+        // A shorter hash is a prefix of the stored one, which is what the feed queries on
+        assertTrue(GeoHash.encode(23.8103, 90.4125).startsWith(GeoHash.encode(23.8103, 90.4125, 4)));
+    }
+
+    @Test
+    public void precisionForRadius_isFinestCellAtLeastRadiusWide() {
+        // Precision 4 cells are about 20 km tall; precision 5 ones about 5 km
+        assertEquals(4, GeoHash.precisionForRadius(23.78, FEED_RADIUS_KM));
+        assertEquals(5, GeoHash.precisionForRadius(23.78, 1.0));
+        assertEquals(GeoHash.STORED_PRECISION, GeoHash.precisionForRadius(23.78, 0.001));
+        assertEquals(1, GeoHash.precisionForRadius(23.78, 10_000));
+    }
+
+    @Test
+    public void coveringPrefixes_areCenterCellAndEightNeighbours() {
+        List<String> prefixes = GeoHash.coveringPrefixes(23.78, 90.41, FEED_RADIUS_KM);
+        assertEquals(9, prefixes.size());
+        assertEquals(GeoHash.encode(23.78, 90.41, 4), prefixes.get(4));
+        for (String prefix : prefixes) {
+            assertEquals(4, prefix.length());
+        }
+    }
+
+    @Test
+    public void coveringPrefixes_coverEveryPointWithinRadius() {
+        assertCovered(23.78, 90.41, FEED_RADIUS_KM);
+        assertCovered(23.78, 90.41, 1.0);
+        assertCovered(45.0, 7.0, FEED_RADIUS_KM);
+        // Just inside a corner of its cell, so the circle spills into three neighbours
+        double[] corner = cellCorner(23.78, 90.41, 4);
+        assertCovered(corner[0] - 1e-6, corner[1] - 1e-6, FEED_RADIUS_KM);
+    }
+
+    @Test
+    public void coveringPrefixes_wrapAcrossAntimeridian() {
+        List<String> prefixes = GeoHash.coveringPrefixes(0.01, 179.99, FEED_RADIUS_KM);
+        String across = GeoHash.encode(0.01, -179.99);
+        assertTrue(prefixes + " misses " + across, startsWithAny(across, prefixes));
+        assertCovered(0.01, 179.99, FEED_RADIUS_KM);
+        assertCovered(-0.01, -179.99, FEED_RADIUS_KM);
+    }
+
+    private static void assertCovered(double lat, double lng, double radiusKm) {
+        List<String> prefixes = GeoHash.coveringPrefixes(lat, lng, radiusKm);
+        Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double distance = radiusKm * Math.sqrt(random.nextDouble());
+            double pointLat = lat + distance * Math.cos(bearing) / KM_PER_DEGREE_LAT;
+            double pointLng = lng + distance * Math.sin(bearing)
+                    / (KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat)));
+            if (pointLng >= 180) pointLng -= 360;
+            if (pointLng < -180) pointLng += 360;
+            if (GeoHash.distanceKm(lat, lng, pointLat, pointLng) > radiusKm) continue;
+
+            String hash = GeoHash.encode(pointLat, pointLng);
+            assertTrue(hash + " at " + pointLat + "," + pointLng + " is outside " + prefixes,
+                    startsWithAny(hash, prefixes));
+        }
+    }
+
+    /** North-east corner of the cell holding the point, found by bisecting like encode does. */
+    private static double[] cellCorner(double lat, double lng, int precision) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        for (int bit = 0; bit < precision * 5; bit++) {
+            if (bit % 2 == 0) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) minLng = mid; else maxLng = mid;
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) minLat = mid; else maxLat = mid;
+            }
+        }
+        return new double[]{maxLat, maxLng};
+    }
+
+    private static boolean startsWithAny(String hash, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (hash.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Runs {@link HttpClient} against a stub server on the loopback interface. */
+public class HttpClientTest {
+
+    private HttpServer server;
+    private HttpClient client;
+    private String baseUrl;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ok", exchange -> respond(exchange, 200, "{\"status\":\"OK\"}"));
+        server.createContext("/missing", exchange -> respond(exchange, 404, "{}"));
+        server.createContext("/slow", exchange -> {
+            awaitRelease();
+            respond(exchange, 200, "{\"slow\":true}");
+        });
+        server.start();
+
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        client = new HttpClient(2, 2000, 500);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void get_returnsBody() throws Exception {
+        Result result = await(client, baseUrl + "/ok");
+        assertEquals("{\"status\":\"OK\"}", result.body.get());
+        assertNull(result.error.get());
+    }
+
+    @Test
+    public void get_reportsHttpErrors() throws Exception {
+        Result result = await(client, baseUrl + "/missing");
+        assertNull(result.body.get());
+        assertTrue(result.error.get().getMessage().contains("404"));
+    }
+
+    @Test
+    public void get_timesOutSlowResponses() throws Exception {
+        Result result = await(client, baseUrl + "/slow");
+        assertTrue(result.error.get() instanceof SocketTimeoutException);
+    }
+
+    @Test
+    public void sequentialRequests_reuseConnection() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            await(client, baseUrl + "/ok");
+        }
+        assertEquals(5, hits.get());
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void identicalRequestsInFlight_areCoalesced() throws Exception {
+        Result first = new Result();
+        Result second = new Result();
+        client.get(baseUrl + "/slow", first);
+        client.get(baseUrl + "/slow", second);
+        assertEquals(1, client.inFlightCount());
+
+        release.countDown();
+        first.done.await(5, TimeUnit.SECONDS);
+        second.done.await(5, TimeUnit.SECONDS);
+
+        assertEquals(1, hits.get());
+        assertEquals("{\"slow\":true}", first.body.get());
+        assertEquals("{\"slow\":true}", second.body.get());
+    }
+
+    @Test
+    public void cancel_dropsCallbackAndAbortsUnsharedRequest() throws Exception {
+        HttpClient patient = new HttpClient(2, 2000, 5000);
+        Result superseded = new Result();
+        HttpClient.Call call = patient.get(baseUrl + "/slow", superseded);
+        call.cancel();
+
+        assertTrue(call.isCanceled());
+        assertEquals(0, patient.inFlightCount());
+
+        release.countDown();
+        assertFalse(superseded.done.await(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void cancel_keepsSharedRequestForOtherCallers() throws Exception {
+        HttpClient patient = new HttpClient(2, 2000, 5000);
+        Result superseded = new Result();
+        Result current = new Result();
+        HttpClient.Call supersededCall = patient.get(baseUrl + "/slow", superseded);
+        patient.get(baseUrl + "/slow", current);
+        assertEquals(1, patient.inFlightCount());
+
+        // Both callers share the one request; cancelling one must not abort it for the other
+        supersededCall.cancel();
+        assertEquals(1, patient.inFlightCount());
+
+        release.countDown();
+        assertTrue(current.done.await(5, TimeUnit.SECONDS));
+        assertEquals("{\"slow\":true}", current.body.get());
+        assertEquals(1, hits.get());
+        assertFalse(superseded.done.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void runtimeFailure_isReportedAndFreesTheUrl() throws Exception {
+        // A file: URL opens a connection that is not an HttpURLConnection
+        String url = "file:///nonexistent/route.json";
+        Result first = await(client, url);
+        assertTrue(first.error.get().getCause() instanceof ClassCastException);
+        assertEquals(0, client.inFlightCount());
+
+        // A later caller gets its own answer instead of joining the failed request
+        Result second = await(client, url);
+        assertNotNull(second.error.get());
+    }
+
+    private void respond(HttpExchange exchange, int code, String body) throws IOException {
+        hits.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Result await(HttpClient client, String url) throws InterruptedException {
+        Result result = new Result();
+        client.get(url, result);
+        assertTrue("request did not finish", result.done.await(5, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private static final class Result implements HttpClient.Callback {
+        final AtomicReference<String> body = new AtomicReference<>();
+        final AtomicReference<IOException> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        @Override
+        public void onSuccess(String response) {
+            body.set(response);
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+            error.set(e);
+            done.countDown();
+        }
+    }
+}
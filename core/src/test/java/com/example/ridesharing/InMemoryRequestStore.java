@@ -0,0 +1,95 @@
+package com.example.ridesharing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the ride_requests collection with Firestore-like optimistic transactions.
+ *
+ * Reads and commits each cost one simulated round trip. A transaction commits only if
+ * the version it read is still current; otherwise it is retried with a fresh
+ * read, up to {@link #MAX_ATTEMPTS} times like the Firestore client does.
+ */
+class InMemoryRequestStore {
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private final Map<String, Versioned> documents = new ConcurrentHashMap<>();
+    private final long roundTripNanos;
+    private final AtomicInteger aborted = new AtomicInteger();
+
+    InMemoryRequestStore(long roundTripNanos) {
+        this.roundTripNanos = roundTripNanos;
+    }
+
+    void put(String id, Map<String, Object> fields) {
+        documents.put(id, new Versioned(0, new HashMap<>(fields)));
+    }
+
+    Map<String, Object> get(String id) {
+        Versioned current = documents.get(id);
+        return current != null ? current.fields : null;
+    }
+
+    /** Transactions that had to be retried because another commit got in first. */
+    int abortedTransactions() {
+        return aborted.get();
+    }
+
+    /** Transactional acceptance, mirroring the Firestore transaction in the app. */
+    RequestAcceptance.Result accept(String id, String driverId, String driverName,
+                                    String driverPhone) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Versioned read = documents.get(id);
+            roundTrip();
+            String status = read != null ? (String) read.fields.get("status") : null;
+            RequestAcceptance.Result result = RequestAcceptance.check(status);
+
+            // Losers never write, so they never contend on the commit
+            if (result != RequestAcceptance.Result.ACCEPTED) return result;
+
+            roundTrip();
+
+            Map<String, Object> updated = new HashMap<>(read.fields);
+            updated.putAll(RequestAcceptance.acceptedFields(
+                    driverId, driverName, driverPhone, System.currentTimeMillis()));
+            if (documents.replace(id, read, new Versioned(read.version + 1, updated))) {
+                return result;
+            }
+            aborted.incrementAndGet();
+        }
+        throw new IllegalStateException("Transaction failed after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    /** The old read-then-update path: no precondition, last writer wins. */
+    void blindAccept(String id, String driverId, String driverName, String driverPhone) {
+        roundTrip();
+        documents.compute(id, (key, current) -> {
+            Map<String, Object> updated = new HashMap<>(current.fields);
+            updated.putAll(RequestAcceptance.acceptedFields(
+                    driverId, driverName, driverPhone, System.currentTimeMillis()));
+            return new Versioned(current.version + 1, updated);
+        });
+    }
+
+    private void roundTrip() {
+        if (roundTripNanos <= 0) return;
+        long deadline = System.nanoTime() + roundTripNanos;
+        while (System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+    }
+
+    // Identity-compared so replace() only succeeds against the exact version read
+    private static final class Versioned {
+        final long version;
+        final Map<String, Object> fields;
+
+        Versioned(long version, Map<String, Object> fields) {
+            this.version = version;
+            this.fields = fields;
+        }
+    }
+}
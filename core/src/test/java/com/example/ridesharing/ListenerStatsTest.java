@@ -0,0 +1,77 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ListenerStatsTest {
+
+    @Before
+    public void setUp() {
+        ListenerStats.reset();
+    }
+
+    @Test
+    public void countsAreKeptPerScreen() {
+        ListenerStats.attached("feed");
+        ListenerStats.attached("feed");
+        ListenerStats.attached("trips");
+        ListenerStats.received("feed", 20);
+        ListenerStats.received("feed", 3);
+        ListenerStats.detached("feed");
+
+        assertEquals(1, ListenerStats.activeListeners("feed"));
+        assertEquals(23, ListenerStats.documentsReceived("feed"));
+        assertEquals(2, ListenerStats.forScreen("feed").getSnapshotsReceived());
+        assertEquals(2, ListenerStats.forScreen("feed").getListenersAttached());
+        assertEquals(1, ListenerStats.activeListeners("trips"));
+        assertEquals(0, ListenerStats.documentsReceived("trips"));
+        assertEquals(2, ListenerStats.totalActiveListeners());
+        assertEquals("[feed, trips]", ListenerStats.all().keySet().toString());
+    }
+
+    @Test
+    public void stopAndStartLeavesNoListenerBehind() {
+        for (int cycle = 0; cycle < 5; cycle++) {
+            ListenerStats.attached("feed");
+            ListenerStats.attached("feed");
+            ListenerStats.detached("feed");
+            ListenerStats.detached("feed");
+        }
+        assertEquals(0, ListenerStats.activeListeners("feed"));
+        assertEquals(10, ListenerStats.forScreen("feed").getListenersAttached());
+    }
+
+    @Test
+    public void concurrentSnapshotsAreAllCounted() throws InterruptedException {
+        int threads = 8;
+        int snapshotsPerThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < snapshotsPerThread; i++) {
+                    ListenerStats.received("feed", 2);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals((long) threads * snapshotsPerThread, ListenerStats.forScreen("feed").getSnapshotsReceived());
+        assertEquals(2L * threads * snapshotsPerThread, ListenerStats.documentsReceived("feed"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class LocationSearchIndexTest {
+
+    private static final String[] AREAS = {
+            "EWU Main Campus, Aftabnagar", "Bashundhara R/A", "Gulshan 1", "Gulshan 2",
+            "Banani", "Dhanmondi 27", "Mirpur 10", "Uttara Sector 7", "Motijheel",
+            "Mohakhali DOHS", "Badda", "Rampura", "Farmgate", "Shahbag", "Airport"
+    };
+
+    @Test
+    public void tokenize_foldsCaseAccentsAndPunctuation() {
+        assertEquals(Arrays.asList("bashundhara", "r", "a"), LocationSearchIndex.tokenize("Bashundhara R/A"));
+        assertEquals(Arrays.asList("cafe", "dhaka"), LocationSearchIndex.tokenize("Caf\u00e9, DHAKA"));
+        assertEquals(Collections.emptyList(), LocationSearchIndex.tokenize("  , "));
+    }
+
+    @Test
+    public void search_matchesWordPrefixesOnBothSides() {
+        LocationSearchIndex index = new LocationSearchIndex();
+        index.put("1", "EWU Main Campus", "Bashundhara R/A");
+        index.put("2", "Gulshan 1", "Banani");
+        index.put("3", "EWU Main Campus", "Banani");
+
+        assertEquals(Arrays.asList("1", "3"), index.search("ewu", ""));
+        assertEquals(Collections.singletonList("3"), index.search("ewu camp", "ban"));
+        assertEquals(Collections.emptyList(), index.search("ewu", "gulshan"));
+        assertEquals(3, index.search("", "").size());
+    }
+
+    @Test
+    public void search_ranksWholeWordsAbovePrefixes() {
+        LocationSearchIndex index = new LocationSearchIndex();
+        index.put("prefix", "Gulshanara Tower", "");
+        index.put("word", "Gulshan 2", "");
+
+        assertEquals(Arrays.asList("word", "prefix"), index.search("gulshan", ""));
+    }
+
+    @Test
+    public void putAndRemove_updateIncrementally() {
+        LocationSearchIndex index = new LocationSearchIndex();
+        index.put("1", "Mirpur 10", "Farmgate");
+        index.put("1", "Uttara", "Farmgate");
+
+        assertEquals(Collections.emptyList(), index.search("mirpur", ""));
+        assertEquals(Collections.singletonList("1"), index.search("utt", "farm"));
+
+        index.remove("1");
+        assertEquals(0, index.size());
+        assertEquals(Collections.emptyList(), index.search("utt", ""));
+    }
+
+    @Test
+    public void search_matchesLinearScanOverThousandsOfRequests() {
+        LocationSearchIndex index = new LocationSearchIndex();
+        Map<String, String[]> addresses = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            String[] address = {
+                    AREAS[random.nextInt(AREAS.length)] + " Road " + random.nextInt(200),
+                    AREAS[random.nextInt(AREAS.length)] + " Block " + (char) ('A' + random.nextInt(8))};
+            addresses.put("request-" + i, address);
+            index.put("request-" + i, address[0], address[1]);
+        }
+
+        String[][] queries = {{"ewu", ""}, {"g", "ban"}, {"gulshan 2", "dhan"}, {"", "uttara sec"}, {"mo", "m"}};
+        for (String[] query : queries) {
+            Set<String> expected = new HashSet<>();
+            for (Map.Entry<String, String[]> entry : addresses.entrySet()) {
+                if (prefixesMatch(query[0], entry.getValue()[0]) && prefixesMatch(query[1], entry.getValue()[1])) {
+                    expected.add(entry.getKey());
+                }
+            }
+            assertTrue(!expected.isEmpty());
+            assertEquals(Arrays.toString(query), expected, new HashSet<>(index.search(query[0], query[1])));
+        }
+    }
+
+    // Every query token starts some word of the address
+    private static boolean prefixesMatch(String query, String address) {
+        List<String> words = LocationSearchIndex.tokenize(address);
+        for (String token : LocationSearchIndex.tokenize(query)) {
+            boolean found = false;
+            for (String word : words) {
+                found |= word.startsWith(token);
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class MatchingEngineTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double CENTER_LAT = 23.78;
+    private static final double CENTER_LNG = 90.41;
+
+    private final MatchingEngine engine = MatchingEngine.getDefault();
+
+    @Test
+    public void topK_matchesFullSortOfEveryRequest() {
+        Random random = new Random(7);
+        List<RideRequest> requests = randomRequests(random, 3_000);
+        RequestGrid grid = new RequestGrid(requests);
+
+        for (int i = 0; i < 50; i++) {
+            DriverState driver = randomDriver(random, i);
+            List<RequestMatch> top = engine.topK(grid, driver, 10, NOW);
+
+            List<RequestMatch> expected = new ArrayList<>();
+            for (RideRequest request : requests) {
+                RequestMatch match = engine.match(driver, request, NOW);
+                if (match != null) expected.add(match);
+            }
+            expected.sort(Comparator.comparingDouble(RequestMatch::getScore).reversed()
+                    .thenComparing(match -> match.getRequest().getId()));
+
+            assertEquals(Math.min(10, expected.size()), top.size());
+            for (int j = 0; j < top.size(); j++) {
+                assertEquals(expected.get(j).getRequest().getId(), top.get(j).getRequest().getId());
+            }
+        }
+    }
+
+    @Test
+    public void score_prefersPickupAheadOfHeading() {
+        // Driver heading north; same distance ahead and behind
+        DriverState driver = new DriverState("d", CENTER_LAT, CENTER_LNG, 0);
+        RideRequest ahead = request("ahead", CENTER_LAT + 0.02, CENTER_LNG, CENTER_LAT + 0.08, CENTER_LNG, 300);
+        RideRequest behind = request("behind", CENTER_LAT - 0.02, CENTER_LNG, CENTER_LAT - 0.08, CENTER_LNG, 300);
+
+        assertTrue(engine.score(driver, ahead, NOW) > engine.score(driver, behind, NOW));
+    }
+
+    @Test
+    public void score_prefersRideTowardsDriverDestination() {
+        DriverState driver = new DriverState("d", CENTER_LAT, CENTER_LNG, Double.NaN,
+                CENTER_LAT + 0.1, CENTER_LNG);
+        RideRequest onTheWay = request("on", CENTER_LAT + 0.01, CENTER_LNG, CENTER_LAT + 0.09, CENTER_LNG, 300);
+        RideRequest awayFromIt = request("away", CENTER_LAT + 0.01, CENTER_LNG, CENTER_LAT - 0.07, CENTER_LNG, 300);
+
+        RequestMatch match = engine.match(driver, onTheWay, NOW);
+        assertEquals(0, match.getDetourKm(), 0.5);
+        assertTrue(match.getScore() > engine.score(driver, awayFromIt, NOW));
+    }
+
+    @Test
+    public void score_penalizesArrivingAfterDeparture() {
+        DriverState driver = new DriverState("d", CENTER_LAT, CENTER_LNG, Double.NaN);
+        RideRequest onTime = request("a", CENTER_LAT + 0.03, CENTER_LNG, CENTER_LAT + 0.08, CENTER_LNG, 300);
+        RideRequest leavingNow = request("b", CENTER_LAT + 0.03, CENTER_LNG, CENTER_LAT + 0.08, CENTER_LNG, 300);
+        onTime.setDepartureAt(NOW + 20 * 60 * 1000);
+        leavingNow.setDepartureAt(NOW);
+
+        assertTrue(engine.score(driver, onTime, NOW) > engine.score(driver, leavingNow, NOW));
+    }
+
+    @Test
+    public void match_skipsRequestsOutsideRadiusOrWithoutPickup() {
+        DriverState driver = new DriverState("d", CENTER_LAT, CENTER_LNG, Double.NaN);
+        RideRequest farAway = request("far", CENTER_LAT + 1, CENTER_LNG, CENTER_LAT + 1.1, CENTER_LNG, 300);
+        RideRequest noPickup = new RideRequest("none", "Passenger", "passenger", 5.0, "From", "To", "", "",
+                300, "p-none", 1, "", "", "", "Car", null, null, null, null, null, null, null);
+
+        assertNull(engine.match(driver, farAway, NOW));
+        assertNull(engine.match(driver, noPickup, NOW));
+        assertEquals(0, new RequestGrid(List.of(noPickup)).size());
+    }
+
+    @Test
+    public void matchAll_matchesSequentialTopK() {
+        Random random = new Random(11);
+        RequestGrid grid = new RequestGrid(randomRequests(random, 5_000));
+        List<DriverState> drivers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            drivers.add(randomDriver(random, i));
+        }
+
+        List<List<RequestMatch>> all = engine.matchAll(grid, drivers, 5, NOW);
+
+        assertEquals(drivers.size(), all.size());
+        for (int i = 0; i < drivers.size(); i++) {
+            List<RequestMatch> expected = engine.topK(grid, drivers.get(i), 5, NOW);
+            assertEquals(expected.size(), all.get(i).size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.get(j).getRequest().getId(), all.get(i).get(j).getRequest().getId());
+            }
+        }
+    }
+
+    // Requests spread over a ~30 km square around the centre
+    static List<RideRequest> randomRequests(Random random, int count) {
+        List<RideRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double pickupLat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.27;
+            double pickupLng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.29;
+            double dropLat = pickupLat + (random.nextDouble() - 0.5) * 0.2;
+            double dropLng = pickupLng + (random.nextDouble() - 0.5) * 0.2;
+            RideRequest request = request("r" + i, pickupLat, pickupLng, dropLat, dropLng,
+                    100 + random.nextInt(500));
+            request.setDepartureAt(NOW + random.nextInt(60) * 60 * 1000L);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    static DriverState randomDriver(Random random, int index) {
+        double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.27;
+        double lng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.29;
+        if (index % 2 == 0) {
+            return new DriverState("d" + index, lat, lng, random.nextDouble() * 360);
+        }
+        return new DriverState("d" + index, lat, lng, Double.NaN,
+                lat + (random.nextDouble() - 0.5) * 0.2, lng + (random.nextDouble() - 0.5) * 0.2);
+    }
+
+    private static RideRequest request(String id, double pickupLat, double pickupLng,
+                                       double dropLat, double dropLng, double fare) {
+        return new RideRequest(id, "Passenger", "passenger", 5.0, "From", "To", "", "", fare,
+                "p-" + id, 1, "", "", "", "Car", pickupLat, pickupLng, dropLat, dropLng,
+                null, null, null);
+    }
+}
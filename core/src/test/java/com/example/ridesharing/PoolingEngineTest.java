@@ -0,0 +1,137 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class PoolingEngineTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double LAT = 23.78;
+    private static final double LNG = 90.41;
+
+    private final PoolingEngine engine = PoolingEngine.getDefault();
+
+    @Test
+    public void propose_poolsRidersGoingTheSameWay() {
+        RideRequest first = request("a", 1, "car", LAT, LNG, LAT + 0.08, LNG);
+        RideRequest second = request("b", 1, "car", LAT + 0.005, LNG, LAT + 0.085, LNG);
+
+        List<PooledTrip> trips = engine.propose(Arrays.asList(first, second));
+
+        assertEquals(1, trips.size());
+        PooledTrip trip = trips.get(0);
+        assertEquals(2, trip.getRequests().size());
+        assertEquals(2, trip.getSeats());
+        assertTrue(trip.getSavedKm() > 5);
+        assertValid(trip);
+    }
+
+    @Test
+    public void propose_skipsOppositeDirections() {
+        RideRequest north = request("a", 1, "car", LAT, LNG, LAT + 0.08, LNG);
+        RideRequest south = request("b", 1, "car", LAT + 0.005, LNG, LAT - 0.08, LNG);
+
+        assertTrue(engine.propose(Arrays.asList(north, south)).isEmpty());
+    }
+
+    @Test
+    public void propose_respectsSeatsAndVehicleType() {
+        RideRequest three = request("a", 3, "car", LAT, LNG, LAT + 0.08, LNG);
+        RideRequest two = request("b", 2, "car", LAT + 0.005, LNG, LAT + 0.085, LNG);
+        RideRequest bike = request("c", 1, "bike", LAT, LNG, LAT + 0.08, LNG);
+        RideRequest otherBike = request("d", 1, "bike", LAT + 0.005, LNG, LAT + 0.085, LNG);
+
+        assertTrue(engine.propose(Arrays.asList(three, two)).isEmpty());
+        assertTrue(engine.propose(Arrays.asList(bike, otherBike)).isEmpty());
+    }
+
+    @Test
+    public void propose_skipsFarApartDepartures() {
+        RideRequest first = request("a", 1, "car", LAT, LNG, LAT + 0.08, LNG);
+        RideRequest second = request("b", 1, "car", LAT + 0.005, LNG, LAT + 0.085, LNG);
+        second.setDepartureAt(NOW + 60 * 60 * 1000);
+
+        assertTrue(engine.propose(Arrays.asList(first, second)).isEmpty());
+    }
+
+    @Test
+    public void propose_growsGroupUntilCarIsFull() {
+        List<RideRequest> corridor = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            corridor.add(request("r" + i, 1, "car", LAT + i * 0.002, LNG, LAT + 0.08 + i * 0.002, LNG));
+        }
+
+        List<PooledTrip> trips = engine.propose(corridor);
+
+        assertEquals(4, trips.get(0).getRequests().size());
+        for (PooledTrip trip : trips) {
+            assertValid(trip);
+        }
+    }
+
+    @Test
+    public void propose_randomCityKeepsEveryTripValid() {
+        Random random = new Random(21);
+        List<RideRequest> requests = MatchingEngineTest.randomRequests(random, 5_000);
+        for (RideRequest request : requests) {
+            request.setPassengers(1 + random.nextInt(3));
+            request.setVehicleType(random.nextInt(5) == 0 ? "bike" : "car");
+        }
+
+        List<PooledTrip> trips = engine.propose(requests);
+
+        assertTrue(trips.size() > 100);
+        Set<String> seen = new HashSet<>();
+        for (PooledTrip trip : trips) {
+            assertValid(trip);
+            assertTrue(trip.getSeats() <= PoolingEngine.seatLimit(trip.getRequests().get(0).getVehicleType()));
+            for (RideRequest request : trip.getRequests()) {
+                assertTrue("pooled twice: " + request.getId(), seen.add(request.getId()));
+            }
+        }
+    }
+
+    // Every rider is picked up before being dropped and rides within the detour tolerance
+    private static void assertValid(PooledTrip trip) {
+        assertTrue(trip.getRequests().size() >= 2);
+        assertTrue(trip.getPooledKm() < trip.getSoloKm());
+        List<PooledTrip.Stop> stops = trip.getStops();
+        double[] travelled = new double[stops.size()];
+        for (int i = 1; i < stops.size(); i++) {
+            travelled[i] = travelled[i - 1] + GeoHash.distanceKm(stops.get(i - 1).getLat(), stops.get(i - 1).getLng(),
+                    stops.get(i).getLat(), stops.get(i).getLng());
+        }
+        for (RideRequest request : trip.getRequests()) {
+            int pickup = -1;
+            int drop = -1;
+            for (int i = 0; i < stops.size(); i++) {
+                if (stops.get(i).getRequest() != request) continue;
+                if (stops.get(i).isPickup()) pickup = i;
+                else drop = i;
+            }
+            assertTrue(pickup >= 0 && pickup < drop);
+            double solo = GeoHash.distanceKm(request.getPickupLat(), request.getPickupLng(),
+                    request.getDropLat(), request.getDropLng());
+            double allowed = solo + Math.max(1.0, solo * PoolingEngine.DEFAULT_MAX_DETOUR_FRACTION);
+            // The engine measures in a flat projection, within a fraction of a percent of this
+            assertTrue(travelled[drop] - travelled[pickup] <= allowed * 1.005);
+        }
+    }
+
+    private static RideRequest request(String id, int passengers, String vehicleType,
+                                       double pickupLat, double pickupLng, double dropLat, double dropLng) {
+        RideRequest request = new RideRequest(id, "Passenger", "passenger", 5.0, "From", "To", "", "", 200,
+                "p-" + id, passengers, "", "", "", vehicleType, pickupLat, pickupLng, dropLat, dropLng,
+                null, null, null);
+        request.setDepartureAt(NOW);
+        return request;
+    }
+}
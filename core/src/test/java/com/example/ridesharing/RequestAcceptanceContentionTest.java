@@ -0,0 +1,131 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Runs N drivers accepting the same request at once against {@link InMemoryRequestStore}
+ * and checks that exactly one of them wins and every other attempt is rejected.
+ */
+public class RequestAcceptanceContentionTest {
+
+    private static final int ACCEPTORS = 32;
+    private static final int ROUNDS = 200;
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Test
+    public void check_onlyPendingCanBeAccepted() {
+        assertEquals(RequestAcceptance.Result.ACCEPTED, RequestAcceptance.check("pending"));
+        assertEquals(RequestAcceptance.Result.ALREADY_TAKEN, RequestAcceptance.check("accepted"));
+        assertEquals(RequestAcceptance.Result.ALREADY_TAKEN, RequestAcceptance.check("cancelled"));
+        assertEquals(RequestAcceptance.Result.NOT_FOUND, RequestAcceptance.check(null));
+    }
+
+    @Test
+    public void concurrentAcceptors_exactlyOneWinsPerRequest() throws Exception {
+        InMemoryRequestStore store = new InMemoryRequestStore(ROUND_TRIP_NANOS);
+        ExecutorService pool = Executors.newFixedThreadPool(ACCEPTORS);
+        long rejected = 0;
+
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String requestId = "request-" + round;
+                store.put(requestId, pendingRequest());
+
+                RoundResult result = runRound(pool, ACCEPTORS, driver ->
+                        store.accept(requestId, driver, "Driver " + driver, ""));
+
+                assertEquals("winners in round " + round, 1, result.winners.size());
+                assertEquals(result.winners.get(0), store.get(requestId).get("driverId"));
+                assertEquals(RequestAcceptance.STATUS_ACCEPTED, store.get(requestId).get("status"));
+                rejected += result.rejected;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals((long) ROUNDS * (ACCEPTORS - 1), rejected);
+    }
+
+    @Test
+    public void blindUpdate_letsLaterDriverOverwriteWinner() throws Exception {
+        InMemoryRequestStore store = new InMemoryRequestStore(ROUND_TRIP_NANOS);
+        store.put("request", pendingRequest());
+
+        // Old flow: both drivers saw "pending" in the feed and wrote without a precondition
+        store.blindAccept("request", "driver-a", "Driver A", "");
+        String firstWinner = (String) store.get("request").get("driverId");
+        store.blindAccept("request", "driver-b", "Driver B", "");
+
+        assertNotEquals(firstWinner, store.get("request").get("driverId"));
+
+        // The transactional path rejects the second driver instead
+        store.put("request", pendingRequest());
+        assertEquals(RequestAcceptance.Result.ACCEPTED,
+                store.accept("request", "driver-a", "Driver A", ""));
+        assertEquals(RequestAcceptance.Result.ALREADY_TAKEN,
+                store.accept("request", "driver-b", "Driver B", ""));
+        assertEquals("driver-a", store.get("request").get("driverId"));
+    }
+
+    private static Map<String, Object> pendingRequest() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("status", RequestAcceptance.STATUS_PENDING);
+        fields.put("passengerId", "passenger");
+        return fields;
+    }
+
+    private interface Acceptor {
+        RequestAcceptance.Result accept(String driverId) throws Exception;
+    }
+
+    private static final class RoundResult {
+        final List<String> winners = Collections.synchronizedList(new ArrayList<>());
+        int rejected;
+    }
+
+    private static RoundResult runRound(ExecutorService pool, int acceptors, Acceptor acceptor)
+            throws Exception {
+        RoundResult result = new RoundResult();
+        CountDownLatch ready = new CountDownLatch(acceptors);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RequestAcceptance.Result>> attempts = new ArrayList<>(acceptors);
+
+        for (int i = 0; i < acceptors; i++) {
+            String driverId = "driver-" + i;
+            attempts.add(pool.submit(() -> {
+                ready.countDown();
+                start.await();
+                RequestAcceptance.Result outcome = acceptor.accept(driverId);
+                if (outcome == RequestAcceptance.Result.ACCEPTED) {
+                    result.winners.add(driverId);
+                }
+                return outcome;
+            }));
+        }
+
+        ready.await();
+        start.countDown();
+        for (Future<RequestAcceptance.Result> attempt : attempts) {
+            RequestAcceptance.Result outcome = attempt.get(10, TimeUnit.SECONDS);
+            if (outcome == RequestAcceptance.Result.ALREADY_TAKEN) {
+                result.rejected++;
+            } else {
+                assertEquals(RequestAcceptance.Result.ACCEPTED, outcome);
+            }
+        }
+        return result;
+    }
+}
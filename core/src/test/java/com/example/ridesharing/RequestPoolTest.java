@@ -0,0 +1,153 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class RequestPoolTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    public void view_roundTripsEveryField() {
+        RideRequest request = new RideRequest("r1", "Rahim", "student", 4.5, "Gulshan", "Banani", "ignored",
+                "ignored", 250, "p1", 2, "AC please", "photo", "017", "car", 23.79, 90.41, 23.80, 90.40,
+                3.2, 12.0, "heavy");
+        request.setDepartureAt(NOW);
+        request.setCreatedAt(NOW - 1000);
+
+        RequestPool pool = new RequestPool();
+        RideRequest view = pool.view(pool.upsert(request));
+
+        assertEquals("r1", view.getId());
+        assertEquals("Rahim", view.getPassengerName());
+        assertEquals(4.5, view.getRating(), 1e-6);
+        assertEquals("Banani", view.getDestination());
+        assertEquals(250, view.getOfferedFare(), 1e-3);
+        assertEquals(2, view.getPassengers());
+        assertEquals("car", view.getVehicleType());
+        assertEquals(23.79, view.getPickupLat(), 1e-12);
+        assertEquals(3.2, view.getDistance(), 1e-6);
+        assertEquals("heavy", view.getTrafficLevel());
+        assertEquals(NOW, view.getDepartureAt());
+        assertEquals(NOW - 1000, view.getCreatedAt());
+        // Display strings are formatted by the caller
+        assertNull(view.getDepartureTime());
+    }
+
+    @Test
+    public void view_keepsMissingValuesMissing() {
+        RideRequest request = new RideRequest("r1", "Rahim", "student", 4.5, "A", "B", "", "", 100,
+                "p1", 1, "");
+        RequestPool pool = new RequestPool();
+        RideRequest view = pool.view(pool.upsert(request));
+
+        assertNull(view.getPickupLat());
+        assertNull(view.getDistance());
+        assertEquals(0, pool.selectNear(23.78, 90.41, 50, null, 0, 0).length);
+    }
+
+    @Test
+    public void remove_movesLastRowIntoTheGap() {
+        RequestPool pool = new RequestPool();
+        for (int i = 0; i < 200; i++) {
+            pool.upsert(request("r" + i, 23.78, 90.41, NOW + i, "car", 1));
+        }
+
+        assertTrue(pool.remove("r5"));
+        assertFalse(pool.remove("r5"));
+
+        assertEquals(199, pool.size());
+        assertFalse(pool.contains("r5"));
+        int slot = pool.slotOf("r199");
+        assertEquals("r199", pool.idAt(slot));
+        assertEquals(NOW + 199, pool.departureAt(slot));
+    }
+
+    @Test
+    public void upsert_overwritesExistingRow() {
+        RequestPool pool = new RequestPool();
+        int slot = pool.upsert(request("r1", 23.78, 90.41, NOW, "car", 1));
+        assertEquals(slot, pool.upsert(request("r1", 23.78, 90.41, NOW + 5, "bike", 1)));
+
+        assertEquals(1, pool.size());
+        assertEquals("bike", pool.view(slot).getVehicleType());
+    }
+
+    @Test
+    public void select_matchesObjectScan() {
+        Random random = new Random(4);
+        List<RideRequest> requests = new ArrayList<>();
+        RequestPool pool = new RequestPool();
+        for (int i = 0; i < 5_000; i++) {
+            RideRequest request = request("r" + i,
+                    23.78 + (random.nextDouble() - 0.5) * 0.3, 90.41 + (random.nextDouble() - 0.5) * 0.3,
+                    NOW + (random.nextInt(120) - 30) * 60_000L,
+                    // Not the literal, so the interning is what makes the reference compare work
+                    new String(random.nextBoolean() ? "car" : "bike"), 1 + random.nextInt(4));
+            requests.add(request);
+            pool.upsert(request);
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (RideRequest request : requests) {
+            if (request.getDepartureAt() <= NOW || request.getPassengers() > 2) continue;
+            if (!"car".equals(request.getVehicleType())) continue;
+            if (GeoHash.distanceKm(23.78, 90.41, request.getPickupLat(), request.getPickupLng()) > 5) continue;
+            expected.add(request.getId());
+        }
+
+        int[] slots = pool.selectNear(23.78, 90.41, 5, "car", 2, NOW);
+        pool.sortByDeparture(slots);
+
+        // The flat projection may disagree with haversine right at the edge of the radius
+        assertEquals(expected.size(), slots.length, 2);
+        for (int i = 1; i < slots.length; i++) {
+            assertTrue(pool.departureAt(slots[i - 1]) <= pool.departureAt(slots[i]));
+        }
+    }
+
+    @Test
+    public void sorts_orderByDistanceAndNewest() {
+        RequestPool pool = new RequestPool();
+        RideRequest far = request("far", 23.90, 90.41, NOW, "car", 1);
+        RideRequest near = request("near", 23.79, 90.41, NOW, "car", 1);
+        RideRequest none = new RideRequest("none", "P", "p", 5, "A", "B", "", "", 100, "p", 1, "");
+        far.setCreatedAt(NOW);
+        near.setCreatedAt(NOW - 60_000);
+        none.setCreatedAt(NOW - 120_000);
+        pool.upsert(far);
+        pool.upsert(none);
+        pool.upsert(near);
+
+        int[] slots = pool.select(null, 0, 0);
+        pool.sortByDistance(slots, 23.78, 90.41);
+        assertArrayEquals(new String[] {"near", "far", "none"}, ids(pool, slots));
+
+        pool.sortByNewest(slots);
+        assertArrayEquals(new String[] {"far", "near", "none"}, ids(pool, slots));
+    }
+
+    private static String[] ids(RequestPool pool, int[] slots) {
+        String[] ids = new String[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            ids[i] = pool.idAt(slots[i]);
+        }
+        return ids;
+    }
+
+    private static RideRequest request(String id, double lat, double lng, long departureAt,
+                                       String vehicleType, int passengers) {
+        RideRequest request = new RideRequest(id, "Passenger", "passenger", 5.0, "From", "To", "", "", 200,
+                "p-" + id, passengers, "", "", "", vehicleType, lat, lng, lat + 0.05, lng, null, null, null);
+        request.setDepartureAt(departureAt);
+        return request;
+    }
+}
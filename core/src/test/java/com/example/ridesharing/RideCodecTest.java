@@ -0,0 +1,217 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RideCodecTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double COORDINATE_EPSILON = 1e-7;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rideRequest_roundTripsWithinFixedPointPrecision() {
+        RideRequest request = request("r1", 23.7688123, 90.4259456);
+        RideRequest decoded = RideCodec.decode(RideCodec.RIDE_REQUEST,
+                RideCodec.encode(RideCodec.RIDE_REQUEST, request));
+
+        assertEquals("r1", decoded.getId());
+        assertEquals("Passenger r1", decoded.getPassengerName());
+        assertEquals("Passenger", decoded.getUserType());
+        assertEquals(4.75, decoded.getRating(), 0.0);
+        assertEquals("Mirpur 10", decoded.getSource());
+        assertEquals("Gulshan 2", decoded.getDestination());
+        assertEquals(245.5, decoded.getOfferedFare(), 0.0);
+        assertEquals(3, decoded.getPassengers());
+        assertEquals("car", decoded.getVehicleType());
+        assertEquals("Heavy", decoded.getTrafficLevel());
+        assertEquals(23.7688123, decoded.getPickupLat(), COORDINATE_EPSILON);
+        assertEquals(90.4259456, decoded.getPickupLng(), COORDINATE_EPSILON);
+        assertEquals(23.8190001, decoded.getDropLat(), COORDINATE_EPSILON);
+        assertEquals(90.4300002, decoded.getDropLng(), COORDINATE_EPSILON);
+        assertEquals(12.345, decoded.getDistance(), 1e-9);
+        assertEquals(37.5, decoded.getDuration(), 1e-9);
+        assertEquals(NOW + 1_800_000, decoded.getDepartureAt());
+        assertEquals(NOW, decoded.getCreatedAt());
+        // Display strings are formatted by the caller, as with RequestPool
+        assertNull(decoded.getDepartureTime());
+    }
+
+    @Test
+    public void rideRequest_keepsNullsAndUnknownCodes() {
+        RideRequest request = new RideRequest("r2", null, "rider", 0, "", "ঢাকা বিশ্ববিদ্যালয়", null, null,
+                0, null, 1, null, null, null, "cng", null, null, 23.8, 90.4, null, null, null);
+        RideRequest decoded = RideCodec.decode(RideCodec.RIDE_REQUEST,
+                RideCodec.encode(RideCodec.RIDE_REQUEST, request));
+
+        assertNull(decoded.getPassengerName());
+        assertEquals("rider", decoded.getUserType());
+        assertEquals("", decoded.getSource());
+        assertEquals("ঢাকা বিশ্ববিদ্যালয়", decoded.getDestination());
+        assertEquals("cng", decoded.getVehicleType());
+        assertNull(decoded.getTrafficLevel());
+        assertNull(decoded.getPickupLat());
+        assertEquals(23.8, decoded.getDropLat(), COORDINATE_EPSILON);
+        assertNull(decoded.getDistance());
+    }
+
+    @Test
+    public void rideRequest_isFarSmallerThanJson() {
+        byte[] encoded = RideCodec.encode(RideCodec.RIDE_REQUEST, request("request-0001", 23.7688, 90.4259));
+        // The same fields as JSON run to roughly 550 bytes; most of what remains is text
+        assertTrue("encoded to " + encoded.length + " bytes", encoded.length < 150);
+    }
+
+    @Test
+    public void myRideRequestAndItem_roundTrip() {
+        MyRideRequest request = new MyRideRequest("m1", "accepted", "Campus", "Station", 120.0, "bike",
+                2, NOW + 60_000, NOW, "d1", "Driver", "0170000000", NOW + 30_000);
+        MyRideRequest decodedRequest = RideCodec.decode(RideCodec.MY_RIDE_REQUEST,
+                RideCodec.encode(RideCodec.MY_RIDE_REQUEST, request));
+        assertEquals("accepted", decodedRequest.getStatus());
+        assertEquals(Long.valueOf(NOW + 60_000), decodedRequest.getDepartureTime());
+        assertEquals(Long.valueOf(NOW + 30_000), decodedRequest.getAcceptedAt());
+        assertEquals("Driver", decodedRequest.getDriverName());
+
+        MyRideItem ride = new MyRideItem("m1", "completed", "Campus", "Station", 120.0, null, 1,
+                null, NOW, "Passenger", null, "p1", false);
+        MyRideItem decodedRide = RideCodec.decode(RideCodec.MY_RIDE_ITEM,
+                RideCodec.encode(RideCodec.MY_RIDE_ITEM, ride));
+        assertEquals("completed", decodedRide.getStatus());
+        assertNull(decodedRide.getVehicleType());
+        assertNull(decodedRide.getDepartureTime());
+        assertEquals(Long.valueOf(NOW), decodedRide.getAcceptedAt());
+        assertEquals("p1", decodedRide.getOtherPersonId());
+        assertFalse(decodedRide.isPassengerView());
+    }
+
+    @Test
+    public void wireWriter_varintsAndZigzag() {
+        WireWriter out = new WireWriter(1);
+        out.writeVarLong(0);
+        out.writeVarLong(127);
+        out.writeVarLong(128);
+        out.writeSignedVarLong(-1);
+        out.writeSignedVarLong(Long.MIN_VALUE);
+        out.writeVarLong(-1L);
+        assertEquals(1 + 1 + 2 + 1 + 10 + 10, out.size());
+
+        WireReader in = new WireReader(out.toByteArray());
+        assertEquals(0, in.readVarLong());
+        assertEquals(127, in.readVarLong());
+        assertEquals(128, in.readVarLong());
+        assertEquals(-1, in.readSignedVarLong());
+        assertEquals(Long.MIN_VALUE, in.readSignedVarLong());
+        assertEquals(-1L, in.readVarLong());
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_rejectsTruncatedRecord() {
+        byte[] encoded = RideCodec.encode(RideCodec.RIDE_REQUEST, request("r1", 23.77, 90.42));
+        RideCodec.decode(RideCodec.RIDE_REQUEST, Arrays.copyOf(encoded, encoded.length - 3));
+    }
+
+    @Test
+    public void snapshot_mapsFileAndDecodesLazily() throws IOException {
+        List<RideRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(request("r" + i, 23.7 + i * 1e-4, 90.4 + i * 1e-4));
+        }
+        File file = new File(folder.getRoot(), "feed.snapshot");
+        RideSnapshot.write(file, RideCodec.RIDE_REQUEST, requests);
+
+        RideSnapshot<RideRequest> snapshot = RideSnapshot.open(file, RideCodec.RIDE_REQUEST);
+        assertEquals(1000, snapshot.size());
+        assertEquals("r999", snapshot.idAt(999));
+        assertEquals(23.7 + 500 * 1e-4, snapshot.get(500).getPickupLat(), COORDINATE_EPSILON);
+        assertEquals("r0", snapshot.get(0).getId());
+
+        assertNull(RideSnapshot.open(new File(folder.getRoot(), "missing"), RideCodec.RIDE_REQUEST));
+    }
+
+    @Test
+    public void snapshot_wrapsDirectBufferWithoutCopying() throws IOException {
+        WireWriter image = new WireWriter();
+        RideSnapshot.writeTo(image, RideCodec.MY_RIDE_ITEM, Arrays.asList(
+                new MyRideItem("a", "accepted", "ঢাকা", "Station", 50, "car", 1, NOW, NOW, "X", "1", "x", true)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(image.size());
+        direct.put(image.toByteArray());
+
+        RideSnapshot<MyRideItem> snapshot = RideSnapshot.wrap(direct, RideCodec.MY_RIDE_ITEM);
+        assertEquals("ঢাকা", snapshot.get(0).getPickupLocation());
+        assertEquals(image.size(), direct.position()); // reads leave the buffer's position alone
+    }
+
+    @Test
+    public void snapshot_rejectsOtherKindVersionOrCorruption() throws IOException {
+        File file = new File(folder.getRoot(), "rides.snapshot");
+        RideSnapshot.write(file, RideCodec.MY_RIDE_ITEM, new ArrayList<>());
+        expectIOException(file, RideCodec.RIDE_REQUEST);
+
+        RideSnapshot.write(file, RideCodec.RIDE_REQUEST, Arrays.asList(request("r1", 23.77, 90.42)));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4);
+            raf.write(RideCodec.FORMAT_VERSION + 1);
+        }
+        expectIOException(file, RideCodec.RIDE_REQUEST);
+
+        RideSnapshot.write(file, RideCodec.RIDE_REQUEST, Arrays.asList(request("r1", 23.77, 90.42)));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+        expectIOException(file, RideCodec.RIDE_REQUEST);
+    }
+
+    @Test
+    public void snapshot_rejectsCountLargerThanFile() {
+        // Header of an empty snapshot, with the record count replaced by Integer.MAX_VALUE
+        WireWriter image = new WireWriter();
+        RideSnapshot.writeTo(image, RideCodec.RIDE_REQUEST, new ArrayList<>());
+        byte[] header = Arrays.copyOf(image.toByteArray(), image.size() - 1);
+        WireWriter corrupt = new WireWriter();
+        for (byte b : header) corrupt.writeByte(b);
+        corrupt.writeVarLong(Integer.MAX_VALUE);
+
+        try {
+            RideSnapshot.wrap(ByteBuffer.wrap(corrupt.toByteArray()), RideCodec.RIDE_REQUEST);
+            fail("Expected IOException");
+        } catch (IOException expected) {
+            // rejected before allocating the index arrays
+        }
+    }
+
+    private static void expectIOException(File file, RideCodec.Format<?> format) {
+        try {
+            RideSnapshot.open(file, format);
+            fail("Expected IOException");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    private static RideRequest request(String id, double pickupLat, double pickupLng) {
+        RideRequest request = new RideRequest(id, "Passenger " + id, "Passenger", 4.75, "Mirpur 10", "Gulshan 2",
+                "Nov 14, 10:30 AM", "30 min", 245.5, "passenger-" + id, 3, "", "", "01700000000", "car",
+                pickupLat, pickupLng, pickupLat + 0.0501878, pickupLng + 0.0040546, 12.345, 37.5, "Heavy");
+        request.setDepartureAt(NOW + 1_800_000);
+        request.setCreatedAt(NOW);
+        return request;
+    }
+}
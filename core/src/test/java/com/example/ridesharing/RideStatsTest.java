@@ -0,0 +1,137 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Applies the stats rules the way the app's transactions do, against plain field maps,
+ * and checks that retries and repeats never count a ride or rating twice.
+ */
+public class RideStatsTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private final Map<String, Object> ride = new HashMap<>();
+    private final Map<String, Map<String, Object>> users = new HashMap<>();
+
+    @Test
+    public void completion_isCountedOncePerRide() {
+        acceptedRide(12.5, 180.0);
+
+        assertEquals(RideStats.Result.RECORDED, complete());
+        // A retry after a lost response, and a second tap, find the marker
+        assertEquals(RideStats.Result.ALREADY_RECORDED, complete());
+        assertEquals(RideStats.Result.ALREADY_RECORDED, complete());
+
+        RideStats driver = stats("driver");
+        assertEquals(1, driver.getRidesAsDriver());
+        assertEquals(0, driver.getRidesAsPassenger());
+        assertEquals(12.5, driver.getTotalDistanceKm(), EPSILON);
+        assertEquals(180.0, driver.getTotalFare(), EPSILON);
+
+        RideStats passenger = stats("passenger");
+        assertEquals(1, passenger.getRidesAsPassenger());
+        assertEquals(1, passenger.getTotalRides());
+        assertEquals(1L, users.get("passenger").get(RideStats.FIELD_TOTAL_RIDES));
+    }
+
+    @Test
+    public void completion_requiresAcceptedRide() {
+        ride.put("status", RequestAcceptance.STATUS_PENDING);
+        assertEquals(RideStats.Result.NOT_ALLOWED, complete());
+        assertEquals(RideStats.Result.NOT_ALLOWED, RideStats.checkCompletion(null, null));
+    }
+
+    @Test
+    public void ratings_areAveragedAndCountedOncePerRater() {
+        acceptedRide(null, 100.0);
+        assertEquals(RideStats.Result.NOT_ALLOWED, rate(false, 5.0)); // not completed yet
+        complete();
+
+        assertEquals(RideStats.Result.RECORDED, rate(false, 5.0));
+        assertEquals(RideStats.Result.ALREADY_RECORDED, rate(false, 1.0));
+        assertEquals(RideStats.Result.RECORDED, rate(true, 4.0));
+
+        assertEquals(5.0, stats("driver").getAverageRating(), EPSILON);
+        assertEquals(1, stats("driver").getRatingCount());
+        assertEquals(4.0, stats("passenger").getAverageRating(), EPSILON);
+        assertEquals(0.0, stats("driver").getTotalDistanceKm(), EPSILON);
+    }
+
+    @Test
+    public void aggregates_accumulateAcrossRides() {
+        for (int i = 0; i < 10; i++) {
+            ride.clear();
+            acceptedRide(2.0, 50.0);
+            complete();
+            rate(false, i % 2 == 0 ? 5.0 : 4.0);
+        }
+
+        RideStats driver = stats("driver");
+        assertEquals(10, driver.getRidesAsDriver());
+        assertEquals(20.0, driver.getTotalDistanceKm(), EPSILON);
+        assertEquals(500.0, driver.getTotalFare(), EPSILON);
+        assertEquals(4.5, driver.getAverageRating(), EPSILON);
+        assertEquals(0.0, RideStats.EMPTY.getAverageRating(), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ratingIncrements_rejectOutOfRange() {
+        RideStats.ratingIncrements(6.0);
+    }
+
+    private void acceptedRide(Double distanceKm, double fare) {
+        ride.put("status", RequestAcceptance.STATUS_ACCEPTED);
+        ride.put("driverId", "driver");
+        ride.put("passengerId", "passenger");
+        ride.put("distance", distanceKm);
+        ride.put("fare", fare);
+    }
+
+    // Mirrors the completion transaction: one read of the ride, then all writes or none
+    private RideStats.Result complete() {
+        RideStats.Result result = RideStats.checkCompletion(
+                (String) ride.get("status"), (Boolean) ride.get(RideStats.FIELD_STATS_RECORDED));
+        if (result != RideStats.Result.RECORDED) return result;
+
+        Double distance = (Double) ride.get("distance");
+        double fare = (Double) ride.get("fare");
+        ride.putAll(RideStats.completedRideFields(1_000L));
+        increment((String) ride.get("driverId"), RideStats.completionIncrements(true, distance, fare));
+        increment((String) ride.get("passengerId"), RideStats.completionIncrements(false, distance, fare));
+        return result;
+    }
+
+    private RideStats.Result rate(boolean byDriver, double rating) {
+        String field = RideStats.ratingField(byDriver);
+        RideStats.Result result = RideStats.checkRating((String) ride.get("status"), ride.get(field));
+        if (result != RideStats.Result.RECORDED) return result;
+
+        ride.put(field, rating);
+        String ratedUser = (String) ride.get(byDriver ? "passengerId" : "driverId");
+        increment(ratedUser, RideStats.ratingIncrements(rating));
+        return result;
+    }
+
+    private void increment(String userId, Map<String, Number> increments) {
+        Map<String, Object> user = users.computeIfAbsent(userId, id -> new HashMap<>());
+        for (Map.Entry<String, Number> entry : increments.entrySet()) {
+            Object current = user.get(entry.getKey());
+            Number delta = entry.getValue();
+            if (delta instanceof Long) {
+                long base = current instanceof Number ? ((Number) current).longValue() : 0L;
+                user.put(entry.getKey(), base + delta.longValue());
+            } else {
+                double base = current instanceof Number ? ((Number) current).doubleValue() : 0.0;
+                user.put(entry.getKey(), base + delta.doubleValue());
+            }
+        }
+    }
+
+    private RideStats stats(String userId) {
+        return RideStats.fromFields(users.getOrDefault(userId, new HashMap<>()));
+    }
+}
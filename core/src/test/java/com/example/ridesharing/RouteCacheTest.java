@@ -0,0 +1,123 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RouteCacheTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void key_snapsNearbyPointsToSameCell() {
+        RouteCache cache = new RouteCache(null);
+        String key = cache.key(23.76880, 90.42590, 23.81900, 90.43000, 12);
+
+        // A few metres away from the same pickup and drop
+        assertEquals(key, cache.key(23.76883, 90.42588, 23.81902, 90.42998, 12));
+        assertNotEquals(key, cache.key(23.77880, 90.42590, 23.81900, 90.43000, 12));
+    }
+
+    @Test
+    public void key_separatesTrafficBuckets() {
+        RouteCache cache = new RouteCache(null);
+        assertNotEquals(cache.key(23.7688, 90.4259, 23.819, 90.43, 8),
+                cache.key(23.7688, 90.4259, 23.819, 90.43, 13));
+    }
+
+    @Test
+    public void ttl_isShortestInRushHour() {
+        assertTrue(RouteCache.ttlMillis(8) < RouteCache.ttlMillis(10));
+        assertTrue(RouteCache.ttlMillis(10) < RouteCache.ttlMillis(13));
+    }
+
+    @Test
+    public void get_dropsExpiredEntries() {
+        RouteCache cache = new RouteCache(null);
+        cache.put("route", route(NOW + 1000));
+
+        assertNotNull(cache.get("route", NOW));
+        assertNull(cache.get("route", NOW + 1000));
+    }
+
+    @Test
+    public void diskTier_survivesNewCacheInstance() throws Exception {
+        File directory = folder.newFolder("routes");
+        new RouteCache(new FileRouteStore(directory, 100)).put("route", route(NOW + 60_000));
+
+        RouteInfo restored = new RouteCache(new FileRouteStore(directory, 100)).get("route", NOW);
+
+        assertNotNull(restored);
+        assertEquals(12.5, restored.getDistanceKm(), 0.0);
+        assertEquals("_p~iF~ps|U_ulLnnqC", restored.getEncodedPolyline());
+    }
+
+    @Test
+    public void diskTier_prunesOldestEntries() throws Exception {
+        File directory = folder.newFolder("routes");
+        FileRouteStore store = new FileRouteStore(directory, 8);
+        for (int i = 0; i < 20; i++) {
+            store.write("route-" + i, route(NOW + 60_000));
+        }
+        assertTrue(directory.listFiles().length <= 8);
+    }
+
+    @Test
+    public void repeatLookup_isServedFromMemoryWithoutSecondRead() throws Exception {
+        File directory = folder.newFolder("routes");
+        new FileRouteStore(directory, 100).write(
+                new RouteCache(null).key(23.7688, 90.4259, 23.819, 90.43, 12), route(NOW + 60_000));
+        CountingStore store = new CountingStore(new FileRouteStore(directory, 100));
+        RouteCache cache = new RouteCache(store);
+
+        assertNotNull(cache.get(cache.key(23.7688, 90.4259, 23.819, 90.43, 12), NOW));
+        assertEquals(1, store.reads);
+
+        // The disk hit was promoted, so repeats and nearby points never read the store again
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(cache.get(cache.key(23.76883, 90.42588, 23.81902, 90.42998, 12), NOW));
+        }
+        assertEquals(1, store.reads);
+    }
+
+    /** Store wrapper counting how often the second tier is read. */
+    private static final class CountingStore implements RouteCache.Store {
+        private final RouteCache.Store delegate;
+        int reads;
+
+        CountingStore(RouteCache.Store delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RouteInfo read(String key) throws IOException {
+            reads++;
+            return delegate.read(key);
+        }
+
+        @Override
+        public void write(String key, RouteInfo route) throws IOException {
+            delegate.write(key, route);
+        }
+
+        @Override
+        public void delete(String key) throws IOException {
+            delegate.delete(key);
+        }
+    }
+
+    private static RouteInfo route(long expiresAt) {
+        return new RouteInfo(12.5, 30, 42, "_p~iF~ps|U_ulLnnqC", expiresAt);
+    }
+}
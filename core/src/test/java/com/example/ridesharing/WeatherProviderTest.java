@@ -0,0 +1,149 @@
+package com.example.ridesharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WeatherProviderTest {
+
+    // Aligned to a bucket boundary so "same bucket" is easy to reason about
+    private static final long NOW = 2_833_333L * WeatherProvider.BUCKET_MS;
+    private static final double LAT = 23.7688, LNG = 90.4259;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ManualFetcher fetcher = new ManualFetcher();
+
+    @Test
+    public void get_missFetchesAndCaches() {
+        WeatherProvider provider = new WeatherProvider(fetcher, null);
+        List<WeatherInfo> delivered = new ArrayList<>();
+
+        provider.get(LAT, LNG, NOW, collect(delivered));
+        assertEquals(1, fetcher.pending.size());
+        fetcher.complete(0, rain(NOW));
+
+        assertEquals(1, delivered.size());
+        assertEquals(1.2, delivered.get(0).getFareMultiplier(), 0.0);
+        assertNotNull(provider.peek(LAT, LNG, NOW));
+    }
+
+    @Test
+    public void get_nearbyPickupInSameBucketSkipsNetwork() {
+        WeatherProvider provider = new WeatherProvider(fetcher, null);
+        provider.get(LAT, LNG, NOW, collect(new ArrayList<>()));
+        fetcher.complete(0, rain(NOW));
+
+        List<WeatherInfo> delivered = new ArrayList<>();
+        provider.get(LAT + 0.001, LNG + 0.001, NOW + WeatherProvider.BUCKET_MS - 1, collect(delivered));
+
+        assertEquals(1, fetcher.calls);
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    public void get_staleEntryIsServedWhileOneRefreshRuns() {
+        WeatherProvider provider = new WeatherProvider(fetcher, null);
+        WeatherInfo old = rain(NOW);
+        provider.get(LAT, LNG, NOW, collect(new ArrayList<>()));
+        fetcher.complete(0, old);
+
+        long later = NOW + 3 * WeatherProvider.BUCKET_MS;
+        List<WeatherInfo> delivered = new ArrayList<>();
+        provider.get(LAT, LNG, later, collect(delivered));
+        provider.get(LAT, LNG, later, collect(delivered));
+
+        assertEquals(2, delivered.size());
+        assertSame(old, delivered.get(0));
+        assertEquals("only one revalidation", 2, fetcher.calls);
+
+        WeatherInfo fresh = new WeatherInfo("Clear", "clear sky", 28, later);
+        fetcher.complete(1, fresh);
+        assertSame(fresh, provider.peek(LAT, LNG, later));
+    }
+
+    @Test
+    public void get_concurrentMissesShareOneFetch() {
+        WeatherProvider provider = new WeatherProvider(fetcher, null);
+        List<WeatherInfo> delivered = new ArrayList<>();
+        provider.get(LAT, LNG, NOW, collect(delivered));
+        provider.get(LAT + 0.001, LNG, NOW, collect(delivered));
+
+        fetcher.complete(0, rain(NOW));
+
+        assertEquals(1, fetcher.calls);
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    public void get_tooOldEntryWaitsForFetch() {
+        WeatherProvider provider = new WeatherProvider(fetcher, null);
+        provider.get(LAT, LNG, NOW, collect(new ArrayList<>()));
+        fetcher.complete(0, rain(NOW));
+
+        long muchLater = NOW + WeatherProvider.MAX_STALE_MS + 1;
+        List<WeatherInfo> delivered = new ArrayList<>();
+        provider.get(LAT, LNG, muchLater, collect(delivered));
+
+        assertEquals(0, delivered.size());
+        assertNull(provider.peek(LAT, LNG, muchLater));
+    }
+
+    @Test
+    public void store_restoresCellsForNewProvider() throws Exception {
+        FileWeatherStore store = new FileWeatherStore(folder.newFile("weather.bin"));
+        WeatherProvider first = new WeatherProvider(fetcher, store);
+        first.get(LAT, LNG, NOW, collect(new ArrayList<>()));
+        fetcher.complete(0, rain(NOW));
+
+        WeatherProvider second = new WeatherProvider(fetcher, new FileWeatherStore(
+                new File(folder.getRoot(), "weather.bin")));
+        List<WeatherInfo> delivered = new ArrayList<>();
+        second.get(LAT, LNG, NOW, collect(delivered));
+
+        assertEquals(1, fetcher.calls);
+        assertEquals("Rain", delivered.get(0).getCondition());
+    }
+
+    private static WeatherInfo rain(long fetchedAt) {
+        return new WeatherInfo("Rain", "light rain", 27, fetchedAt);
+    }
+
+    private static WeatherProvider.Callback collect(List<WeatherInfo> delivered) {
+        return new WeatherProvider.Callback() {
+            @Override
+            public void onWeather(WeatherInfo weather) {
+                delivered.add(weather);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                throw new AssertionError(e);
+            }
+        };
+    }
+
+    private static final class ManualFetcher implements WeatherProvider.Fetcher {
+        final List<WeatherProvider.Callback> pending = new ArrayList<>();
+        int calls;
+
+        @Override
+        public void fetch(double lat, double lng, WeatherProvider.Callback callback) {
+            calls++;
+            pending.add(callback);
+        }
+
+        void complete(int index, WeatherInfo weather) {
+            pending.get(index).onWeather(weather);
+        }
+    }
+}
@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "RideSharing"
 include(":app")
+include(":core")
+include(":benchmarks")